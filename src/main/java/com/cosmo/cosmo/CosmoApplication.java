@@ -17,8 +17,10 @@ package com.cosmo.cosmo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CosmoApplication {
 
 	public static void main(String[] args) {
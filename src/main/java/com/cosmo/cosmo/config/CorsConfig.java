@@ -44,7 +44,7 @@ public class CorsConfig {
         configuration.setAllowCredentials(true);
 
         // Expõe headers para o frontend
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", IdempotenciaFilter.CABECALHO_REPETIDA));
 
         // Define por quanto tempo o browser pode cachear a configuração CORS
         configuration.setMaxAge(3600L);
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.config;
+
+import com.cosmo.cosmo.entity.RespostaIdempotente;
+import com.cosmo.cosmo.exception.ConflictException;
+import com.cosmo.cosmo.exception.ValidationException;
+import com.cosmo.cosmo.service.IdempotenciaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Aplica o cabeçalho Idempotency-Key às operações de entrega e devolução de equipamentos. A primeira
+ * requisição com uma chave é executada e, se bem-sucedida, tem a resposta gravada pelo IdempotenciaService;
+ * as novas tentativas com a mesma chave recebem essa resposta (com o cabeçalho Idempotent-Replayed) sem
+ * passar pelo controller. A chave vale por usuário autenticado e operação, e não pode ser reutilizada com
+ * outro corpo de requisição. Sem o cabeçalho, a requisição segue normalmente.
+ */
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    // Método e caminho das operações que aceitam a chave
+    private static final List<String[]> OPERACOES = List.of(
+            new String[] {"POST", "/api/historicos/entregar"},
+            new String[] {"POST", "/api/historicos/entregar-multiplos"},
+            new String[] {"PATCH", "/api/historicos/devolver-multiplos"},
+            new String[] {"PATCH", "/api/historicos/*/devolver"}
+    );
+
+    private static final AntPathMatcher CAMINHOS = new AntPathMatcher();
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    // Responde aos erros do filtro pelo CustomEntityResponseHandler, no mesmo formato dos controllers
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(CABECALHO) == null) {
+            return true;
+        }
+        return OPERACOES.stream().noneMatch(operacao -> operacao[0].equals(request.getMethod())
+                && CAMINHOS.match(operacao[1], caminho(request)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String chave = request.getHeader(CABECALHO);
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            handlerExceptionResolver.resolveException(request, response, null, new ValidationException(
+                    "O cabeçalho " + CABECALHO + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres"));
+            return;
+        }
+
+        CorpoEmCacheRequest requisicao = new CorpoEmCacheRequest(request);
+        String hashRequisicao = sha256(requisicao.corpo);
+        String id = sha256((usuario() + "\n" + request.getMethod() + "\n" + caminho(request) + "\n" + chave)
+                .getBytes(StandardCharsets.UTF_8));
+
+        try {
+            Optional<RespostaIdempotente> gravada = idempotenciaService.executar(id,
+                    () -> executar(requisicao, response, filterChain, hashRequisicao));
+            if (gravada.isPresent()) {
+                repetir(gravada.get(), response, hashRequisicao);
+            }
+        } catch (ConflictException | ValidationException e) {
+            handlerExceptionResolver.resolveException(request, response, null, e);
+        }
+    }
+
+    // Executa a requisição e devolve a resposta a gravar quando ela for bem-sucedida
+    private RespostaIdempotente executar(HttpServletRequest requisicao, HttpServletResponse response,
+                                         FilterChain filterChain, String hashRequisicao)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(requisicao, resposta);
+            if (resposta.getStatus() < 200 || resposta.getStatus() >= 300) {
+                return null;
+            }
+            RespostaIdempotente gravada = new RespostaIdempotente();
+            gravada.setHashRequisicao(hashRequisicao);
+            gravada.setStatusHttp(resposta.getStatus());
+            gravada.setContentType(resposta.getContentType());
+            gravada.setCorpo(resposta.getContentAsByteArray());
+            return gravada;
+        } finally {
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    private void repetir(RespostaIdempotente gravada, HttpServletResponse response, String hashRequisicao)
+            throws IOException {
+        if (!gravada.getHashRequisicao().equals(hashRequisicao)) {
+            throw new ValidationException("A " + CABECALHO + " informada já foi usada com outra requisição");
+        }
+        response.setStatus(gravada.getStatusHttp());
+        if (gravada.getContentType() != null) {
+            response.setContentType(gravada.getContentType());
+        }
+        response.setHeader(CABECALHO_REPETIDA, "true");
+        response.setContentLength(gravada.getCorpo().length);
+        response.getOutputStream().write(gravada.getCorpo());
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String usuario() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null ? autenticacao.getName() : "";
+    }
+
+    private static String sha256(byte[] conteudo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Requisição com o corpo lido antecipadamente, para calcular o hash antes da execução e ainda
+     * entregá-lo inteiro ao controller.
+     */
+    private static class CorpoEmCacheRequest extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoEmCacheRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.corpo = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // O corpo já está em memória: a leitura assíncrona é notificada de imediato e nunca bloqueia
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] destino, int inicio, int tamanho) {
+                    return entrada.read(destino, inicio, tamanho);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.controller;
+
+import com.cosmo.cosmo.dto.dashboard.InventarioDashboardDTO;
+import com.cosmo.cosmo.service.InventarioResumoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+@Tag(name = "Dashboard", description = "Indicadores consolidados do inventário para o painel gerencial.")
+public class DashboardController {
+
+    @Autowired
+    private InventarioResumoService inventarioResumoService;
+
+    /**
+     * GET /api/dashboard/inventario
+     * Totais do inventário por empresa, departamento, status e status de propriedade
+     */
+    @GetMapping("/inventario")
+    @Operation(
+        summary = "Resumo do inventário",
+        description = "Retorna a quantidade de equipamentos por status, status de propriedade, empresa e departamento, " +
+                     "além do valor total por empresa e departamento. Os totais vêm de uma tabela de resumo " +
+                     "atualizada junto com cada alteração de equipamento, sem percorrer o inventário."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resumo do inventário retornado com sucesso"),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<InventarioDashboardDTO> getInventario() {
+        return ResponseEntity.ok(inventarioResumoService.getInventario());
+    }
+}
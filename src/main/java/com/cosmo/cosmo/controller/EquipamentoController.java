@@ -17,7 +17,12 @@ package com.cosmo.cosmo.controller;
 
 import com.cosmo.cosmo.dto.geral.PagedResponseDTO;
 import com.cosmo.cosmo.dto.equipamento.*;
+import com.cosmo.cosmo.enums.EstadoConservacao;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
 import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.cosmo.cosmo.service.EquipamentoExportService;
+import com.cosmo.cosmo.service.EquipamentoImportService;
 import com.cosmo.cosmo.service.EquipamentoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,12 +36,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/equipamentos")
@@ -47,6 +58,12 @@ public class EquipamentoController {
     @Autowired
     private EquipamentoService equipamentoService;
 
+    @Autowired
+    private EquipamentoExportService equipamentoExportService;
+
+    @Autowired
+    private EquipamentoImportService equipamentoImportService;
+
     // ==================== ENDPOINTS DE LEITURA PAGINADOS (GET) ====================
 
     /**
@@ -119,6 +136,94 @@ public class EquipamentoController {
         return ResponseEntity.ok(equipamentos);
     }
 
+    /**
+     * GET /api/equipamentos?view=summary
+     * Busca equipamentos na representação resumida (sem campos específicos dos subtipos)
+     */
+    @GetMapping(params = {"view=summary", "!after"})
+    @Operation(
+        summary = "Listar equipamentos (visão resumida)",
+        description = "Retorna uma lista paginada com apenas os campos usados em grades: identificação, tipo, status, " +
+                     "estado de conservação, propriedade e os nomes da empresa e do departamento. " +
+                     "Os campos específicos de cada tipo e as observações não são carregados."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lista resumida retornada com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PagedResponseDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar equipamentos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<PagedResponseDTO<EquipamentoResumoDTO>> findAllResumo(
+            @Parameter(description = "Representação da listagem", example = "summary")
+            @RequestParam String view,
+            @Parameter(description = "Número da página (começando em 0)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Quantidade de itens por página", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação", example = "id")
+            @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Direção da ordenação", example = "asc", schema = @Schema(allowableValues = {"asc", "desc"}))
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+            Sort.by(sortBy).descending() :
+            Sort.by(sortBy).ascending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+        PagedResponseDTO<EquipamentoResumoDTO> equipamentos = equipamentoService.findAllResumo(pageable);
+        return ResponseEntity.ok(equipamentos);
+    }
+
+    /**
+     * GET /api/equipamentos?after={cursor}
+     * Busca equipamentos com paginação por cursor (keyset)
+     */
+    @GetMapping(params = "after")
+    @Operation(
+        summary = "Listar equipamentos com paginação por cursor",
+        description = "Retorna uma página de equipamentos a partir de um cursor opaco, sem OFFSET. " +
+                     "Envie 'after' vazio para a primeira página e siga o link 'next' para as seguintes. " +
+                     "O total de registros só é calculado quando 'incluirTotal=true'. " +
+                     "Ordenação suportada: id, numeroPatrimonio, serialNumber, marca e modelo."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de equipamentos retornada com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PagedResponseDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido ou campo de ordenação não suportado"),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar equipamentos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<PagedResponseDTO<EquipamentoResponseDTO>> findAllKeyset(
+            @Parameter(description = "Cursor opaco retornado no link 'next' (vazio para a primeira página)", example = "")
+            @RequestParam(defaultValue = "") String after,
+            @Parameter(description = "Quantidade de itens por página", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação (ignorado quando o cursor já define a ordenação)", example = "id")
+            @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Direção da ordenação", example = "asc", schema = @Schema(allowableValues = {"asc", "desc"}))
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Calcula o total de registros (executa COUNT)", example = "false")
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+
+        PagedResponseDTO<EquipamentoResponseDTO> equipamentos =
+                equipamentoService.findAllKeyset(after, size, sortBy, sortDir, incluirTotal);
+        return ResponseEntity.ok(equipamentos);
+    }
+
     /**
      * GET /api/equipamentos/{id}
      * Busca equipamento por ID
@@ -155,6 +260,7 @@ public class EquipamentoController {
                 )
             )
         ),
+        @ApiResponse(responseCode = "304", description = "Equipamento não foi alterado desde a versão informada em If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
         @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar equipamentos"),
         @ApiResponse(responseCode = "404", description = "Equipamento não encontrado"),
@@ -162,9 +268,15 @@ public class EquipamentoController {
     })
     public ResponseEntity<EquipamentoResponseDTO> findById(
             @Parameter(description = "ID único do equipamento", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Compara a versão antes de carregar e mapear; se o cliente já tem a atual, responde 304 sem corpo
+        String versao = equipamentoService.getVersao(id);
+        if (request.checkNotModified(versao)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(versao).build();
+        }
         EquipamentoResponseDTO equipamento = equipamentoService.findById(id);
-        return ResponseEntity.ok(equipamento);
+        return ResponseEntity.ok().eTag(versao).body(equipamento);
     }
 
     /**
@@ -454,6 +566,51 @@ public class EquipamentoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(equipamento);
     }
 
+    /**
+     * POST /api/equipamentos/import
+     * Importa vários equipamentos de tipos variados a partir de um array JSON
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Importar equipamentos em lote (JSON)",
+        description = "Recebe um array em que cada elemento contém o campo 'tipo' (NOTEBOOK, DESKTOP, CELULAR, CHIP, IMPRESSORA ou MONITOR) " +
+                     "e os campos do DTO de criação correspondente. Cada linha é validada e gravada de forma independente; " +
+                     "a resposta traz o resultado de cada linha."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Importação processada; consulte o relatório para as linhas rejeitadas",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = EquipamentoImportResultadoDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Requisição vazia ou acima do limite de linhas"),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para criar equipamentos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<EquipamentoImportResultadoDTO> importarJson(@RequestBody List<Map<String, Object>> equipamentos) {
+        EquipamentoImportResultadoDTO resultado = equipamentoImportService.importarJson(equipamentos);
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * POST /api/equipamentos/import (text/csv)
+     * Importa vários equipamentos a partir de um CSV com cabeçalho
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(
+        summary = "Importar equipamentos em lote (CSV)",
+        description = "Recebe um CSV com cabeçalho. As colunas usam os nomes dos campos dos DTOs de criação, mais a coluna 'tipo'; " +
+                     "células vazias são tratadas como nulas. A resposta traz o resultado de cada linha."
+    )
+    public ResponseEntity<EquipamentoImportResultadoDTO> importarCsv(@RequestBody String conteudo) {
+        EquipamentoImportResultadoDTO resultado = equipamentoImportService.importarCsv(conteudo);
+        return ResponseEntity.ok(resultado);
+    }
+
     // ==================== ENDPOINTS DE ATUALIZAÇÃO ESPECÍFICOS (PUT) ====================
 
     /**
@@ -577,17 +734,34 @@ public class EquipamentoController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * GET /api/equipamentos/counts
+     * Conta equipamentos por tipo e status em uma única chamada
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<EquipamentoContagemDTO> countByTipoAndStatus() {
+        EquipamentoContagemDTO contagem = equipamentoService.countByTipoAndStatus();
+        return ResponseEntity.ok(contagem);
+    }
+
+    /**
+     * GET /api/equipamentos/filtrar
+     * Filtra equipamentos com paginação. Os filtros status, estadoConservacao e statusPropriedade
+     * são exatos e aceitam vários valores separados por vírgula (ex.: status=DISPONIVEL,EM_MANUTENCAO)
+     */
     @GetMapping("/filtrar")
     public ResponseEntity<PagedResponseDTO<EquipamentoResponseDTO>> filtrarEquipamentos(
             @RequestParam(required = false) String serialNumber,
             @RequestParam(required = false) String numeroPatrimonio,
             @RequestParam(required = false) String marca,
             @RequestParam(required = false) String modelo,
-            @RequestParam(required = false) String estadoConservacao,
-            @RequestParam(required = false) String status,
+            @RequestParam(required = false) List<EstadoConservacao> estadoConservacao,
+            @RequestParam(required = false) List<StatusEquipamento> status,
             @RequestParam(required = false) Boolean termoResponsabilidade,
             @RequestParam(required = false) String notaFiscal,
-            @RequestParam(required = false) String statusPropriedade,
+            @RequestParam(required = false) List<StatusPropriedade> statusPropriedade,
+            @RequestParam(required = false) Long empresaId,
+            @RequestParam(required = false) Long departamentoId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -600,8 +774,189 @@ public class EquipamentoController {
         Pageable pageable = PageRequest.of(page, size, sort);
         PagedResponseDTO<EquipamentoResponseDTO> equipamentos = equipamentoService.filtrarEquipamentos(
             serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
-            status, termoResponsabilidade, notaFiscal, statusPropriedade, pageable
+            status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId, pageable
+        );
+        return ResponseEntity.ok(equipamentos);
+    }
+
+    /**
+     * GET /api/equipamentos/filtrar?view=summary
+     * Filtra equipamentos retornando a representação resumida
+     */
+    @GetMapping(value = "/filtrar", params = {"view=summary", "!after"})
+    @Operation(
+        summary = "Filtrar equipamentos (visão resumida)",
+        description = "Aplica os mesmos filtros de /api/equipamentos/filtrar e retorna apenas os campos usados em grades: " +
+                     "identificação, tipo, status, estado de conservação, propriedade e os nomes da empresa e do departamento. " +
+                     "Os campos específicos de cada tipo e as observações não são carregados."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lista resumida filtrada retornada com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PagedResponseDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar equipamentos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<PagedResponseDTO<EquipamentoResumoDTO>> filtrarEquipamentosResumo(
+            @Parameter(description = "Representação da listagem", example = "summary")
+            @RequestParam String view,
+            @Parameter(description = "Número de série (busca parcial)", example = "SN123")
+            @RequestParam(required = false) String serialNumber,
+            @Parameter(description = "Número de patrimônio (busca parcial)", example = "PAT-001")
+            @RequestParam(required = false) String numeroPatrimonio,
+            @Parameter(description = "Marca (busca parcial)", example = "Dell")
+            @RequestParam(required = false) String marca,
+            @Parameter(description = "Modelo (busca parcial)", example = "Latitude")
+            @RequestParam(required = false) String modelo,
+            @Parameter(description = "Estados de conservação aceitos, separados por vírgula", example = "NOVO")
+            @RequestParam(required = false) List<EstadoConservacao> estadoConservacao,
+            @Parameter(description = "Status aceitos, separados por vírgula", example = "DISPONIVEL,EM_MANUTENCAO")
+            @RequestParam(required = false) List<StatusEquipamento> status,
+            @Parameter(description = "Possui termo de responsabilidade", example = "true")
+            @RequestParam(required = false) Boolean termoResponsabilidade,
+            @Parameter(description = "Nota fiscal (busca parcial)", example = "NF-2024")
+            @RequestParam(required = false) String notaFiscal,
+            @Parameter(description = "Status de propriedade aceitos, separados por vírgula", example = "PROPRIO")
+            @RequestParam(required = false) List<StatusPropriedade> statusPropriedade,
+            @Parameter(description = "ID da empresa", example = "1")
+            @RequestParam(required = false) Long empresaId,
+            @Parameter(description = "ID do departamento", example = "1")
+            @RequestParam(required = false) Long departamentoId,
+            @Parameter(description = "Número da página (começando em 0)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Quantidade de itens por página", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação", example = "id")
+            @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Direção da ordenação", example = "asc", schema = @Schema(allowableValues = {"asc", "desc"}))
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() :
+                Sort.by(sortBy).ascending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+        PagedResponseDTO<EquipamentoResumoDTO> equipamentos = equipamentoService.filtrarEquipamentosResumo(
+            serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+            status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId, pageable
         );
         return ResponseEntity.ok(equipamentos);
     }
+
+    /**
+     * GET /api/equipamentos/filtrar?after={cursor}
+     * Filtra equipamentos com paginação por cursor (keyset)
+     */
+    @GetMapping(value = "/filtrar", params = "after")
+    @Operation(
+        summary = "Filtrar equipamentos com paginação por cursor",
+        description = "Aplica os mesmos filtros de /api/equipamentos/filtrar e retorna uma página a partir de um cursor opaco, sem OFFSET. " +
+                     "Envie 'after' vazio para a primeira página e siga o link 'next' para as seguintes. " +
+                     "O total de registros só é calculado quando 'incluirTotal=true'. " +
+                     "Ordenação suportada: id, numeroPatrimonio, serialNumber, marca e modelo."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de equipamentos filtrados retornada com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PagedResponseDTO.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido ou campo de ordenação não suportado"),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar equipamentos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<PagedResponseDTO<EquipamentoResponseDTO>> filtrarEquipamentosKeyset(
+            @Parameter(description = "Número de série (busca parcial)", example = "SN123")
+            @RequestParam(required = false) String serialNumber,
+            @Parameter(description = "Número de patrimônio (busca parcial)", example = "PAT-001")
+            @RequestParam(required = false) String numeroPatrimonio,
+            @Parameter(description = "Marca (busca parcial)", example = "Dell")
+            @RequestParam(required = false) String marca,
+            @Parameter(description = "Modelo (busca parcial)", example = "Latitude")
+            @RequestParam(required = false) String modelo,
+            @Parameter(description = "Estados de conservação aceitos, separados por vírgula", example = "NOVO")
+            @RequestParam(required = false) List<EstadoConservacao> estadoConservacao,
+            @Parameter(description = "Status aceitos, separados por vírgula", example = "DISPONIVEL,EM_MANUTENCAO")
+            @RequestParam(required = false) List<StatusEquipamento> status,
+            @Parameter(description = "Possui termo de responsabilidade", example = "true")
+            @RequestParam(required = false) Boolean termoResponsabilidade,
+            @Parameter(description = "Nota fiscal (busca parcial)", example = "NF-2024")
+            @RequestParam(required = false) String notaFiscal,
+            @Parameter(description = "Status de propriedade aceitos, separados por vírgula", example = "PROPRIO")
+            @RequestParam(required = false) List<StatusPropriedade> statusPropriedade,
+            @Parameter(description = "ID da empresa", example = "1")
+            @RequestParam(required = false) Long empresaId,
+            @Parameter(description = "ID do departamento", example = "1")
+            @RequestParam(required = false) Long departamentoId,
+            @Parameter(description = "Cursor opaco retornado no link 'next' (vazio para a primeira página)", example = "")
+            @RequestParam(defaultValue = "") String after,
+            @Parameter(description = "Quantidade de itens por página", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação (ignorado quando o cursor já define a ordenação)", example = "id")
+            @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Direção da ordenação", example = "asc", schema = @Schema(allowableValues = {"asc", "desc"}))
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Calcula o total de registros (executa COUNT)", example = "false")
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+
+        PagedResponseDTO<EquipamentoResponseDTO> equipamentos = equipamentoService.filtrarEquipamentosKeyset(
+            serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+            status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
+            after, size, sortBy, sortDir, incluirTotal
+        );
+        return ResponseEntity.ok(equipamentos);
+    }
+
+    /**
+     * GET /api/equipamentos/export?format=csv|ndjson
+     * Exporta o inventário completo (ou filtrado) em streaming
+     */
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exportar inventário de equipamentos",
+        description = "Gera o inventário em CSV ou NDJSON, escrito na resposta à medida que as linhas são lidas do banco. " +
+                     "Aceita os mesmos filtros de /api/equipamentos/filtrar. O consumo de memória não depende do número de linhas."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Arquivo de exportação gerado com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Formato de exportação inválido"),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar equipamentos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public void exportar(
+            @Parameter(description = "Formato do arquivo", example = "csv", schema = @Schema(allowableValues = {"csv", "ndjson"}))
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String serialNumber,
+            @RequestParam(required = false) String numeroPatrimonio,
+            @RequestParam(required = false) String marca,
+            @RequestParam(required = false) String modelo,
+            @RequestParam(required = false) List<EstadoConservacao> estadoConservacao,
+            @RequestParam(required = false) List<StatusEquipamento> status,
+            @RequestParam(required = false) Boolean termoResponsabilidade,
+            @RequestParam(required = false) String notaFiscal,
+            @RequestParam(required = false) List<StatusPropriedade> statusPropriedade,
+            @RequestParam(required = false) Long empresaId,
+            @RequestParam(required = false) Long departamentoId,
+            HttpServletResponse response) throws IOException {
+
+        EquipamentoExportService.Formato formato = EquipamentoExportService.Formato.of(format);
+        response.setContentType(formato.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + formato.getNomeArquivo() + "\"");
+
+        equipamentoExportService.exportar(formato, response.getOutputStream(), serialNumber, numeroPatrimonio,
+            marca, modelo, estadoConservacao, status, termoResponsabilidade, notaFiscal, statusPropriedade,
+            empresaId, departamentoId);
+    }
 }
@@ -17,6 +17,7 @@ package com.cosmo.cosmo.controller;
 
 import com.cosmo.cosmo.dto.geral.PagedResponseDTO;
 import com.cosmo.cosmo.dto.historico.*;
+import com.cosmo.cosmo.service.HistoricoDuracaoService;
 import com.cosmo.cosmo.service.HistoricoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,8 +36,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -48,6 +51,9 @@ public class HistoricoController {
     @Autowired
     private HistoricoService historicoService;
 
+    @Autowired
+    private HistoricoDuracaoService historicoDuracaoService;
+
     // ==================== MÉTODOS CRUD BÁSICOS COM PAGINAÇÃO ====================
 
     @GetMapping
@@ -126,7 +132,8 @@ public class HistoricoController {
     @GetMapping("/{id}")
     @Operation(
         summary = "Buscar histórico por ID",
-        description = "Retorna os detalhes de um histórico específico baseado no seu identificador único."
+        description = "Retorna os detalhes de um histórico específico baseado no seu identificador único. " +
+                     "Registros já movidos para o arquivo também são encontrados (com arquivado=true)."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -137,6 +144,7 @@ public class HistoricoController {
                 schema = @Schema(implementation = HistoricoResponseDTO.class)
             )
         ),
+        @ApiResponse(responseCode = "304", description = "Histórico não foi alterado desde a versão informada em If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
         @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar históricos"),
         @ApiResponse(responseCode = "404", description = "Histórico não encontrado"),
@@ -144,9 +152,15 @@ public class HistoricoController {
     })
     public ResponseEntity<HistoricoResponseDTO> getHistoricoById(
             @Parameter(description = "ID único do histórico", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Compara a versão antes de carregar e mapear; se o cliente já tem a atual, responde 304 sem corpo
+        String versao = historicoService.getVersao(id);
+        if (request.checkNotModified(versao)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(versao).build();
+        }
         HistoricoResponseDTO historico = historicoService.findById(id);
-        return ResponseEntity.ok(historico);
+        return ResponseEntity.ok().eTag(versao).body(historico);
     }
 
     @PatchMapping("/{id}")
@@ -218,6 +232,7 @@ public class HistoricoController {
         @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
         @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para cancelar históricos"),
         @ApiResponse(responseCode = "404", description = "Histórico não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Equipamento alterado por outra operação durante o cancelamento"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<HistoricoResponseDTO> cancelarHistorico(
@@ -268,6 +283,7 @@ public class HistoricoController {
         @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
         @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para entregar equipamentos"),
         @ApiResponse(responseCode = "404", description = "Equipamento ou usuário não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Equipamento alterado por outra operação durante a entrega (ex.: entrega simultânea)"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<HistoricoResponseDTO> entregarEquipamento(
@@ -315,6 +331,7 @@ public class HistoricoController {
         @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
         @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para processar devoluções"),
         @ApiResponse(responseCode = "404", description = "Histórico não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Equipamento alterado por outra operação durante a devolução"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<HistoricoResponseDTO> devolverEquipamento(
@@ -360,14 +377,15 @@ public class HistoricoController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "dataEntrega") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean incluirArquivo) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() :
                 Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        PagedResponseDTO<HistoricoResponseDTO> historicos = historicoService.findByUsuarioId(usuarioId, pageable);
+        PagedResponseDTO<HistoricoResponseDTO> historicos = historicoService.findByUsuarioId(usuarioId, incluirArquivo, pageable);
         return ResponseEntity.ok(historicos);
     }
 
@@ -380,14 +398,15 @@ public class HistoricoController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "dataEntrega") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean incluirArquivo) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() :
                 Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        PagedResponseDTO<HistoricoResponseDTO> historicos = historicoService.findByEquipamentoId(equipamentoId, pageable);
+        PagedResponseDTO<HistoricoResponseDTO> historicos = historicoService.findByEquipamentoId(equipamentoId, incluirArquivo, pageable);
         return ResponseEntity.ok(historicos);
     }
 
@@ -409,6 +428,28 @@ public class HistoricoController {
         return ResponseEntity.ok(historico);
     }
 
+    /**
+     * Busca o histórico de quem estava com o equipamento no instante informado (incluindo o arquivo)
+     */
+    @GetMapping("/equipamento/{equipamentoId}/posse")
+    public ResponseEntity<HistoricoResponseDTO> getPosseByEquipamento(
+            @PathVariable Long equipamentoId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime data) {
+        HistoricoResponseDTO historico = historicoService.findPosseByEquipamento(equipamentoId, data);
+        return ResponseEntity.ok(historico);
+    }
+
+    /**
+     * Busca os históricos dos equipamentos que estavam com o usuário no instante informado (incluindo o arquivo)
+     */
+    @GetMapping("/usuario/{usuarioId}/posse")
+    public ResponseEntity<List<HistoricoResponseDTO>> getPosseByUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime data) {
+        List<HistoricoResponseDTO> historicos = historicoService.findPosseByUsuario(usuarioId, data);
+        return ResponseEntity.ok(historicos);
+    }
+
     // ==================== ENDPOINTS PARA OPERAÇÕES MÚLTIPLAS ====================
 
     /**
@@ -456,11 +497,12 @@ public class HistoricoController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaFim,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataDevolucaoInicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataDevolucaoFim,
-            @RequestParam(required = false) String statusRegistroHistorico,
+            @RequestParam(required = false) Boolean statusRegistroHistorico,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean incluirArquivo) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() :
@@ -469,8 +511,29 @@ public class HistoricoController {
         Pageable pageable = PageRequest.of(page, size, sort);
         PagedResponseDTO<HistoricoResponseDTO> historicos = historicoService.filtrarHistoricos(
                 usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
-                dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico, pageable
+                dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico, incluirArquivo, pageable
         );
         return ResponseEntity.ok(historicos);
     }
+
+    /**
+     * GET /api/historicos/analytics/duracao
+     * Média, p50 e p95 da duração dos empréstimos e do tempo ocioso entre eles
+     */
+    @GetMapping("/analytics/duracao")
+    @Operation(
+        summary = "Duração dos empréstimos",
+        description = "Retorna média, p50 e p95 da duração dos empréstimos devolvidos e do tempo ocioso entre " +
+                     "empréstimos do mesmo equipamento, em minutos, no geral e por tipo de equipamento, empresa " +
+                     "e departamento. Os valores vêm de histogramas atualizados a cada devolução; os percentis " +
+                     "são aproximados (erro de até 12,5%)."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas de duração retornadas com sucesso"),
+        @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<DuracaoAnalyticsDTO> getDuracaoAnalytics() {
+        return ResponseEntity.ok(historicoDuracaoService.getDuracao());
+    }
 }
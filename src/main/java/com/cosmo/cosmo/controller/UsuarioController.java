@@ -35,6 +35,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -158,6 +159,7 @@ public class UsuarioController {
                 )
             )
         ),
+        @ApiResponse(responseCode = "304", description = "Usuário não foi alterado desde a versão informada em If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Token de autenticação inválido ou ausente"),
         @ApiResponse(responseCode = "403", description = "Usuário não possui permissão para acessar usuários"),
         @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
@@ -165,9 +167,15 @@ public class UsuarioController {
     })
     public ResponseEntity<UsuarioResponseDTO> getUsuarioById(
             @Parameter(description = "ID único do usuário", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Compara a versão antes de carregar e mapear; se o cliente já tem a atual, responde 304 sem corpo
+        String versao = usuarioService.getVersao(id);
+        if (request.checkNotModified(versao)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(versao).build();
+        }
         UsuarioResponseDTO usuario = usuarioService.findById(id);
-        return ResponseEntity.ok(usuario);
+        return ResponseEntity.ok().eTag(versao).body(usuario);
     }
 
     @PostMapping
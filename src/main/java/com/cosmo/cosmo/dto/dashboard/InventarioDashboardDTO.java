@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.dashboard;
+
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais do inventário para o dashboard, calculados a partir da tabela inventario_resumo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class InventarioDashboardDTO extends RepresentationModel<InventarioDashboardDTO> {
+
+    private long totalEquipamentos;
+    private BigDecimal valorTotal;
+    private Map<StatusEquipamento, Long> porStatus;
+    // PROPRIO, LOCADO ou NAO_INFORMADO
+    private Map<String, Long> porStatusPropriedade;
+    private List<Grupo> porEmpresa;
+    private List<Grupo> porDepartamento;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Grupo {
+
+        private Long id;
+        private String nome;
+        private long quantidade;
+        private BigDecimal valorTotal;
+    }
+}
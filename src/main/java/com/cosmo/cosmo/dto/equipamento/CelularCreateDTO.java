@@ -18,6 +18,7 @@ package com.cosmo.cosmo.dto.equipamento;
 import com.cosmo.cosmo.enums.EstadoConservacao;
 import com.cosmo.cosmo.enums.StatusEquipamento;
 import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
 import lombok.*;
 
 @Getter
@@ -25,7 +26,7 @@ import lombok.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class CelularCreateDTO {
+public final class CelularCreateDTO implements EquipamentoEscritaDTO {
 
     // Campos comuns de Equipamento
     private String numeroPatrimonio;
@@ -49,4 +50,9 @@ public class CelularCreateDTO {
     private String eid;
     private Boolean gerenciadoPorMDM;
     private String MDM;
+
+    @Override
+    public TipoEquipamento tipoEquipamento() {
+        return TipoEquipamento.CELULAR;
+    }
 }
@@ -18,6 +18,7 @@ package com.cosmo.cosmo.dto.equipamento;
 import com.cosmo.cosmo.enums.EstadoConservacao;
 import com.cosmo.cosmo.enums.StatusEquipamento;
 import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
 import lombok.*;
 
 @Getter
@@ -25,7 +26,7 @@ import lombok.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class ChipCreateDTO {
+public final class ChipCreateDTO implements EquipamentoEscritaDTO {
 
     // Campos comuns de Equipamento
     private String numeroPatrimonio;
@@ -48,4 +49,9 @@ public class ChipCreateDTO {
     private String iccid;
     private String operadora;
     private String tipoPlano;
+
+    @Override
+    public TipoEquipamento tipoEquipamento() {
+        return TipoEquipamento.CHIP;
+    }
 }
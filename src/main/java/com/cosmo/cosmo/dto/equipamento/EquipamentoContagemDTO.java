@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.equipamento;
+
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Quantidade de equipamentos por tipo e por par (tipo, status).
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class EquipamentoContagemDTO {
+
+    private long total;
+    private Map<TipoEquipamento, Long> porTipo;
+    private Map<TipoEquipamento, Map<StatusEquipamento, Long>> porTipoEStatus;
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.equipamento;
+
+import com.cosmo.cosmo.enums.TipoEquipamento;
+
+/**
+ * Contrato comum dos DTOs de criação e atualização de equipamentos. Dá acesso direto aos campos
+ * usados por todos os tipos, sem reflexão nem cadeias de instanceof.
+ */
+public sealed interface EquipamentoEscritaDTO permits
+        NotebookCreateDTO, NotebookUpdateDTO,
+        DesktopCreateDTO, DesktopUpdateDTO,
+        CelularCreateDTO, CelularUpdateDTO,
+        ChipCreateDTO, ChipUpdateDTO,
+        ImpressoraCreateDTO, ImpressoraUpdateDTO,
+        MonitorCreateDTO, MonitorUpdateDTO {
+
+    String getNumeroPatrimonio();
+
+    String getSerialNumber();
+
+    Long getEmpresaId();
+
+    Long getDepartamentoId();
+
+    /**
+     * Tipo de equipamento representado pelo DTO (não é serializado: não segue o padrão de getter).
+     */
+    TipoEquipamento tipoEquipamento();
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.equipamento;
+
+import com.cosmo.cosmo.enums.EstadoConservacao;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da exportação do inventário. Projetada por construtor, fora do contexto de persistência,
+ * para que a memória não cresça com o número de linhas lidas.
+ */
+@Getter
+@AllArgsConstructor
+public class EquipamentoExportDTO {
+
+    private Long id;
+    private TipoEquipamento tipo;
+    private String numeroPatrimonio;
+    private String serialNumber;
+    private String marca;
+    private String modelo;
+    private EstadoConservacao estadoConservacao;
+    private StatusEquipamento status;
+    private StatusPropriedade statusPropriedade;
+    private Boolean termoResponsabilidade;
+    private Float valor;
+    private String notaFiscal;
+    private String siglaEstado;
+    private String empresaNome;
+    private String departamentoNome;
+    private String observacoes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.equipamento;
+
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Relatório da importação em lote: totais e o resultado de cada linha do arquivo.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class EquipamentoImportResultadoDTO {
+
+    private int total;
+    private int importados;
+    private int rejeitados;
+    private List<Linha> linhas;
+
+    public enum Situacao {
+        IMPORTADO,
+        REJEITADO
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Linha {
+
+        /**
+         * Posição do registro na entrada, começando em 1 (no CSV, sem contar o cabeçalho).
+         */
+        private int linha;
+        private TipoEquipamento tipo;
+        private Situacao situacao;
+        private Long id;
+        private List<String> erros;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.equipamento;
+
+import com.cosmo.cosmo.enums.EstadoConservacao;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+/**
+ * Representação resumida para grades e listagens (?view=summary).
+ * Preenchida diretamente pela consulta (projeção por construtor), sem hidratar a entidade,
+ * sem as colunas TEXT e sem junções com as tabelas dos subtipos.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class EquipamentoResumoDTO extends RepresentationModel<EquipamentoResumoDTO> {
+
+    private Long id;
+    private TipoEquipamento tipo;
+    private String numeroPatrimonio;
+    private String serialNumber;
+    private String marca;
+    private String modelo;
+    private StatusEquipamento status;
+    private EstadoConservacao estadoConservacao;
+    private StatusPropriedade statusPropriedade;
+    private String empresaNome;
+    private String departamentoNome;
+}
@@ -18,6 +18,7 @@ package com.cosmo.cosmo.dto.equipamento;
 import com.cosmo.cosmo.enums.EstadoConservacao;
 import com.cosmo.cosmo.enums.StatusEquipamento;
 import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
 import lombok.*;
 
 @Getter
@@ -25,7 +26,7 @@ import lombok.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class ImpressoraCreateDTO {
+public final class ImpressoraCreateDTO implements EquipamentoEscritaDTO {
 
     // Campos comuns de Equipamento
     private String numeroPatrimonio;
@@ -49,4 +50,9 @@ public class ImpressoraCreateDTO {
     private Boolean multifuncional;
     private String enderecoIP;
     private String modeloSuprimento;
+
+    @Override
+    public TipoEquipamento tipoEquipamento() {
+        return TipoEquipamento.IMPRESSORA;
+    }
 }
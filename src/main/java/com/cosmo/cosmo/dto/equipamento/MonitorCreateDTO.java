@@ -18,6 +18,7 @@ package com.cosmo.cosmo.dto.equipamento;
 import com.cosmo.cosmo.enums.EstadoConservacao;
 import com.cosmo.cosmo.enums.StatusEquipamento;
 import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
 import lombok.*;
 
 @Getter
@@ -25,7 +26,7 @@ import lombok.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class MonitorCreateDTO {
+public final class MonitorCreateDTO implements EquipamentoEscritaDTO {
 
     // Campos comuns de Equipamento
     private String numeroPatrimonio;
@@ -46,4 +47,9 @@ public class MonitorCreateDTO {
     // Campos específicos de Monitor
     private Double tamanhoTela;
     private String resolucao;
+
+    @Override
+    public TipoEquipamento tipoEquipamento() {
+        return TipoEquipamento.MONITOR;
+    }
 }
@@ -18,6 +18,7 @@ package com.cosmo.cosmo.dto.equipamento;
 import com.cosmo.cosmo.enums.EstadoConservacao;
 import com.cosmo.cosmo.enums.StatusEquipamento;
 import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
 import lombok.*;
 
 @Getter
@@ -25,7 +26,7 @@ import lombok.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class NotebookCreateDTO {
+public final class NotebookCreateDTO implements EquipamentoEscritaDTO {
 
     // Campos comuns de Equipamento
     private String numeroPatrimonio;
@@ -52,4 +53,9 @@ public class NotebookCreateDTO {
     private String dominio;
     private Boolean remoteAccessEnabled;
     private Boolean antivirusEnabled;
+
+    @Override
+    public TipoEquipamento tipoEquipamento() {
+        return TipoEquipamento.NOTEBOOK;
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.geral;
+
+import com.cosmo.cosmo.exception.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco usado na paginação por keyset (seek).
+ * Guarda o campo/direção de ordenação e a posição do último item retornado (valor do campo + id),
+ * permitindo buscar a próxima página com "WHERE (campo, id) > (valor, id)" em vez de OFFSET.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARADOR = ":";
+    private static final String VALOR_NULO = "n";
+    private static final String VALOR_PRESENTE = "v";
+
+    private final String sortBy;
+    private final boolean ascending;
+    private final Long id;
+    private final String value;
+
+    /**
+     * Cursor da primeira página: apenas a ordenação, sem posição.
+     */
+    public static KeysetCursor inicial(String sortBy, String sortDir) {
+        return new KeysetCursor(sortBy, !"desc".equalsIgnoreCase(sortDir), null, null);
+    }
+
+    /**
+     * Decodifica o cursor recebido no parâmetro "after".
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = raw.split(SEPARADOR, 4);
+            if (partes.length != 4) {
+                throw new ValidationException("Cursor de paginação inválido");
+            }
+            String value = partes[3].startsWith(VALOR_PRESENTE) ? partes[3].substring(1) : null;
+            return new KeysetCursor(partes[0], "asc".equals(partes[1]), Long.valueOf(partes[2]), value);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor de paginação inválido", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + SEPARADOR + getSortDir() + SEPARADOR + id + SEPARADOR
+                + (value == null ? VALOR_NULO : VALOR_PRESENTE + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cria o cursor que aponta para depois do item informado, mantendo a mesma ordenação.
+     */
+    public KeysetCursor proximo(Long id, String value) {
+        return new KeysetCursor(sortBy, ascending, id, value);
+    }
+
+    public boolean hasPosition() {
+        return id != null;
+    }
+
+    public String getSortDir() {
+        return ascending ? "asc" : "desc";
+    }
+
+    /**
+     * Ordenação pela tupla (campo, id), com o id como desempate para manter a ordem total.
+     */
+    public Sort toSort() {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        if ("id".equals(sortBy)) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.cosmo.cosmo.dto.geral;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -37,13 +38,18 @@ public class PagedResponseDTO<T> extends RepresentationModel<PagedResponseDTO<T>
     @JsonProperty("page")
     private PageInfo page;
 
+    /**
+     * Na paginação por cursor (keyset) não há número de página e o total só é calculado
+     * quando solicitado, por isso number, totalElements e totalPages podem ser omitidos.
+     */
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PageInfo {
         private int size;
-        private long totalElements;
-        private int totalPages;
-        private int number;
+        private Long totalElements;
+        private Integer totalPages;
+        private Integer number;
     }
 }
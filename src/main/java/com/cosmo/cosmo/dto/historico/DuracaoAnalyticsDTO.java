@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.historico;
+
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+/**
+ * Estatísticas de duração dos empréstimos e do tempo ocioso entre eles, calculadas a partir dos
+ * histogramas da tabela historico_duracao_resumo. Durações em minutos; percentis aproximados pela faixa.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class DuracaoAnalyticsDTO extends RepresentationModel<DuracaoAnalyticsDTO> {
+
+    private Grupo geral;
+    private List<Grupo> porTipoEquipamento;
+    private List<Grupo> porEmpresa;
+    private List<Grupo> porDepartamento;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Grupo {
+
+        // Id da empresa ou do departamento; nulo no agrupamento geral e por tipo
+        private Long id;
+        private String nome;
+        private Estatisticas emprestimo;
+        private Estatisticas ociosidade;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Estatisticas {
+
+        private long quantidade;
+        // Nulos quando não há registros no grupo
+        private Long mediaMinutos;
+        private Long p50Minutos;
+        private Long p95Minutos;
+    }
+}
@@ -59,4 +59,7 @@ public class HistoricoResponseDTO extends RepresentationModel<HistoricoResponseD
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dataCancelamento;
+
+    // Registro lido de historico_arquivo (listagens com incluirArquivo=true); somente leitura
+    private Boolean arquivado;
 }
@@ -15,54 +15,41 @@
  */
 package com.cosmo.cosmo.entity;
 
-import com.cosmo.cosmo.entity.equipamento.Equipamento;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.time.LocalDateTime;
-
 @Entity
 @Getter
 @Setter
-@ToString
-@AllArgsConstructor
+@ToString(callSuper = true)
 @NoArgsConstructor
-public class Historico {
-
+@NamedEntityGraph(
+    name = Historico.GRAFO_RESPOSTA,
+    attributeNodes = {
+        @NamedAttributeNode(value = "equipamento", subgraph = "equipamento"),
+        @NamedAttributeNode(value = "usuario", subgraph = "usuario")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "equipamento", attributeNodes = {@NamedAttributeNode("empresa"), @NamedAttributeNode("departamento")}),
+        @NamedSubgraph(name = "usuario", attributeNodes = {@NamedAttributeNode("empresa"), @NamedAttributeNode("departamento")})
+    }
+)
+public class Historico extends HistoricoBase {
+
+    /**
+     * Tudo o que o HistoricoResponseDTO inclui: equipamento e usuário com suas empresas e departamentos.
+     */
+    public static final String GRAFO_RESPOSTA = "Historico.resposta";
+
+    /**
+     * Identificador gerado por sequência com blocos de 50 valores (no MySQL, emulada pela tabela historico_seq).
+     * Permite ao Hibernate agrupar em lote as inserções das entregas múltiplas.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historico_seq")
+    @SequenceGenerator(name = "historico_seq", sequenceName = "historico_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "equipamento_id", nullable = false)
-    private Equipamento equipamento;
-
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "usuario_id", nullable = false)
-    private Usuario usuario;
-
-    @Column(nullable = false, updatable = false)
-    private LocalDateTime dataEntrega;
-    @Column(nullable = true)
-    private LocalDateTime dataDevolucao;
-
-    @Column(columnDefinition = "TEXT")
-    private String observacoesEntrega;
-    @Column(columnDefinition = "TEXT")
-    private String observacoesDevolucao;
-
-    @Column(nullable = true)
-    private String urlTermoEntrega;
-    @Column(nullable = true)
-    private String urlTermoDevolucao;
-
-    // Novo campo para controle de status do registro
-    @Column(nullable = false)
-    private Boolean statusRegistroHistorico = true; // true = ativo, false = cancelado
-
-    @Column(columnDefinition = "TEXT")
-    private String motivoCancelamento; // Descrição do motivo do cancelamento
-
-    @Column(nullable = true)
-    private LocalDateTime dataCancelamento; // Data em que foi cancelado
+    @Version
+    private Long versao; // Incrementada a cada alteração (ETag e concorrência otimista)
 }
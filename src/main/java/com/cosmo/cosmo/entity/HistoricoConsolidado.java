@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Somente leitura: visão historico_consolidado, que une o histórico em uso aos registros movidos para
+ * historico_arquivo. Consultada quando o arquivo é pedido explicitamente (incluirArquivo=true) e na consulta
+ * por id de um registro que não está mais no histórico em uso.
+ */
+@Entity
+@Immutable
+@Table(name = "historico_consolidado")
+@Getter
+@Setter
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class HistoricoConsolidado extends HistoricoBase {
+
+    @Id
+    private Long id;
+
+    /**
+     * Verdadeiro para os registros lidos de historico_arquivo.
+     */
+    private Boolean arquivado;
+}
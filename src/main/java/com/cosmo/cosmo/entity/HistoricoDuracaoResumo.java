@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Uma faixa do histograma de durações de um grupo: quantos empréstimos (ou intervalos ociosos) caíram
+ * na faixa e a soma das durações, em minutos. Mantido pelo HistoricoDuracaoService a cada devolução.
+ */
+@Entity
+@Table(name = "historico_duracao_resumo")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistoricoDuracaoResumo {
+
+    @EmbeddedId
+    private HistoricoDuracaoResumoId id;
+
+    private Long quantidade;
+
+    @Column(name = "soma_minutos")
+    private Long somaMinutos;
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.entity;
+
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Chave de uma faixa do histograma de durações: tipo, empresa e departamento do equipamento, a medida
+ * (duração do empréstimo ou tempo ocioso antes dele) e o índice da faixa.
+ */
+@Embeddable
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistoricoDuracaoResumoId implements Serializable {
+
+    public enum Medida {
+        EMPRESTIMO,
+        OCIOSIDADE
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_equipamento")
+    private TipoEquipamento tipoEquipamento;
+
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    @Column(name = "departamento_id")
+    private Long departamentoId;
+
+    @Enumerated(EnumType.STRING)
+    private Medida medida;
+
+    private Integer faixa;
+}
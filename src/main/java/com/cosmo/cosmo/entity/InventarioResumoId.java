@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.entity;
+
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Chave de um grupo do resumo de inventário. O status de propriedade não informado é gravado como
+ * {@value #PROPRIEDADE_NAO_INFORMADA}, pois a coluna faz parte da chave primária.
+ */
+@Embeddable
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventarioResumoId implements Serializable {
+
+    public static final String PROPRIEDADE_NAO_INFORMADA = "NAO_INFORMADO";
+
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    @Column(name = "departamento_id")
+    private Long departamentoId;
+
+    @Enumerated(EnumType.STRING)
+    private StatusEquipamento status;
+
+    @Column(name = "status_propriedade")
+    private String statusPropriedade;
+
+    public static InventarioResumoId of(Long empresaId, Long departamentoId, StatusEquipamento status,
+                                        StatusPropriedade statusPropriedade) {
+        return new InventarioResumoId(empresaId, departamentoId, status,
+                statusPropriedade != null ? statusPropriedade.name() : PROPRIEDADE_NAO_INFORMADA);
+    }
+}
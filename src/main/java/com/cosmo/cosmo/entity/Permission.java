@@ -17,6 +17,8 @@ package com.cosmo.cosmo.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 @Entity
@@ -26,6 +28,8 @@ import org.springframework.security.core.GrantedAuthority;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Permission implements GrantedAuthority {
 
     @Id
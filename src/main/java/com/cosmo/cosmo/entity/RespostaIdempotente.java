@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta gravada de uma operação enviada com Idempotency-Key, devolvida às novas tentativas com a mesma
+ * chave. Gravada apenas por consultas nativas do RespostaIdempotenteRepository.
+ */
+@Entity
+@Table(name = "resposta_idempotente")
+@Getter
+@Setter
+@ToString(exclude = "corpo")
+@AllArgsConstructor
+@NoArgsConstructor
+public class RespostaIdempotente {
+
+    public static final String EM_ANDAMENTO = "EM_ANDAMENTO";
+    public static final String CONCLUIDA = "CONCLUIDA";
+
+    @Id
+    private String id;
+
+    private String situacao;
+
+    @Column(name = "hash_requisicao")
+    private String hashRequisicao;
+
+    @Column(name = "status_http")
+    private Integer statusHttp;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Lob
+    private byte[] corpo;
+
+    @Column(name = "criado_em")
+    private LocalDateTime criadoEm;
+
+    @Column(name = "expira_em")
+    private LocalDateTime expiraEm;
+}
@@ -17,6 +17,8 @@ package com.cosmo.cosmo.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -59,7 +61,9 @@ public class User implements UserDetails {
 
     private Boolean enabled = true;
 
+    // Ids das permissões em cache (as Permission vêm do cache de entidades): evita o JOIN a cada requisição autenticada
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "user_permission",
         joinColumns = @JoinColumn(name = "id_user"),
@@ -38,5 +38,7 @@ public class Usuario {
     @JoinColumn(name = "empresa_id", nullable = false)
     private Empresa empresa;
     private Boolean ativo;
+    @Version
+    private Long versao;
 
 }
@@ -17,9 +17,12 @@ package com.cosmo.cosmo.entity.equipamento;
 
 import com.cosmo.cosmo.entity.Departamento;
 import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.InventarioResumoId;
 import com.cosmo.cosmo.enums.EstadoConservacao;
 import com.cosmo.cosmo.enums.StatusEquipamento;
 import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.cosmo.cosmo.index.EquipamentoContadoresListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -34,12 +37,27 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Inheritance(strategy = InheritanceType.JOINED)
+@DiscriminatorColumn(name = "tipo", discriminatorType = DiscriminatorType.STRING, length = 20)
+@EntityListeners(EquipamentoContadoresListener.class)
 public abstract class Equipamento {
 
+    /**
+     * Identificador gerado por sequência com blocos de 50 valores (no MySQL, emulada pela tabela equipamento_seq).
+     * Diferente de IDENTITY, o id é conhecido antes do INSERT, o que permite ao Hibernate agrupar as inserções em lote.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipamento_seq")
+    @SequenceGenerator(name = "equipamento_seq", sequenceName = "equipamento_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Coluna discriminadora persistida na tabela base. Permite filtrar por tipo
+     * sem juntar as tabelas dos subtipos. Preenchida pelo Hibernate a partir do @DiscriminatorValue.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", insertable = false, updatable = false)
+    private TipoEquipamento tipo;
+
     private String numeroPatrimonio;
     private String serialNumber;
     private String marca;
@@ -72,6 +90,13 @@ public abstract class Equipamento {
     @Enumerated(EnumType.STRING)
     private StatusPropriedade statusPropriedade;
 
+    /**
+     * Histórico ativo (entregue e ainda não devolvido nem cancelado); nulo quando o equipamento não está com ninguém.
+     * Mantido por HistoricoService na entrega, devolução e cancelamento.
+     */
+    @Column(name = "historico_atual_id")
+    private Long historicoAtualId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -79,4 +104,54 @@ public abstract class Equipamento {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    /**
+     * Incrementada a cada alteração; usada no ETag do detalhe e no controle de concorrência otimista.
+     */
+    @Version
+    private Long versao;
+
+    /**
+     * Status já refletido nos contadores por tipo/status (ver EquipamentoContadoresListener).
+     */
+    @Transient
+    @ToString.Exclude
+    private StatusEquipamento statusContado;
+
+    /**
+     * Grupo e valor já refletidos no resumo de inventário; nulos enquanto o equipamento não foi gravado
+     * (ver InventarioResumoService).
+     */
+    @Transient
+    @ToString.Exclude
+    private InventarioResumoId resumoRegistrado;
+
+    @Transient
+    @ToString.Exclude
+    private Float valorRegistrado;
+
+    /**
+     * Preenche o tipo em memória na inclusão; a coluna é gravada pelo Hibernate a partir do @DiscriminatorValue.
+     */
+    @PrePersist
+    protected void definirTipo() {
+        DiscriminatorValue discriminador = getClass().getAnnotation(DiscriminatorValue.class);
+        if (tipo == null && discriminador != null) {
+            tipo = TipoEquipamento.valueOf(discriminador.value());
+        }
+    }
+
+    @PostLoad
+    protected void registrarResumoCarregado() {
+        marcarResumoRegistrado();
+    }
+
+    /**
+     * Guarda o estado atual como o já refletido no resumo de inventário.
+     */
+    public void marcarResumoRegistrado() {
+        resumoRegistrado = InventarioResumoId.of(empresa != null ? empresa.getId() : null,
+                departamento != null ? departamento.getId() : null, status, statusPropriedade);
+        valorRegistrado = valor;
+    }
+}
@@ -19,6 +19,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@DiscriminatorValue("IMPRESSORA")
 @Getter
 @Setter
 @ToString(callSuper = true)
@@ -19,6 +19,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@DiscriminatorValue("MONITOR")
 @Getter
 @Setter
 @ToString(callSuper = true)
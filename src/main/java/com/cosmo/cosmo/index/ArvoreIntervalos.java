@@ -0,0 +1,171 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.index;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Árvore de intervalos [inicio, fim) ordenada pelo início (treap), em que cada nó guarda o maior fim da
+ * sua subárvore. A busca por um instante descarta as subárvores que terminam antes dele e as que começam
+ * depois, com custo O(log n + k) esperado para k resultados. Não é thread-safe; o acesso é protegido por
+ * quem a utiliza (HistoricoIntervaloIndex).
+ */
+class ArvoreIntervalos {
+
+    private Node raiz;
+
+    private static class Node {
+
+        final long id;
+        final LocalDateTime inicio;
+        final LocalDateTime fim;
+        final int prioridade = ThreadLocalRandom.current().nextInt();
+        LocalDateTime maiorFim;
+        Node esquerda;
+        Node direita;
+
+        Node(long id, LocalDateTime inicio, LocalDateTime fim) {
+            this.id = id;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.maiorFim = fim;
+        }
+    }
+
+    boolean isVazia() {
+        return raiz == null;
+    }
+
+    void inserir(long id, LocalDateTime inicio, LocalDateTime fim) {
+        raiz = inserir(raiz, new Node(id, inicio, fim));
+    }
+
+    /**
+     * Remove o intervalo; o início é necessário para localizá-lo na árvore.
+     */
+    void remover(long id, LocalDateTime inicio) {
+        raiz = remover(raiz, id, inicio);
+    }
+
+    /**
+     * Adiciona ao resultado os ids dos intervalos que contêm o instante (inicio <= instante < fim).
+     */
+    void buscar(LocalDateTime instante, List<Long> resultado) {
+        buscar(raiz, instante, resultado);
+    }
+
+    private static void buscar(Node node, LocalDateTime instante, List<Long> resultado) {
+        if (node == null || !node.maiorFim.isAfter(instante)) {
+            return;
+        }
+        buscar(node.esquerda, instante, resultado);
+        if (node.inicio.isAfter(instante)) {
+            // Este nó e toda a subárvore direita começam depois do instante
+            return;
+        }
+        if (node.fim.isAfter(instante)) {
+            resultado.add(node.id);
+        }
+        buscar(node.direita, instante, resultado);
+    }
+
+    private static Node inserir(Node node, Node novo) {
+        if (node == null) {
+            return novo;
+        }
+        if (novo.prioridade > node.prioridade) {
+            Node[] partes = dividir(node, novo.inicio, novo.id);
+            novo.esquerda = partes[0];
+            novo.direita = partes[1];
+            return atualizar(novo);
+        }
+        if (comparar(novo.inicio, novo.id, node) < 0) {
+            node.esquerda = inserir(node.esquerda, novo);
+        } else {
+            node.direita = inserir(node.direita, novo);
+        }
+        return atualizar(node);
+    }
+
+    private static Node remover(Node node, long id, LocalDateTime inicio) {
+        if (node == null) {
+            return null;
+        }
+        int comparacao = comparar(inicio, id, node);
+        if (comparacao == 0) {
+            return unir(node.esquerda, node.direita);
+        }
+        if (comparacao < 0) {
+            node.esquerda = remover(node.esquerda, id, inicio);
+        } else {
+            node.direita = remover(node.direita, id, inicio);
+        }
+        return atualizar(node);
+    }
+
+    // Separa a árvore nos nós anteriores à chave (inicio, id) e nos demais
+    private static Node[] dividir(Node node, LocalDateTime inicio, long id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (comparar(inicio, id, node) > 0) {
+            Node[] partes = dividir(node.direita, inicio, id);
+            node.direita = partes[0];
+            partes[0] = atualizar(node);
+            return partes;
+        }
+        Node[] partes = dividir(node.esquerda, inicio, id);
+        node.esquerda = partes[1];
+        partes[1] = atualizar(node);
+        return partes;
+    }
+
+    // Une duas árvores em que todos os nós da primeira vêm antes dos da segunda
+    private static Node unir(Node esquerda, Node direita) {
+        if (esquerda == null) {
+            return direita;
+        }
+        if (direita == null) {
+            return esquerda;
+        }
+        if (esquerda.prioridade > direita.prioridade) {
+            esquerda.direita = unir(esquerda.direita, direita);
+            return atualizar(esquerda);
+        }
+        direita.esquerda = unir(esquerda, direita.esquerda);
+        return atualizar(direita);
+    }
+
+    private static Node atualizar(Node node) {
+        LocalDateTime maiorFim = node.fim;
+        if (node.esquerda != null && node.esquerda.maiorFim.isAfter(maiorFim)) {
+            maiorFim = node.esquerda.maiorFim;
+        }
+        if (node.direita != null && node.direita.maiorFim.isAfter(maiorFim)) {
+            maiorFim = node.direita.maiorFim;
+        }
+        node.maiorFim = maiorFim;
+        return node;
+    }
+
+    // Ordem pelo início e, no empate, pelo id, para que cada intervalo tenha uma chave única
+    private static int comparar(LocalDateTime inicio, long id, Node node) {
+        int comparacao = inicio.compareTo(node.inicio);
+        return comparacao != 0 ? comparacao : Long.compare(id, node.id);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.index;
+
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.projection.EquipamentoContagemProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores em memória de equipamentos por (tipo, status).
+ * <p>
+ * São carregados com uma consulta agrupada ao iniciar a aplicação e mantidos de forma incremental
+ * pelo {@link EquipamentoContadoresListener} a cada inclusão, exclusão ou mudança de status confirmada.
+ * Alterações feitas fora do JPA (scripts, outra instância da aplicação) são corrigidas pela
+ * reconciliação periódica, que recarrega os valores do banco.
+ */
+@Slf4j
+@Component
+public class EquipamentoContadores {
+
+    private static final int TOTAL_STATUS = StatusEquipamento.values().length;
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(TipoEquipamento.values().length * TOTAL_STATUS);
+
+    private volatile boolean pronto = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    /**
+     * Recarrega os contadores a partir do banco. Um incremento confirmado durante a consulta pode
+     * ser sobrescrito; nesse caso a diferença é corrigida na próxima execução.
+     */
+    @Scheduled(fixedDelayString = "${cosmo.equipamento.contagem.reconciliacao-intervalo:PT5M}",
+               initialDelayString = "${cosmo.equipamento.contagem.reconciliacao-intervalo:PT5M}")
+    public void reconciliar() {
+        long[] banco = new long[contagens.length()];
+        for (EquipamentoContagemProjection contagem : equipamentoRepository.countByTipoAndStatus()) {
+            banco[posicao(contagem.getTipo(), contagem.getStatus())] = contagem.getTotal();
+        }
+
+        int divergencias = 0;
+        for (int i = 0; i < banco.length; i++) {
+            if (contagens.getAndSet(i, banco[i]) != banco[i]) {
+                divergencias++;
+            }
+        }
+        if (pronto && divergencias > 0) {
+            log.warn("Reconciliação dos contadores de equipamentos corrigiu {} par(es) tipo/status", divergencias);
+        }
+        pronto = true;
+    }
+
+    /**
+     * Registra a mudança de um equipamento entre dois status; {@code null} em {@code de} indica inclusão
+     * e em {@code para} indica exclusão. Dentro de uma transação, só é aplicada após o commit.
+     */
+    public void registrar(TipoEquipamento tipo, StatusEquipamento de, StatusEquipamento para) {
+        if (tipo == null || de == para) {
+            return;
+        }
+        aposCommit(() -> {
+            if (de != null) {
+                contagens.decrementAndGet(posicao(tipo, de));
+            }
+            if (para != null) {
+                contagens.incrementAndGet(posicao(tipo, para));
+            }
+        });
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public long total(TipoEquipamento tipo) {
+        long total = 0;
+        for (StatusEquipamento status : StatusEquipamento.values()) {
+            total += contagens.get(posicao(tipo, status));
+        }
+        return total;
+    }
+
+    public Map<TipoEquipamento, Map<StatusEquipamento, Long>> porTipoEStatus() {
+        Map<TipoEquipamento, Map<StatusEquipamento, Long>> resultado = new EnumMap<>(TipoEquipamento.class);
+        for (TipoEquipamento tipo : TipoEquipamento.values()) {
+            Map<StatusEquipamento, Long> porStatus = new EnumMap<>(StatusEquipamento.class);
+            for (StatusEquipamento status : StatusEquipamento.values()) {
+                porStatus.put(status, contagens.get(posicao(tipo, status)));
+            }
+            resultado.put(tipo, porStatus);
+        }
+        return resultado;
+    }
+
+    private static int posicao(TipoEquipamento tipo, StatusEquipamento status) {
+        return tipo.ordinal() * TOTAL_STATUS + status.ordinal();
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
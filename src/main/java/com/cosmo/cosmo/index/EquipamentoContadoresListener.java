@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.index;
+
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Mantém os {@link EquipamentoContadores} a partir do ciclo de vida das entidades. O status com que
+ * o equipamento foi carregado fica guardado na própria entidade, para que a mudança seja contada
+ * mesmo quando o status é alterado antes de {@code save} (como faz o HistoricoService).
+ * Instanciado pelo Hibernate através do contêiner de beans do Spring; os contadores são resolvidos
+ * sob demanda porque dependem do repositório, que por sua vez depende do EntityManagerFactory.
+ */
+public class EquipamentoContadoresListener {
+
+    @Autowired
+    private ObjectProvider<EquipamentoContadores> contadores;
+
+    @PostLoad
+    public void aposCarregar(Equipamento equipamento) {
+        equipamento.setStatusContado(equipamento.getStatus());
+    }
+
+    @PostPersist
+    public void aposIncluir(Equipamento equipamento) {
+        registrar(equipamento, null, equipamento.getStatus());
+        equipamento.setStatusContado(equipamento.getStatus());
+    }
+
+    @PostUpdate
+    public void aposAtualizar(Equipamento equipamento) {
+        registrar(equipamento, equipamento.getStatusContado(), equipamento.getStatus());
+        equipamento.setStatusContado(equipamento.getStatus());
+    }
+
+    @PostRemove
+    public void aposExcluir(Equipamento equipamento) {
+        registrar(equipamento, equipamento.getStatusContado(), null);
+    }
+
+    private void registrar(Equipamento equipamento, StatusEquipamento de, StatusEquipamento para) {
+        if (contadores != null) {
+            contadores.ifAvailable(c -> c.registrar(equipamento.getTipo(), de, para));
+        }
+    }
+}
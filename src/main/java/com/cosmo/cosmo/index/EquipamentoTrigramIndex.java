@@ -0,0 +1,274 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.index;
+
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.projection.EquipamentoBuscaProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de trigramas em memória para a busca por substring nos identificadores dos equipamentos.
+ * Resolve filtros do tipo "contém" em um conjunto de ids candidatos, evitando o
+ * LIKE '%termo%' que obriga o MySQL a varrer a tabela inteira.
+ *
+ * Habilitado com cosmo.equipamento.trigram-index.enabled=true. Enquanto o índice não estiver
+ * pronto, ou quando o termo não puder ser resolvido por ele, a busca volta a usar o LIKE.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cosmo.equipamento.trigram-index", name = "enabled", havingValue = "true")
+public class EquipamentoTrigramIndex {
+
+    private static final int TAMANHO_TRIGRAMA = 3;
+
+    public enum Campo {
+        SERIAL_NUMBER,
+        NUMERO_PATRIMONIO,
+        MARCA,
+        MODELO,
+        NOTA_FISCAL
+    }
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Value("${cosmo.equipamento.trigram-index.max-candidatos:5000}")
+    private int maxCandidatos;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Por campo: trigrama -> ids dos equipamentos que contêm o trigrama
+    private final Map<Campo, Map<String, Set<Long>>> postings = new EnumMap<>(Campo.class);
+
+    // Valores normalizados indexados por equipamento, usados na remoção e na verificação final
+    private final Map<Long, String[]> valores = new HashMap<>();
+
+    private volatile boolean pronto = false;
+
+    public EquipamentoTrigramIndex() {
+        for (Campo campo : Campo.values()) {
+            postings.put(campo, new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long inicio = System.currentTimeMillis();
+        List<EquipamentoBuscaProjection> equipamentos;
+
+        // A leitura acontece com o lock de escrita: atualizações confirmadas durante a carga ficam
+        // bloqueadas em aposCommit e são aplicadas sobre o índice novo, em vez de serem descartadas
+        lock.writeLock().lock();
+        try {
+            equipamentos = equipamentoRepository.findAllCamposBusca();
+            postings.values().forEach(Map::clear);
+            valores.clear();
+            for (EquipamentoBuscaProjection equipamento : equipamentos) {
+                indexar(equipamento.getId(), new String[] {
+                        normalizar(equipamento.getSerialNumber()),
+                        normalizar(equipamento.getNumeroPatrimonio()),
+                        normalizar(equipamento.getMarca()),
+                        normalizar(equipamento.getModelo()),
+                        normalizar(equipamento.getNotaFiscal())
+                });
+            }
+            pronto = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Índice de trigramas de equipamentos construído com {} registros em {} ms",
+                equipamentos.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Retorna os ids cujo campo contém o termo (sem diferenciar maiúsculas e acentos).
+     * Retorna vazio quando o índice não consegue resolver a busca: termo com menos de três
+     * caracteres ou quantidade de candidatos acima do limite configurado.
+     */
+    public Optional<Set<Long>> buscar(Campo campo, String termo) {
+        String termoNormalizado = normalizar(termo);
+        if (!pronto || termoNormalizado == null || termoNormalizado.length() < TAMANHO_TRIGRAMA) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Set<Long>> postingsDoCampo = postings.get(campo);
+
+            // Começa pelo trigrama mais seletivo para reduzir o custo da interseção
+            List<Set<Long>> listas = new ArrayList<>();
+            for (String trigrama : trigramas(termoNormalizado)) {
+                Set<Long> ids = postingsDoCampo.get(trigrama);
+                if (ids == null) {
+                    return Optional.of(Set.of());
+                }
+                listas.add(ids);
+            }
+            listas.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> candidatos = new HashSet<>();
+            for (Long id : listas.get(0)) {
+                if (contidoEmTodas(id, listas) && contem(id, campo, termoNormalizado)) {
+                    candidatos.add(id);
+                    if (candidatos.size() > maxCandidatos) {
+                        return Optional.empty();
+                    }
+                }
+            }
+            return Optional.of(candidatos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atualiza o índice com os valores atuais do equipamento após o commit da transação corrente.
+     */
+    public void atualizar(Equipamento equipamento) {
+        Long id = equipamento.getId();
+        String[] novosValores = new String[] {
+                normalizar(equipamento.getSerialNumber()),
+                normalizar(equipamento.getNumeroPatrimonio()),
+                normalizar(equipamento.getMarca()),
+                normalizar(equipamento.getModelo()),
+                normalizar(equipamento.getNotaFiscal())
+        };
+
+        aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                desindexar(id);
+                indexar(id, novosValores);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove o equipamento do índice após o commit da transação corrente.
+     */
+    public void remover(Long id) {
+        aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                desindexar(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void indexar(Long id, String[] valoresDoEquipamento) {
+        valores.put(id, valoresDoEquipamento);
+        for (Campo campo : Campo.values()) {
+            String valor = valoresDoEquipamento[campo.ordinal()];
+            if (valor == null) {
+                continue;
+            }
+            Map<String, Set<Long>> postingsDoCampo = postings.get(campo);
+            for (String trigrama : trigramas(valor)) {
+                postingsDoCampo.computeIfAbsent(trigrama, chave -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    private void desindexar(Long id) {
+        String[] valoresAnteriores = valores.remove(id);
+        if (valoresAnteriores == null) {
+            return;
+        }
+        for (Campo campo : Campo.values()) {
+            String valor = valoresAnteriores[campo.ordinal()];
+            if (valor == null) {
+                continue;
+            }
+            Map<String, Set<Long>> postingsDoCampo = postings.get(campo);
+            for (String trigrama : trigramas(valor)) {
+                Set<Long> ids = postingsDoCampo.get(trigrama);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postingsDoCampo.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    private boolean contidoEmTodas(Long id, List<Set<Long>> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Os trigramas só garantem candidatos; a verificação final elimina falsos positivos
+    private boolean contem(Long id, Campo campo, String termoNormalizado) {
+        String[] valoresDoEquipamento = valores.get(id);
+        String valor = valoresDoEquipamento != null ? valoresDoEquipamento[campo.ordinal()] : null;
+        return valor != null && valor.contains(termoNormalizado);
+    }
+
+    private static Set<String> trigramas(String valor) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + TAMANHO_TRIGRAMA <= valor.length(); i++) {
+            resultado.add(valor.substring(i, i + TAMANHO_TRIGRAMA));
+        }
+        return resultado;
+    }
+
+    // Aproxima a comparação do MySQL (collation utf8mb4_unicode_ci): sem maiúsculas e sem acentos
+    private static String normalizar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        return Normalizer.normalize(valor.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
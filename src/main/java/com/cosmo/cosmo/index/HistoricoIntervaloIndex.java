@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.index;
+
+import com.cosmo.cosmo.entity.Historico;
+import com.cosmo.cosmo.repository.HistoricoConsolidadoRepository;
+import com.cosmo.cosmo.repository.projection.HistoricoIntervaloProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos períodos de posse [dataEntrega, dataDevolucao) dos históricos não cancelados,
+ * incluindo os arquivados, com uma árvore de intervalos por usuário e por equipamento. Responde
+ * "quem estava com o equipamento no instante D" e "o que o usuário tinha no instante D" sem consultar
+ * o banco; o empréstimo ainda não devolvido é tratado como aberto até o infinito.
+ *
+ * Habilitado com cosmo.historico.intervalo-index.enabled=true. Enquanto o índice não estiver pronto,
+ * as consultas de posse são feitas no banco.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cosmo.historico.intervalo-index", name = "enabled", havingValue = "true")
+public class HistoricoIntervaloIndex {
+
+    // Fim dos empréstimos ainda não devolvidos
+    private static final LocalDateTime SEM_DEVOLUCAO = LocalDateTime.MAX;
+
+    @Autowired
+    private HistoricoConsolidadoRepository historicoConsolidadoRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, ArvoreIntervalos> porUsuario = new HashMap<>();
+    private final Map<Long, ArvoreIntervalos> porEquipamento = new HashMap<>();
+
+    // Período indexado de cada histórico, usado para localizá-lo nas árvores na atualização
+    private final Map<Long, Intervalo> intervalos = new HashMap<>();
+
+    private volatile boolean pronto = false;
+
+    private record Intervalo(Long usuarioId, Long equipamentoId, LocalDateTime inicio, LocalDateTime fim) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long inicio = System.currentTimeMillis();
+        List<HistoricoIntervaloProjection> historicos;
+
+        // A leitura acontece com o lock de escrita: atualizações confirmadas durante a carga ficam
+        // bloqueadas em aposCommit e são aplicadas sobre o índice novo, em vez de serem descartadas
+        lock.writeLock().lock();
+        try {
+            historicos = historicoConsolidadoRepository.findIntervalos();
+            porUsuario.clear();
+            porEquipamento.clear();
+            intervalos.clear();
+            for (HistoricoIntervaloProjection historico : historicos) {
+                indexar(historico.getId(), new Intervalo(historico.getUsuarioId(), historico.getEquipamentoId(),
+                        historico.getDataEntrega(), fim(historico.getDataDevolucao())));
+            }
+            pronto = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Índice de períodos de posse construído com {} históricos em {} ms",
+                historicos.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Ids dos históricos do usuário cujo período contém o instante; vazio enquanto o índice não estiver pronto.
+     */
+    public Optional<List<Long>> buscarPorUsuario(Long usuarioId, LocalDateTime instante) {
+        return buscar(porUsuario, usuarioId, instante);
+    }
+
+    /**
+     * Ids dos históricos do equipamento cujo período contém o instante; vazio enquanto o índice não estiver pronto.
+     */
+    public Optional<List<Long>> buscarPorEquipamento(Long equipamentoId, LocalDateTime instante) {
+        return buscar(porEquipamento, equipamentoId, instante);
+    }
+
+    /**
+     * Atualiza o período dos históricos após o commit da transação corrente: inclui as entregas, fecha as
+     * devoluções e remove os cancelados.
+     */
+    public void atualizar(Collection<Historico> historicos) {
+        Map<Long, Intervalo> novos = new LinkedHashMap<>();
+        for (Historico historico : historicos) {
+            novos.put(historico.getId(), Boolean.TRUE.equals(historico.getStatusRegistroHistorico())
+                    ? new Intervalo(historico.getUsuario().getId(), historico.getEquipamento().getId(),
+                            historico.getDataEntrega(), fim(historico.getDataDevolucao()))
+                    : null);
+        }
+
+        aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                novos.forEach((id, intervalo) -> {
+                    desindexar(id);
+                    if (intervalo != null) {
+                        indexar(id, intervalo);
+                    }
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private Optional<List<Long>> buscar(Map<Long, ArvoreIntervalos> arvores, Long chave, LocalDateTime instante) {
+        if (!pronto) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            ArvoreIntervalos arvore = arvores.get(chave);
+            if (arvore != null) {
+                arvore.buscar(instante, ids);
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexar(Long id, Intervalo intervalo) {
+        intervalos.put(id, intervalo);
+        porUsuario.computeIfAbsent(intervalo.usuarioId(), chave -> new ArvoreIntervalos())
+                .inserir(id, intervalo.inicio(), intervalo.fim());
+        porEquipamento.computeIfAbsent(intervalo.equipamentoId(), chave -> new ArvoreIntervalos())
+                .inserir(id, intervalo.inicio(), intervalo.fim());
+    }
+
+    private void desindexar(Long id) {
+        Intervalo intervalo = intervalos.remove(id);
+        if (intervalo == null) {
+            return;
+        }
+        remover(porUsuario, intervalo.usuarioId(), id, intervalo.inicio());
+        remover(porEquipamento, intervalo.equipamentoId(), id, intervalo.inicio());
+    }
+
+    private static void remover(Map<Long, ArvoreIntervalos> arvores, Long chave, Long id, LocalDateTime inicio) {
+        ArvoreIntervalos arvore = arvores.get(chave);
+        if (arvore != null) {
+            arvore.remover(id, inicio);
+            if (arvore.isVazia()) {
+                arvores.remove(chave);
+            }
+        }
+    }
+
+    private static LocalDateTime fim(LocalDateTime dataDevolucao) {
+        return dataDevolucao != null ? dataDevolucao : SEM_DEVOLUCAO;
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
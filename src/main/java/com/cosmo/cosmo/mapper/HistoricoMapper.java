@@ -18,6 +18,8 @@ package com.cosmo.cosmo.mapper;
 import com.cosmo.cosmo.dto.historico.HistoricoRequestDTO;
 import com.cosmo.cosmo.dto.historico.HistoricoResponseDTO;
 import com.cosmo.cosmo.entity.Historico;
+import com.cosmo.cosmo.entity.HistoricoBase;
+import com.cosmo.cosmo.entity.HistoricoConsolidado;
 import com.cosmo.cosmo.entity.equipamento.Equipamento;
 import com.cosmo.cosmo.entity.Usuario;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,7 +51,7 @@ public class HistoricoMapper {
         return historico;
     }
 
-    public HistoricoResponseDTO toResponseDTO(Historico historico) {
+    public HistoricoResponseDTO toResponseDTO(HistoricoBase historico) {
         if (historico == null) {
             return null;
         }
@@ -67,6 +69,7 @@ public class HistoricoMapper {
         responseDTO.setStatusRegistroHistorico(historico.getStatusRegistroHistorico());
         responseDTO.setMotivoCancelamento(historico.getMotivoCancelamento());
         responseDTO.setDataCancelamento(historico.getDataCancelamento());
+        responseDTO.setArquivado(historico instanceof HistoricoConsolidado consolidado && consolidado.getArquivado());
 
         return responseDTO;
     }
@@ -89,20 +89,9 @@ public class EquipamentoMapperFactory {
     }
 
     public TipoEquipamento getTipoFromDTO(Object dto) {
-        if (dto instanceof NotebookCreateDTO || dto instanceof NotebookUpdateDTO) {
-            return TipoEquipamento.NOTEBOOK;
-        } else if (dto instanceof DesktopCreateDTO || dto instanceof DesktopUpdateDTO) {
-            return TipoEquipamento.DESKTOP;
-        } else if (dto instanceof CelularCreateDTO || dto instanceof CelularUpdateDTO) {
-            return TipoEquipamento.CELULAR;
-        } else if (dto instanceof ChipCreateDTO || dto instanceof ChipUpdateDTO) {
-            return TipoEquipamento.CHIP;
-        } else if (dto instanceof ImpressoraCreateDTO || dto instanceof ImpressoraUpdateDTO) {
-            return TipoEquipamento.IMPRESSORA;
-        } else if (dto instanceof MonitorCreateDTO || dto instanceof MonitorUpdateDTO) {
-            return TipoEquipamento.MONITOR;
-        } else {
-            throw new IllegalArgumentException("Tipo de DTO não suportado: " + dto.getClass().getSimpleName());
+        if (dto instanceof EquipamentoEscritaDTO escritaDTO) {
+            return escritaDTO.tipoEquipamento();
         }
+        throw new IllegalArgumentException("Tipo de DTO não suportado: " + dto.getClass().getSimpleName());
     }
 }
@@ -16,8 +16,32 @@
 package com.cosmo.cosmo.repository;
 
 import com.cosmo.cosmo.entity.Departamento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
+
+/**
+ * Consultas de listagem guardadas no cache de consultas do Hibernate; findById já é atendido pelo cache de entidades.
+ * Qualquer gravação na tabela pelo JPA invalida as consultas em cache.
+ */
 public interface DepartamentoRepository extends JpaRepository<Departamento, Long>, JpaSpecificationExecutor<Departamento> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Departamento> findAll(Pageable pageable);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Departamento> findAll(Specification<Departamento> spec, Pageable pageable);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Departamento> findAllById(Iterable<Long> ids);
 }
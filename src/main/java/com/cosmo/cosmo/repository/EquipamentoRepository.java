@@ -16,16 +16,25 @@
 package com.cosmo.cosmo.repository;
 
 import com.cosmo.cosmo.entity.equipamento.Equipamento;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.cosmo.cosmo.repository.projection.EquipamentoBuscaProjection;
+import com.cosmo.cosmo.repository.projection.EquipamentoContagemProjection;
+import com.cosmo.cosmo.repository.projection.EquipamentoTipoProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface EquipamentoRepository extends JpaRepository<Equipamento, Long>, JpaSpecificationExecutor<Equipamento> {
+public interface EquipamentoRepository extends JpaRepository<Equipamento, Long>, JpaSpecificationExecutor<Equipamento>, EquipamentoRepositoryCustom {
 
     // Métodos para verificar duplicação de campos comuns na criação
     boolean existsByNumeroPatrimonio(String numeroPatrimonio);
@@ -41,15 +50,56 @@ public interface EquipamentoRepository extends JpaRepository<Equipamento, Long>,
     // Buscar equipamentos por departamento
     List<Equipamento> findByDepartamentoId(Long departamentoId);
 
-    // Buscar equipamentos por tipo específico usando discriminator
-    @Query("SELECT e FROM Equipamento e WHERE TYPE(e) = :tipo")
-    List<Equipamento> findByTipo(@Param("tipo") Class<? extends Equipamento> tipo);
+    // Contar equipamentos por tipo usando a coluna discriminadora (idx_equipamento_tipo)
+    long countByTipo(TipoEquipamento tipo);
 
-    // Buscar equipamentos por tipo específico com paginação
-    @Query("SELECT e FROM Equipamento e WHERE TYPE(e) = :tipo")
-    Page<Equipamento> findByTipo(@Param("tipo") Class<? extends Equipamento> tipo, Pageable pageable);
+    // Resolver o subtipo de cada id pela coluna discriminadora da tabela base
+    @Query(value = "SELECT id, tipo FROM equipamento WHERE id IN (:ids)", nativeQuery = true)
+    List<EquipamentoTipoProjection> findTiposByIds(@Param("ids") Collection<Long> ids);
 
-    // Contar equipamentos por tipo
-    @Query("SELECT COUNT(e) FROM Equipamento e WHERE TYPE(e) = :tipo")
-    Long countByTipo(@Param("tipo") Class<? extends Equipamento> tipo);
+    // Carregar os campos de busca textual de todos os equipamentos (apenas tabela base)
+    @Query("SELECT e.id AS id, e.serialNumber AS serialNumber, e.numeroPatrimonio AS numeroPatrimonio, " +
+           "e.marca AS marca, e.modelo AS modelo, e.notaFiscal AS notaFiscal FROM Equipamento e")
+    List<EquipamentoBuscaProjection> findAllCamposBusca();
+
+    // Contar equipamentos por tipo e status em uma única consulta agrupada (apenas tabela base)
+    @Query("SELECT e.tipo AS tipo, e.status AS status, COUNT(e.id) AS total FROM Equipamento e GROUP BY e.tipo, e.status")
+    List<EquipamentoContagemProjection> countByTipoAndStatus();
+
+    // Versões do equipamento, da empresa e do departamento incluídos na resposta, sem carregar o equipamento (ETag)
+    @Query("SELECT CONCAT(e.versao, '.', emp.versao, '.', d.versao) FROM Equipamento e " +
+           "JOIN e.empresa emp JOIN e.departamento d WHERE e.id = :id")
+    Optional<String> findVersaoById(@Param("id") Long id);
+
+    // Compare-and-set do status: só altera a linha se o status ainda for o lido pela aplicação, sem bloqueá-la
+    // na leitura; retorna 0 quando outra transação mudou o status antes. Grava também o ponteiro para o
+    // histórico ativo e incrementa a versão, como faria o Hibernate. As alterações pendentes são gravadas
+    // antes: o id do histórico vem da sequence e o seu INSERT só acontece no flush, que o espaço de consulta
+    // "equipamento" não dispararia; sem ele a chave estrangeira fk_equipamento_historico_atual é violada
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "equipamento"))
+    @Query(value = "UPDATE equipamento SET status = :novoStatus, historico_atual_id = :historicoAtualId, " +
+                   "versao = versao + 1, updated_at = :agora WHERE id = :id AND status = :statusEsperado",
+           nativeQuery = true)
+    int compararEAlterarStatus(@Param("id") Long id,
+                               @Param("statusEsperado") String statusEsperado,
+                               @Param("novoStatus") String novoStatus,
+                               @Param("historicoAtualId") Long historicoAtualId,
+                               @Param("agora") LocalDateTime agora);
+
+    // Compare-and-set em lote: altera de uma vez os equipamentos informados que ainda estão no status esperado;
+    // um resultado menor que o número de ids indica que outra transação alterou algum deles. O ponteiro para o
+    // histórico ativo é recalculado a partir da tabela historico (por isso as alterações pendentes são gravadas
+    // antes), e o contexto de persistência é limpo, pois as entidades carregadas ficam desatualizadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "equipamento"))
+    @Query(value = "UPDATE equipamento SET status = :novoStatus, historico_atual_id = " +
+                   "(SELECT MAX(h.id) FROM historico h WHERE h.equipamento_id = equipamento.id " +
+                   "AND h.status_registro_historico = TRUE AND h.data_devolucao IS NULL), " +
+                   "versao = versao + 1, updated_at = :agora WHERE id IN (:ids) AND status = :statusEsperado",
+           nativeQuery = true)
+    int compararEAlterarStatusEmLote(@Param("ids") Collection<Long> ids,
+                                     @Param("statusEsperado") String statusEsperado,
+                                     @Param("novoStatus") String novoStatus,
+                                     @Param("agora") LocalDateTime agora);
 }
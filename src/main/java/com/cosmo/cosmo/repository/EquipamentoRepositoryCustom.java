@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.repository;
+
+import com.cosmo.cosmo.dto.equipamento.EquipamentoExportDTO;
+import com.cosmo.cosmo.dto.equipamento.EquipamentoResumoDTO;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Consultas que leem apenas a tabela base equipamento (primeira fase da leitura polimórfica).
+ */
+public interface EquipamentoRepositoryCustom {
+
+    /**
+     * Retorna a página de ids que atendem à especificação, sem juntar as tabelas dos subtipos.
+     */
+    Page<Long> findIds(Specification<Equipamento> spec, Pageable pageable);
+
+    /**
+     * Retorna até {@code limit} ids que atendem à especificação, na ordenação informada.
+     */
+    List<Long> findIds(Specification<Equipamento> spec, Sort sort, int limit);
+
+    /**
+     * Retorna a página na representação resumida, projetada direto da tabela base
+     * com os nomes da empresa e do departamento.
+     */
+    Page<EquipamentoResumoDTO> findResumos(Specification<Equipamento> spec, Pageable pageable);
+
+    /**
+     * Lê as linhas da exportação em streaming, uma a uma, sem carregar o resultado inteiro em memória.
+     * O stream deve ser consumido e fechado dentro de uma transação, e a conexão não pode executar outras
+     * consultas enquanto ele estiver aberto.
+     */
+    Stream<EquipamentoExportDTO> streamExport(Specification<Equipamento> spec, Sort sort);
+
+    /**
+     * Retorna quais dos valores informados já estão gravados no campo da entidade
+     * (ex.: Celular/imei), em uma única consulta IN.
+     */
+    Set<String> findValoresExistentes(Class<? extends Equipamento> entidade, String campo, Collection<String> valores);
+
+    /**
+     * Verifica todos os campos únicos de um equipamento em uma única consulta (UNION ALL de buscas
+     * pelos índices únicos) e retorna os nomes dos campos cujo valor já pertence a outro equipamento.
+     *
+     * @param valoresPorCampo valores a verificar, indexados pelo nome do campo (ex.: "imei")
+     * @param excludeId       id do próprio equipamento, na atualização; null na criação
+     */
+    List<String> findCamposEmConflito(Map<String, String> valoresPorCampo, Long excludeId);
+
+    /**
+     * Relê o equipamento do banco após uma alteração feita por UPDATE direto, fora do ciclo de vida da entidade.
+     */
+    void recarregar(Equipamento equipamento);
+}
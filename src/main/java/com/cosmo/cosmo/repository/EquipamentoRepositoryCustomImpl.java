@@ -0,0 +1,255 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.repository;
+
+import com.cosmo.cosmo.dto.equipamento.EquipamentoExportDTO;
+import com.cosmo.cosmo.dto.equipamento.EquipamentoResumoDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Como as consultas projetam apenas colunas da tabela base (e das tabelas de referência),
+ * o Hibernate não precisa das junções com as subtabelas para descobrir a subclasse de cada linha.
+ */
+public class EquipamentoRepositoryCustomImpl implements EquipamentoRepositoryCustom {
+
+    /**
+     * Tabela e coluna de cada campo único verificado em {@link #findCamposEmConflito}.
+     */
+    // Com o Connector/J, Integer.MIN_VALUE em um resultado somente-avanço e somente-leitura faz o driver ler as
+    // linhas uma a uma do servidor, só nesta consulta, sem o useCursorFetch na URL (que valeria para todas)
+    private static final int FETCH_SIZE_STREAMING = Integer.MIN_VALUE;
+
+    private static final Map<String, String[]> COLUNAS_UNICAS = Map.of(
+            "numeroPatrimonio", new String[] {"equipamento", "numero_patrimonio"},
+            "serialNumber", new String[] {"equipamento", "serial_number"},
+            "hostname", new String[] {"computador", "hostname"},
+            "imei", new String[] {"celular", "imei"},
+            "imei2", new String[] {"celular", "imei2"},
+            "eid", new String[] {"celular", "eid"},
+            "iccid", new String[] {"chip", "iccid"},
+            "numeroTelefone", new String[] {"chip", "numero_telefone"},
+            "enderecoIP", new String[] {"impressora", "endereco_ip"}
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> findIds(Specification<Equipamento> spec, Pageable pageable) {
+        List<Long> ids = entityManager.createQuery(idsQuery(spec, pageable.getSort()))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Equipamento> spec, Sort sort, int limit) {
+        return entityManager.createQuery(idsQuery(spec, sort))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Page<EquipamentoResumoDTO> findResumos(Specification<Equipamento> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EquipamentoResumoDTO> query = criteriaBuilder.createQuery(EquipamentoResumoDTO.class);
+        Root<Equipamento> root = query.from(Equipamento.class);
+        Join<Equipamento, Empresa> empresa = root.join("empresa");
+        Join<Equipamento, Departamento> departamento = root.join("departamento");
+
+        query.select(criteriaBuilder.construct(EquipamentoResumoDTO.class,
+                root.get("id"),
+                root.get("tipo"),
+                root.get("numeroPatrimonio"),
+                root.get("serialNumber"),
+                root.get("marca"),
+                root.get("modelo"),
+                root.get("status"),
+                root.get("estadoConservacao"),
+                root.get("statusPropriedade"),
+                empresa.get("nome"),
+                departamento.get("nome")));
+        applySpecification(spec, root, query, criteriaBuilder);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        List<EquipamentoResumoDTO> resumos = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(resumos, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Stream<EquipamentoExportDTO> streamExport(Specification<Equipamento> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EquipamentoExportDTO> query = criteriaBuilder.createQuery(EquipamentoExportDTO.class);
+        Root<Equipamento> root = query.from(Equipamento.class);
+        Join<Equipamento, Empresa> empresa = root.join("empresa");
+        Join<Equipamento, Departamento> departamento = root.join("departamento");
+
+        query.select(criteriaBuilder.construct(EquipamentoExportDTO.class,
+                root.get("id"),
+                root.get("tipo"),
+                root.get("numeroPatrimonio"),
+                root.get("serialNumber"),
+                root.get("marca"),
+                root.get("modelo"),
+                root.get("estadoConservacao"),
+                root.get("status"),
+                root.get("statusPropriedade"),
+                root.get("termoResponsabilidade"),
+                root.get("valor"),
+                root.get("notaFiscal"),
+                root.get("siglaEstado"),
+                empresa.get("nome"),
+                departamento.get("nome"),
+                root.get("observacoes"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+        applySpecification(spec, root, query, criteriaBuilder);
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, criteriaBuilder));
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE_STREAMING)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Set<String> findValoresExistentes(Class<? extends Equipamento> entidade, String campo, Collection<String> valores) {
+        if (valores.isEmpty()) {
+            return Set.of();
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = criteriaBuilder.createQuery(String.class);
+        Root<? extends Equipamento> root = query.from(entidade);
+
+        query.select(root.get(campo)).where(root.get(campo).in(valores));
+        return new HashSet<>(entityManager.createQuery(query).getResultList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> findCamposEmConflito(Map<String, String> valoresPorCampo, Long excludeId) {
+        if (valoresPorCampo.isEmpty()) {
+            return List.of();
+        }
+
+        // Os nomes de tabela e coluna vêm do mapa fixo acima; apenas os valores são parâmetros
+        StringBuilder sql = new StringBuilder();
+        List<String> valores = new ArrayList<>();
+        valoresPorCampo.forEach((campo, valor) -> {
+            String[] coluna = COLUNAS_UNICAS.get(campo);
+            if (coluna == null) {
+                throw new IllegalArgumentException("Campo único não suportado: " + campo);
+            }
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT '").append(campo).append("' FROM ").append(coluna[0])
+                    .append(" WHERE ").append(coluna[1]).append(" = :valor").append(valores.size());
+            if (excludeId != null) {
+                sql.append(" AND id <> :excludeId");
+            }
+            valores.add(valor);
+        });
+
+        // Sem flush automático: na atualização o equipamento já alterado está no contexto de persistência,
+        // e o flush gravaria o valor duplicado antes da verificação (falhando com a violação do índice)
+        Query query = entityManager.createNativeQuery(sql.toString())
+                .setFlushMode(FlushModeType.COMMIT);
+        for (int i = 0; i < valores.size(); i++) {
+            query.setParameter("valor" + i, valores.get(i));
+        }
+        if (excludeId != null) {
+            query.setParameter("excludeId", excludeId);
+        }
+        return (List<String>) query.getResultList();
+    }
+
+    @Override
+    public void recarregar(Equipamento equipamento) {
+        entityManager.refresh(equipamento);
+    }
+
+    private CriteriaQuery<Long> idsQuery(Specification<Equipamento> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Equipamento> root = query.from(Equipamento.class);
+
+        query.select(root.get("id"));
+        applySpecification(spec, root, query, criteriaBuilder);
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, criteriaBuilder));
+        }
+        return query;
+    }
+
+    private long count(Specification<Equipamento> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Equipamento> root = query.from(Equipamento.class);
+
+        query.select(criteriaBuilder.count(root.get("id")));
+        applySpecification(spec, root, query, criteriaBuilder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Equipamento> spec, Root<Equipamento> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.repository;
+
+import com.cosmo.cosmo.entity.HistoricoConsolidado;
+import com.cosmo.cosmo.repository.projection.HistoricoIntervaloProjection;
+import com.cosmo.cosmo.repository.projection.UltimaDevolucaoProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas sobre o histórico em uso somado ao arquivo (visão historico_consolidado), usadas com
+ * incluirArquivo=true, na consulta por id de registros arquivados, no cálculo do tempo ocioso e nas consultas de posse. As listagens carregam
+ * equipamento, usuário e suas empresas e departamentos na própria consulta.
+ */
+public interface HistoricoConsolidadoRepository extends JpaRepository<HistoricoConsolidado, Long>,
+        JpaSpecificationExecutor<HistoricoConsolidado> {
+
+    @Override
+    @EntityGraph(attributePaths = {"equipamento.empresa", "equipamento.departamento", "usuario.empresa", "usuario.departamento"})
+    List<HistoricoConsolidado> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = {"equipamento.empresa", "equipamento.departamento", "usuario.empresa", "usuario.departamento"})
+    Page<HistoricoConsolidado> findAll(Specification<HistoricoConsolidado> spec, Pageable pageable);
+
+    // Registro movido para historico_arquivo; a consulta por id do histórico em uso não o encontra mais
+    @EntityGraph(attributePaths = {"equipamento.empresa", "equipamento.departamento", "usuario.empresa", "usuario.departamento"})
+    @Query("SELECT h FROM HistoricoConsolidado h WHERE h.id = :id AND h.arquivado = true")
+    Optional<HistoricoConsolidado> findArquivadoById(@Param("id") Long id);
+
+    // Versão de um registro arquivado (ETag): o registro não muda mais, apenas o que a resposta inclui; o prefixo
+    // distingue a versão da que o registro tinha antes de ser arquivado
+    @Query("SELECT CONCAT('a.', e.versao, '.', ee.versao, '.', ed.versao, '.', " +
+           "u.versao, '.', ue.versao, '.', ud.versao) FROM HistoricoConsolidado h " +
+           "JOIN h.equipamento e JOIN e.empresa ee JOIN e.departamento ed " +
+           "JOIN h.usuario u JOIN u.empresa ue JOIN u.departamento ud WHERE h.id = :id AND h.arquivado = true")
+    Optional<String> findVersaoArquivadoById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"equipamento.empresa", "equipamento.departamento", "usuario.empresa", "usuario.departamento"})
+    Page<HistoricoConsolidado> findByUsuarioIdAndStatusRegistroHistoricoTrue(Long usuarioId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"equipamento.empresa", "equipamento.departamento", "usuario.empresa", "usuario.departamento"})
+    Page<HistoricoConsolidado> findByEquipamentoIdAndStatusRegistroHistoricoTrue(Long equipamentoId, Pageable pageable);
+
+    // Última devolução de cada equipamento, desconsiderando os históricos informados (os que estão sendo devolvidos)
+    @Query("SELECT h.equipamento.id AS equipamentoId, MAX(h.dataDevolucao) AS dataDevolucao FROM HistoricoConsolidado h " +
+           "WHERE h.equipamento.id IN :equipamentoIds AND h.id NOT IN :historicoIds " +
+           "AND h.statusRegistroHistorico = true AND h.dataDevolucao IS NOT NULL " +
+           "GROUP BY h.equipamento.id")
+    List<UltimaDevolucaoProjection> findUltimaDevolucaoPorEquipamento(@Param("equipamentoIds") Collection<Long> equipamentoIds,
+                                                                     @Param("historicoIds") Collection<Long> historicoIds);
+
+    // Históricos do equipamento cujo período de posse contém o instante (no máximo um, pois os empréstimos
+    // do mesmo equipamento não se sobrepõem); usa o índice por equipamento e data de entrega
+    @EntityGraph(attributePaths = {"equipamento.empresa", "equipamento.departamento", "usuario.empresa", "usuario.departamento"})
+    @Query("SELECT h FROM HistoricoConsolidado h WHERE h.equipamento.id = :equipamentoId " +
+           "AND h.statusRegistroHistorico = true AND h.dataEntrega <= :instante " +
+           "AND (h.dataDevolucao IS NULL OR h.dataDevolucao > :instante)")
+    List<HistoricoConsolidado> findPosseByEquipamentoId(@Param("equipamentoId") Long equipamentoId,
+                                                         @Param("instante") LocalDateTime instante);
+
+    // Históricos do usuário cujo período de posse contém o instante; usa o índice por usuário e data de entrega
+    @EntityGraph(attributePaths = {"equipamento.empresa", "equipamento.departamento", "usuario.empresa", "usuario.departamento"})
+    @Query("SELECT h FROM HistoricoConsolidado h WHERE h.usuario.id = :usuarioId " +
+           "AND h.statusRegistroHistorico = true AND h.dataEntrega <= :instante " +
+           "AND (h.dataDevolucao IS NULL OR h.dataDevolucao > :instante) ORDER BY h.dataEntrega")
+    List<HistoricoConsolidado> findPosseByUsuarioId(@Param("usuarioId") Long usuarioId,
+                                                    @Param("instante") LocalDateTime instante);
+
+    // Períodos de posse de todos os históricos não cancelados, para a construção do índice em memória
+    @Query("SELECT h.id AS id, h.usuario.id AS usuarioId, h.equipamento.id AS equipamentoId, " +
+           "h.dataEntrega AS dataEntrega, h.dataDevolucao AS dataDevolucao " +
+           "FROM HistoricoConsolidado h WHERE h.statusRegistroHistorico = true")
+    List<HistoricoIntervaloProjection> findIntervalos();
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.repository;
+
+import com.cosmo.cosmo.entity.HistoricoDuracaoResumo;
+import com.cosmo.cosmo.entity.HistoricoDuracaoResumoId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface HistoricoDuracaoResumoRepository extends JpaRepository<HistoricoDuracaoResumo, HistoricoDuracaoResumoId> {
+
+    // Soma as durações à faixa do grupo, criando a linha se ela ainda não existir; apenas a tabela do resumo
+    // é declarada, para que o Hibernate não invalide todo o cache de segundo nível a cada devolução
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "historico_duracao_resumo"))
+    @Query(value = "INSERT INTO historico_duracao_resumo (tipo_equipamento, empresa_id, departamento_id, medida, faixa, quantidade, soma_minutos) " +
+                   "VALUES (:tipoEquipamento, :empresaId, :departamentoId, :medida, :faixa, :quantidade, :somaMinutos) " +
+                   "ON DUPLICATE KEY UPDATE quantidade = quantidade + VALUES(quantidade), soma_minutos = soma_minutos + VALUES(soma_minutos)",
+           nativeQuery = true)
+    void somar(@Param("tipoEquipamento") String tipoEquipamento,
+               @Param("empresaId") Long empresaId,
+               @Param("departamentoId") Long departamentoId,
+               @Param("medida") String medida,
+               @Param("faixa") int faixa,
+               @Param("quantidade") long quantidade,
+               @Param("somaMinutos") long somaMinutos);
+}
@@ -16,24 +16,116 @@
 package com.cosmo.cosmo.repository;
 
 import com.cosmo.cosmo.entity.Historico;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * As listagens carregam equipamento, usuário e suas empresas e departamentos na própria consulta da página
+ * (grafo {@link Historico#GRAFO_RESPOSTA}); a contagem das páginas continua sem junções.
+ */
 public interface HistoricoRepository extends JpaRepository<Historico, Long>, JpaSpecificationExecutor<Historico> {
 
+    @Override
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    List<Historico> findAll();
+
+    @Override
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    List<Historico> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    Page<Historico> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    Page<Historico> findAll(Specification<Historico> spec, Pageable pageable);
+
     // Encontrar históricos por usuário
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
     List<Historico> findByUsuarioId(Long usuarioId);
 
     // Encontrar históricos por usuário com paginação
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
     Page<Historico> findByUsuarioId(Long usuarioId, Pageable pageable);
 
     // Encontrar históricos por equipamento
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
     List<Historico> findByEquipamentoId(Long equipamentoId);
 
     // Encontrar históricos por equipamento com paginação
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
     Page<Historico> findByEquipamentoId(Long equipamentoId, Pageable pageable);
+
+    // Históricos ativos (não cancelados) por usuário, filtrados na própria consulta
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    List<Historico> findByUsuarioIdAndStatusRegistroHistoricoTrue(Long usuarioId);
+
+    // Históricos ativos por usuário com paginação (índice idx_historico_usuario_ativo_entrega)
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    Page<Historico> findByUsuarioIdAndStatusRegistroHistoricoTrue(Long usuarioId, Pageable pageable);
+
+    // Históricos ativos (não cancelados) por equipamento, filtrados na própria consulta
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    List<Historico> findByEquipamentoIdAndStatusRegistroHistoricoTrue(Long equipamentoId);
+
+    // Históricos ativos por equipamento com paginação (índice idx_historico_equipamento_ativo_entrega)
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    Page<Historico> findByEquipamentoIdAndStatusRegistroHistoricoTrue(Long equipamentoId, Pageable pageable);
+
+    // Equipamento com histórico ativo, lido pelo ponteiro historico_atual_id (uma linha, pela chave primária)
+    @Query("SELECT COUNT(e) > 0 FROM Equipamento e WHERE e.id = :equipamentoId AND e.historicoAtualId IS NOT NULL")
+    boolean existsAtivoByEquipamentoId(@Param("equipamentoId") Long equipamentoId);
+
+    // Histórico ativo do equipamento, seguindo o ponteiro historico_atual_id
+    @EntityGraph(Historico.GRAFO_RESPOSTA)
+    @Query("SELECT h FROM Historico h WHERE h.id = " +
+           "(SELECT e.historicoAtualId FROM Equipamento e WHERE e.id = :equipamentoId)")
+    Optional<Historico> findAtivoByEquipamentoId(@Param("equipamentoId") Long equipamentoId);
+
+    // Ids dos históricos encerrados (com devolução) antes da data de corte, em lotes, para o arquivamento
+    @Query("SELECT h.id FROM Historico h WHERE h.dataDevolucao < :corte ORDER BY h.id")
+    List<Long> findIdsArquivaveis(@Param("corte") LocalDateTime corte, Pageable pageable);
+
+    // Copia os históricos para a tabela de arquivo (lê as linhas com bloqueio compartilhado até o fim da transação)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "historico_arquivo"))
+    @Query(value = "INSERT INTO historico_arquivo (id, equipamento_id, usuario_id, data_entrega, data_devolucao, " +
+                   "observacoes_entrega, observacoes_devolucao, url_termo_entrega, url_termo_devolucao, " +
+                   "status_registro_historico, motivo_cancelamento, data_cancelamento, arquivado_em) " +
+                   "SELECT id, equipamento_id, usuario_id, data_entrega, data_devolucao, " +
+                   "observacoes_entrega, observacoes_devolucao, url_termo_entrega, url_termo_devolucao, " +
+                   "status_registro_historico, motivo_cancelamento, data_cancelamento, :agora " +
+                   "FROM historico WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copiarParaArquivo(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    // Remove do histórico em uso os registros já copiados para o arquivo
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "historico"))
+    @Query(value = "DELETE FROM historico WHERE id IN (:ids)", nativeQuery = true)
+    int removerArquivados(@Param("ids") Collection<Long> ids);
+
+    // Versões do histórico e de tudo o que a resposta inclui (equipamento, usuário e suas empresas e
+    // departamentos), sem carregar as entidades (ETag)
+    @Query("SELECT CONCAT(h.versao, '.', e.versao, '.', ee.versao, '.', ed.versao, '.', " +
+           "u.versao, '.', ue.versao, '.', ud.versao) FROM Historico h " +
+           "JOIN h.equipamento e JOIN e.empresa ee JOIN e.departamento ed " +
+           "JOIN h.usuario u JOIN u.empresa ue JOIN u.departamento ud WHERE h.id = :id")
+    Optional<String> findVersaoById(@Param("id") Long id);
 }
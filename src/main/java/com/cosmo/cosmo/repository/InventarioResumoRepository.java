@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.repository;
+
+import com.cosmo.cosmo.entity.InventarioResumo;
+import com.cosmo.cosmo.entity.InventarioResumoId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface InventarioResumoRepository extends JpaRepository<InventarioResumo, InventarioResumoId> {
+
+    // Soma a variação ao grupo, criando a linha se ela ainda não existir (a linha fica bloqueada até o fim da transação).
+    // A tabela afetada é declarada para que o Hibernate não invalide todo o cache de segundo nível a cada gravação
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "inventario_resumo"))
+    @Query(value = "INSERT INTO inventario_resumo (empresa_id, departamento_id, status, status_propriedade, quantidade, valor_total) " +
+                   "VALUES (:empresaId, :departamentoId, :status, :statusPropriedade, :quantidade, :valor) " +
+                   "ON DUPLICATE KEY UPDATE quantidade = quantidade + VALUES(quantidade), valor_total = valor_total + VALUES(valor_total)",
+           nativeQuery = true)
+    void somar(@Param("empresaId") Long empresaId,
+               @Param("departamentoId") Long departamentoId,
+               @Param("status") String status,
+               @Param("statusPropriedade") String statusPropriedade,
+               @Param("quantidade") long quantidade,
+               @Param("valor") BigDecimal valor);
+
+    // Grupos com ao menos um equipamento; os que zeraram continuam na tabela para reaproveitar a linha
+    @Query("SELECT r FROM InventarioResumo r WHERE r.quantidade > 0")
+    List<InventarioResumo> findGruposComEquipamentos();
+}
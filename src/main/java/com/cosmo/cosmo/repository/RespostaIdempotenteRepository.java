@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.repository;
+
+import com.cosmo.cosmo.entity.RespostaIdempotente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Gravações das respostas idempotentes. São consultas nativas para que a reserva seja um INSERT que falha
+ * com chave duplicada (e não um merge); a tabela afetada é declarada para que o Hibernate não invalide
+ * o cache de segundo nível.
+ */
+public interface RespostaIdempotenteRepository extends JpaRepository<RespostaIdempotente, String> {
+
+    // Reserva a chave para a execução; lança DataIntegrityViolationException se ela já existir
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resposta_idempotente"))
+    @Query(value = "INSERT INTO resposta_idempotente (id, situacao, criado_em, expira_em) " +
+                   "VALUES (:id, 'EM_ANDAMENTO', :agora, :expiraEm)",
+           nativeQuery = true)
+    void reservar(@Param("id") String id, @Param("agora") LocalDateTime agora, @Param("expiraEm") LocalDateTime expiraEm);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resposta_idempotente"))
+    @Query(value = "UPDATE resposta_idempotente SET situacao = 'CONCLUIDA', hash_requisicao = :hashRequisicao, " +
+                   "status_http = :statusHttp, content_type = :contentType, corpo = :corpo, expira_em = :expiraEm " +
+                   "WHERE id = :id AND situacao = 'EM_ANDAMENTO'",
+           nativeQuery = true)
+    int concluir(@Param("id") String id,
+                 @Param("hashRequisicao") String hashRequisicao,
+                 @Param("statusHttp") int statusHttp,
+                 @Param("contentType") String contentType,
+                 @Param("corpo") byte[] corpo,
+                 @Param("expiraEm") LocalDateTime expiraEm);
+
+    // Prorroga a reserva de uma execução ainda em andamento; retorna 0 se ela não pertence mais à execução
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resposta_idempotente"))
+    @Query(value = "UPDATE resposta_idempotente SET expira_em = :expiraEm WHERE id = :id AND situacao = 'EM_ANDAMENTO'",
+           nativeQuery = true)
+    int renovar(@Param("id") String id, @Param("expiraEm") LocalDateTime expiraEm);
+
+    // Remove a reserva de uma execução que falhou, liberando a chave para uma nova tentativa
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resposta_idempotente"))
+    @Query(value = "DELETE FROM resposta_idempotente WHERE id = :id AND situacao = 'EM_ANDAMENTO'", nativeQuery = true)
+    int liberar(@Param("id") String id);
+
+    // Remove as respostas e reservas expiradas (reservas de instâncias que pararam durante a execução)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resposta_idempotente"))
+    @Query(value = "DELETE FROM resposta_idempotente WHERE expira_em < :agora", nativeQuery = true)
+    int removerExpiradas(@Param("agora") LocalDateTime agora);
+
+    // Remove uma reserva expirada para que a chave possa ser reservada de novo
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resposta_idempotente"))
+    @Query(value = "DELETE FROM resposta_idempotente WHERE id = :id AND expira_em < :agora", nativeQuery = true)
+    int removerSeExpirada(@Param("id") String id, @Param("agora") LocalDateTime agora);
+}
@@ -16,12 +16,35 @@
 package com.cosmo.cosmo.repository;
 
 import com.cosmo.cosmo.entity.Usuario;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpecificationExecutor<Usuario> {
+
+    // Listagens trazem departamento e empresa na mesma consulta (JOIN), em vez de uma busca por linha
+    @Override
+    @EntityGraph(attributePaths = {"departamento", "empresa"})
+    Page<Usuario> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"departamento", "empresa"})
+    Page<Usuario> findAll(Specification<Usuario> spec, Pageable pageable);
+
     boolean existsByEmail(String email);
     boolean existsByCpf(String cpf);
     boolean existsByEmailAndIdNot(String email, Long id);
     boolean existsByCpfAndIdNot(String cpf, Long id);
+
+    // Versões do usuário, do departamento e da empresa incluídos na resposta, sem carregar o usuário (ETag)
+    @Query("SELECT CONCAT(u.versao, '.', d.versao, '.', emp.versao) FROM Usuario u " +
+           "JOIN u.departamento d JOIN u.empresa emp WHERE u.id = :id")
+    Optional<String> findVersaoById(@Param("id") Long id);
 }
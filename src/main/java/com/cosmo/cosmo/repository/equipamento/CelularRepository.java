@@ -16,8 +16,12 @@
 package com.cosmo.cosmo.repository.equipamento;
 
 import com.cosmo.cosmo.entity.equipamento.Celular;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CelularRepository extends JpaRepository<Celular, Long> {
 
     // Métodos para verificar duplicação de campos específicos de Celular na criação
@@ -29,4 +33,8 @@ public interface CelularRepository extends JpaRepository<Celular, Long> {
     boolean existsByImeiAndIdNot(String imei, Long id);
     boolean existsByImei2AndIdNot(String imei2, Long id);
     boolean existsByEidAndIdNot(String eid, Long id);
+
+    // Carga em lote por ids usada na leitura polimórfica em duas fases
+    @EntityGraph(attributePaths = {"empresa", "departamento"})
+    List<Celular> findByIdIn(Collection<Long> ids);
 }
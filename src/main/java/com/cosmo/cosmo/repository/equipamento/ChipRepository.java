@@ -16,8 +16,12 @@
 package com.cosmo.cosmo.repository.equipamento;
 
 import com.cosmo.cosmo.entity.equipamento.Chip;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ChipRepository extends JpaRepository<Chip, Long> {
 
     // Métodos para verificar duplicação de campos específicos de Chip na criação
@@ -27,4 +31,8 @@ public interface ChipRepository extends JpaRepository<Chip, Long> {
     // Métodos para verificar duplicação na atualização (excluindo o próprio equipamento)
     boolean existsByIccidAndIdNot(String iccid, Long id);
     boolean existsByNumeroTelefoneAndIdNot(String numeroTelefone, Long id);
+
+    // Carga em lote por ids usada na leitura polimórfica em duas fases
+    @EntityGraph(attributePaths = {"empresa", "departamento"})
+    List<Chip> findByIdIn(Collection<Long> ids);
 }
@@ -16,10 +16,12 @@
 package com.cosmo.cosmo.repository.equipamento;
 
 import com.cosmo.cosmo.entity.equipamento.Desktop;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DesktopRepository extends JpaRepository<Desktop, Long> {
@@ -40,4 +42,8 @@ public interface DesktopRepository extends JpaRepository<Desktop, Long> {
     // Buscar desktops sem antivírus
     @Query("SELECT d FROM Desktop d WHERE d.antivirusEnabled = false OR d.antivirusEnabled IS NULL")
     List<Desktop> findWithoutAntivirus();
+
+    // Carga em lote por ids usada na leitura polimórfica em duas fases
+    @EntityGraph(attributePaths = {"empresa", "departamento"})
+    List<Desktop> findByIdIn(Collection<Long> ids);
 }
@@ -16,10 +16,15 @@
 package com.cosmo.cosmo.repository.equipamento;
 
 import com.cosmo.cosmo.entity.equipamento.*;
+import com.cosmo.cosmo.enums.TipoEquipamento;
 import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.projection.EquipamentoTipoProjection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
+import java.util.stream.Collectors;
+
 @Component
 public class EquipamentoRepositoryFactory {
 
@@ -101,44 +106,41 @@ public class EquipamentoRepositoryFactory {
     }
 
     /**
-     * Verifica se um campo único específico já existe na base de dados.
+     * Carrega equipamentos pelos ids em duas fases: primeiro resolve o subtipo de cada id e depois
+     * executa uma consulta IN por subtipo presente, evitando o LEFT JOIN com todas as subtabelas.
+     * A lista retornada preserva a ordem dos ids informados.
      */
-    public boolean existsUniqueField(Class<? extends Equipamento> tipo, String fieldName, String value, Long excludeId) {
-        if (tipo == Celular.class) {
-            CelularRepository repo = getCelularRepository();
-            switch (fieldName) {
-                case "imei":
-                    return excludeId != null ? repo.existsByImeiAndIdNot(value, excludeId) : repo.existsByImei(value);
-                case "imei2":
-                    return excludeId != null ? repo.existsByImei2AndIdNot(value, excludeId) : repo.existsByImei2(value);
-                case "eid":
-                    return excludeId != null ? repo.existsByEidAndIdNot(value, excludeId) : repo.existsByEid(value);
-            }
-        } else if (tipo == Chip.class) {
-            ChipRepository repo = getChipRepository();
-            switch (fieldName) {
-                case "iccid":
-                    return excludeId != null ? repo.existsByIccidAndIdNot(value, excludeId) : repo.existsByIccid(value);
-                case "numeroTelefone":
-                    return excludeId != null ? repo.existsByNumeroTelefoneAndIdNot(value, excludeId) : repo.existsByNumeroTelefone(value);
-            }
-        } else if (tipo == Impressora.class) {
-            ImpressoraRepository repo = getImpressoraRepository();
-            if ("enderecoIP".equals(fieldName)) {
-                return excludeId != null ? repo.existsByEnderecoIPAndIdNot(value, excludeId) : repo.existsByEnderecoIP(value);
-            }
-        } else if (tipo == Notebook.class || tipo == Desktop.class) {
-            if ("hostname".equals(fieldName)) {
-                if (tipo == Notebook.class) {
-                    NotebookRepository repo = getNotebookRepository();
-                    return excludeId != null ? repo.existsByHostnameAndIdNot(value, excludeId) : !repo.findByHostname(value).isEmpty();
-                } else {
-                    DesktopRepository repo = getDesktopRepository();
-                    return excludeId != null ? repo.existsByHostnameAndIdNot(value, excludeId) : !repo.findByHostname(value).isEmpty();
-                }
-            }
+    public List<Equipamento> findAllByIdsPolimorfico(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
 
-        return false;
+        Map<TipoEquipamento, List<Long>> idsPorTipo = equipamentoRepository.findTiposByIds(ids)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        projection -> TipoEquipamento.valueOf(projection.getTipo()),
+                        () -> new EnumMap<>(TipoEquipamento.class),
+                        Collectors.mapping(EquipamentoTipoProjection::getId, Collectors.toList())));
+
+        Map<Long, Equipamento> equipamentosPorId = new HashMap<>();
+        idsPorTipo.forEach((tipo, idsDoTipo) ->
+                findByIdInAndTipo(tipo, idsDoTipo).forEach(equipamento -> equipamentosPorId.put(equipamento.getId(), equipamento)));
+
+        return ids.stream()
+                .map(equipamentosPorId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<? extends Equipamento> findByIdInAndTipo(TipoEquipamento tipo, List<Long> ids) {
+        switch (tipo) {
+            case NOTEBOOK: return notebookRepository.findByIdIn(ids);
+            case DESKTOP: return desktopRepository.findByIdIn(ids);
+            case CELULAR: return celularRepository.findByIdIn(ids);
+            case CHIP: return chipRepository.findByIdIn(ids);
+            case IMPRESSORA: return impressoraRepository.findByIdIn(ids);
+            case MONITOR: return monitorRepository.findByIdIn(ids);
+            default: throw new IllegalArgumentException("Tipo de equipamento não suportado: " + tipo);
+        }
     }
 }
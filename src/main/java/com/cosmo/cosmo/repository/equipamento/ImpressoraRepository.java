@@ -16,9 +16,11 @@
 package com.cosmo.cosmo.repository.equipamento;
 
 import com.cosmo.cosmo.entity.equipamento.Impressora;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ImpressoraRepository extends JpaRepository<Impressora, Long> {
@@ -45,4 +47,8 @@ public interface ImpressoraRepository extends JpaRepository<Impressora, Long> {
 
     // Buscar por modelo de suprimento
     List<Impressora> findByModeloSuprimento(String modeloSuprimento);
+
+    // Carga em lote por ids usada na leitura polimórfica em duas fases
+    @EntityGraph(attributePaths = {"empresa", "departamento"})
+    List<Impressora> findByIdIn(Collection<Long> ids);
 }
@@ -16,10 +16,12 @@
 package com.cosmo.cosmo.repository.equipamento;
 
 import com.cosmo.cosmo.entity.equipamento.Monitor;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MonitorRepository extends JpaRepository<Monitor, Long> {
@@ -41,4 +43,8 @@ public interface MonitorRepository extends JpaRepository<Monitor, Long> {
     // Buscar monitores com resolução 4K
     @Query("SELECT m FROM Monitor m WHERE m.resolucao LIKE '%3840x2160%' OR m.resolucao LIKE '%4K%'")
     List<Monitor> findMonitores4K();
+
+    // Carga em lote por ids usada na leitura polimórfica em duas fases
+    @EntityGraph(attributePaths = {"empresa", "departamento"})
+    List<Monitor> findByIdIn(Collection<Long> ids);
 }
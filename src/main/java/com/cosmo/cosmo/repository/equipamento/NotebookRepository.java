@@ -16,10 +16,12 @@
 package com.cosmo.cosmo.repository.equipamento;
 
 import com.cosmo.cosmo.entity.equipamento.Notebook;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NotebookRepository extends JpaRepository<Notebook, Long> {
@@ -40,4 +42,8 @@ public interface NotebookRepository extends JpaRepository<Notebook, Long> {
     // Buscar notebooks sem antivírus
     @Query("SELECT n FROM Notebook n WHERE n.antivirusEnabled = false OR n.antivirusEnabled IS NULL")
     List<Notebook> findWithoutAntivirus();
+
+    // Carga em lote por ids usada na leitura polimórfica em duas fases
+    @EntityGraph(attributePaths = {"empresa", "departamento"})
+    List<Notebook> findByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Período de posse de um histórico: da entrega à devolução (nula enquanto o equipamento está em uso).
+ */
+public interface HistoricoIntervaloProjection {
+
+    Long getId();
+
+    Long getUsuarioId();
+
+    Long getEquipamentoId();
+
+    LocalDateTime getDataEntrega();
+
+    LocalDateTime getDataDevolucao();
+}
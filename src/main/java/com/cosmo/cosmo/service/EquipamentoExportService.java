@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.dto.equipamento.EquipamentoExportDTO;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.EstadoConservacao;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.exception.ValidationException;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do inventário de equipamentos em CSV ou NDJSON. As linhas são lidas em streaming
+ * do banco e escritas direto na saída, uma a uma, sem montar listas em memória.
+ */
+@Service
+public class EquipamentoExportService {
+
+    private static final String[] CABECALHO_CSV = {
+        "id", "tipo", "numeroPatrimonio", "serialNumber", "marca", "modelo", "estadoConservacao",
+        "status", "statusPropriedade", "termoResponsabilidade", "valor", "notaFiscal", "siglaEstado",
+        "empresa", "departamento", "observacoes", "createdAt", "updatedAt"
+    };
+
+    public enum Formato {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extensao;
+
+        Formato(String contentType, String extensao) {
+            this.contentType = contentType;
+            this.extensao = extensao;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getNomeArquivo() {
+            return "equipamentos." + extensao;
+        }
+
+        public static Formato of(String format) {
+            for (Formato formato : values()) {
+                if (formato.name().equalsIgnoreCase(format)) {
+                    return formato;
+                }
+            }
+            throw new ValidationException("Formato de exportação inválido: " + format + ". Use csv ou ndjson");
+        }
+    }
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private EquipamentoService equipamentoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportar(
+            Formato formato,
+            OutputStream outputStream,
+            String serialNumber,
+            String numeroPatrimonio,
+            String marca,
+            String modelo,
+            List<EstadoConservacao> estadoConservacao,
+            List<StatusEquipamento> status,
+            Boolean termoResponsabilidade,
+            String notaFiscal,
+            List<StatusPropriedade> statusPropriedade,
+            Long empresaId,
+            Long departamentoId) throws IOException {
+
+        Specification<Equipamento> spec = equipamentoService.criarSpecificationFiltros(
+            serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+            status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId
+        );
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<EquipamentoExportDTO> linhas = equipamentoRepository.streamExport(spec, Sort.by("id"))) {
+            if (formato == Formato.CSV) {
+                escreverCsv(linhas.iterator(), writer);
+            } else {
+                escreverNdjson(linhas.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void escreverCsv(Iterator<EquipamentoExportDTO> linhas, Writer writer) throws IOException {
+        escreverLinhaCsv(writer, (Object[]) CABECALHO_CSV);
+        while (linhas.hasNext()) {
+            EquipamentoExportDTO linha = linhas.next();
+            escreverLinhaCsv(writer,
+                linha.getId(), linha.getTipo(), linha.getNumeroPatrimonio(), linha.getSerialNumber(),
+                linha.getMarca(), linha.getModelo(), linha.getEstadoConservacao(), linha.getStatus(),
+                linha.getStatusPropriedade(), linha.getTermoResponsabilidade(), linha.getValor(),
+                linha.getNotaFiscal(), linha.getSiglaEstado(), linha.getEmpresaNome(),
+                linha.getDepartamentoNome(), linha.getObservacoes(), linha.getCreatedAt(), linha.getUpdatedAt());
+        }
+    }
+
+    private void escreverLinhaCsv(Writer writer, Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (valores[i] != null) {
+                writer.write(escaparCsv(valores[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private void escreverNdjson(Iterator<EquipamentoExportDTO> linhas, Writer writer) throws IOException {
+        ObjectWriter jsonWriter = objectMapper.writerFor(EquipamentoExportDTO.class);
+        while (linhas.hasNext()) {
+            writer.write(jsonWriter.writeValueAsString(linhas.next()));
+            writer.write('\n');
+        }
+    }
+}
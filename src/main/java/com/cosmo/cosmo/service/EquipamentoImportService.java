@@ -0,0 +1,428 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.dto.equipamento.*;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.equipamento.*;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.cosmo.cosmo.exception.ValidationException;
+import com.cosmo.cosmo.index.EquipamentoTrigramIndex;
+import com.cosmo.cosmo.mapper.EquipamentoMapper;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote de equipamentos de tipos variados.
+ * <p>
+ * A validação é feita por conjunto: empresas, departamentos e cada campo único são consultados
+ * com uma única consulta IN para todas as linhas. As linhas válidas são gravadas em blocos do tamanho
+ * do lote JDBC, cada bloco em sua própria transação; como o id vem de uma sequência, o Hibernate agrupa
+ * os INSERTs da tabela base e das subtabelas. Se o banco recusar um bloco (ex.: duplicidade gravada
+ * em paralelo), as linhas do bloco são regravadas uma a uma para identificar a rejeitada.
+ */
+@Slf4j
+@Service
+public class EquipamentoImportService {
+
+    private static final Map<TipoEquipamento, Class<? extends EquipamentoEscritaDTO>> CREATE_DTOS = new EnumMap<>(Map.of(
+        TipoEquipamento.NOTEBOOK, NotebookCreateDTO.class,
+        TipoEquipamento.DESKTOP, DesktopCreateDTO.class,
+        TipoEquipamento.CELULAR, CelularCreateDTO.class,
+        TipoEquipamento.CHIP, ChipCreateDTO.class,
+        TipoEquipamento.IMPRESSORA, ImpressoraCreateDTO.class,
+        TipoEquipamento.MONITOR, MonitorCreateDTO.class
+    ));
+
+    private static final List<CampoUnico> CAMPOS_UNICOS = List.of(
+        new CampoUnico(Equipamento.class, "numeroPatrimonio", "número de patrimônio", EnumSet.allOf(TipoEquipamento.class)),
+        new CampoUnico(Equipamento.class, "serialNumber", "serial number", EnumSet.allOf(TipoEquipamento.class)),
+        new CampoUnico(Computador.class, "hostname", "hostname", EnumSet.of(TipoEquipamento.NOTEBOOK, TipoEquipamento.DESKTOP)),
+        new CampoUnico(Celular.class, "imei", "IMEI", EnumSet.of(TipoEquipamento.CELULAR)),
+        new CampoUnico(Celular.class, "imei2", "IMEI2", EnumSet.of(TipoEquipamento.CELULAR)),
+        new CampoUnico(Celular.class, "eid", "EID", EnumSet.of(TipoEquipamento.CELULAR)),
+        new CampoUnico(Chip.class, "iccid", "ICCID", EnumSet.of(TipoEquipamento.CHIP)),
+        new CampoUnico(Chip.class, "numeroTelefone", "número de telefone", EnumSet.of(TipoEquipamento.CHIP)),
+        new CampoUnico(Impressora.class, "enderecoIP", "endereço IP", EnumSet.of(TipoEquipamento.IMPRESSORA))
+    );
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private EquipamentoMapper equipamentoMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private InventarioResumoService inventarioResumoService;
+
+    // Opcional: presente apenas com cosmo.equipamento.trigram-index.enabled=true
+    @Autowired(required = false)
+    private EquipamentoTrigramIndex trigramIndex;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLote;
+
+    @Value("${cosmo.equipamento.import.max-linhas:10000}")
+    private int maxLinhas;
+
+    /**
+     * Importa um array JSON em que cada elemento é o *CreateDTO do seu tipo acrescido do campo "tipo".
+     */
+    public EquipamentoImportResultadoDTO importarJson(List<Map<String, Object>> registros) {
+        return importar(registros);
+    }
+
+    /**
+     * Importa um CSV com cabeçalho. As colunas usam os nomes dos campos dos *CreateDTO, mais a coluna "tipo";
+     * células vazias são tratadas como nulas.
+     */
+    public EquipamentoImportResultadoDTO importarCsv(String conteudo) {
+        return importar(lerCsv(conteudo));
+    }
+
+    private EquipamentoImportResultadoDTO importar(List<Map<String, Object>> registros) {
+        if (registros == null || registros.isEmpty()) {
+            throw new ValidationException("Nenhum equipamento informado para importação");
+        }
+        if (registros.size() > maxLinhas) {
+            throw new ValidationException("A importação aceita no máximo " + maxLinhas + " equipamentos por requisição");
+        }
+
+        List<Item> itens = new ArrayList<>(registros.size());
+        for (int i = 0; i < registros.size(); i++) {
+            itens.add(converter(i + 1, registros.get(i)));
+        }
+
+        Map<Long, Empresa> empresas = carregarPorId(itens, Item::getEmpresaId, empresaRepository::findAllById, Empresa::getId);
+        Map<Long, Departamento> departamentos = carregarPorId(itens, Item::getDepartamentoId, departamentoRepository::findAllById, Departamento::getId);
+        for (Item item : validos(itens)) {
+            if (!empresas.containsKey(item.getEmpresaId())) {
+                item.getErros().add("Empresa não encontrada com id: " + item.getEmpresaId());
+            }
+            if (!departamentos.containsKey(item.getDepartamentoId())) {
+                item.getErros().add("Departamento não encontrado com id: " + item.getDepartamentoId());
+            }
+        }
+
+        CAMPOS_UNICOS.forEach(campo -> validarUnicidade(itens, campo));
+
+        List<Item> aGravar = validos(itens);
+        for (int inicio = 0; inicio < aGravar.size(); inicio += tamanhoLote) {
+            gravarBloco(aGravar.subList(inicio, Math.min(inicio + tamanhoLote, aGravar.size())), empresas, departamentos);
+        }
+
+        List<EquipamentoImportResultadoDTO.Linha> linhas = itens.stream()
+            .map(item -> new EquipamentoImportResultadoDTO.Linha(
+                item.getLinha(),
+                item.getTipo(),
+                item.getErros().isEmpty() ? EquipamentoImportResultadoDTO.Situacao.IMPORTADO : EquipamentoImportResultadoDTO.Situacao.REJEITADO,
+                item.getId(),
+                item.getErros()))
+            .collect(Collectors.toList());
+        int importados = (int) itens.stream().filter(item -> item.getErros().isEmpty()).count();
+
+        return new EquipamentoImportResultadoDTO(itens.size(), importados, itens.size() - importados, linhas);
+    }
+
+    private Item converter(int linha, Map<String, Object> registro) {
+        Item item = new Item(linha, registro);
+        Object tipo = registro.get("tipo");
+        if (tipo == null) {
+            item.getErros().add("O campo tipo é obrigatório");
+            return item;
+        }
+        try {
+            item.setTipo(TipoEquipamento.valueOf(tipo.toString().trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            item.getErros().add("Tipo de equipamento inválido: " + tipo);
+            return item;
+        }
+        Class<? extends EquipamentoEscritaDTO> dtoClass = CREATE_DTOS.get(item.getTipo());
+        if (dtoClass == null) {
+            item.getErros().add("Tipo de equipamento não suportado na importação: " + item.getTipo());
+            return item;
+        }
+
+        Map<String, Object> campos = new HashMap<>(registro);
+        campos.remove("tipo");
+        try {
+            item.setDto(objectMapper.convertValue(campos, dtoClass));
+        } catch (IllegalArgumentException e) {
+            item.getErros().add(mensagemConversao(e));
+            return item;
+        }
+
+        if (item.getEmpresaId() == null) {
+            item.getErros().add("O campo empresaId é obrigatório");
+        }
+        if (item.getDepartamentoId() == null) {
+            item.getErros().add("O campo departamentoId é obrigatório");
+        }
+        if (registro.get("status") == null) {
+            item.getErros().add("O campo status é obrigatório");
+        }
+        if (registro.get("estadoConservacao") == null) {
+            item.getErros().add("O campo estadoConservacao é obrigatório");
+        }
+        return item;
+    }
+
+    private String mensagemConversao(IllegalArgumentException e) {
+        if (e.getCause() instanceof JsonMappingException mappingException && !mappingException.getPath().isEmpty()) {
+            String campo = mappingException.getPath().get(mappingException.getPath().size() - 1).getFieldName();
+            return "Valor inválido para o campo " + campo;
+        }
+        return "Registro inválido: " + e.getMessage();
+    }
+
+    private <T> Map<Long, T> carregarPorId(List<Item> itens, Function<Item, Long> id,
+                                          Function<Set<Long>, List<T>> buscar, Function<T, Long> getId) {
+        Set<Long> ids = validos(itens).stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return buscar.apply(ids).stream().collect(Collectors.toMap(getId, Function.identity()));
+    }
+
+    /**
+     * Rejeita valores repetidos dentro do próprio arquivo e valores que já existem no banco.
+     * A comparação usa a chave de unicidade, equivalente à collation das colunas (utf8mb4_unicode_ci).
+     */
+    private void validarUnicidade(List<Item> itens, CampoUnico campo) {
+        Map<String, Item> primeiraOcorrencia = new HashMap<>();
+        for (Item item : validos(itens)) {
+            String valor = item.getTexto(campo.getNome());
+            if (valor == null || !campo.getTipos().contains(item.getTipo())) {
+                continue;
+            }
+            Item anterior = primeiraOcorrencia.putIfAbsent(chaveUnicidade(valor), item);
+            if (anterior != null) {
+                item.getErros().add("O " + campo.getRotulo() + " " + valor + " está repetido na linha " + anterior.getLinha());
+            }
+        }
+
+        List<String> valores = primeiraOcorrencia.values().stream()
+            .map(item -> item.getTexto(campo.getNome()))
+            .collect(Collectors.toList());
+        for (String existente : equipamentoRepository.findValoresExistentes(campo.getEntidade(), campo.getNome(), valores)) {
+            // O banco devolve o valor como está gravado, que pode diferir do arquivo em maiúsculas, acentos ou
+            // espaços finais; uma equivalência que a chave não reproduza fica para a restrição única do banco
+            Item item = primeiraOcorrencia.get(chaveUnicidade(existente));
+            if (item != null) {
+                item.getErros().add("Já existe um equipamento cadastrado com o " + campo.getRotulo() + ": " + existente);
+            }
+        }
+    }
+
+    // Chave equivalente à collation utf8mb4_unicode_ci (PAD SPACE): ignora maiúsculas, acentos e espaços finais
+    static String chaveUnicidade(String valor) {
+        String semAcentos = Normalizer.normalize(valor, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.toLowerCase(Locale.ROOT).replaceAll(" +$", "");
+    }
+
+    /**
+     * Grava um bloco em uma transação. Se o banco recusar o bloco, regrava linha a linha para identificar as
+     * linhas com problema; as falhas são registradas nas linhas, e a importação segue com os blocos seguintes
+     * para que o relatório indique exatamente o que foi gravado.
+     */
+    private void gravarBloco(List<Item> bloco, Map<Long, Empresa> empresas, Map<Long, Departamento> departamentos) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            // O resumo de inventário é atualizado uma vez por bloco, para não interromper o lote de INSERTs a cada linha
+            transactionTemplate.executeWithoutResult(status -> inventarioResumoService.registrar(
+                bloco.stream().map(item -> gravar(item, empresas, departamentos)).collect(Collectors.toList())));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Bloco de {} equipamentos recusado pelo banco; regravando linha a linha", bloco.size(), e);
+            for (Item item : bloco) {
+                item.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                        inventarioResumoService.registrar(gravar(item, empresas, departamentos)));
+                } catch (DataIntegrityViolationException ex) {
+                    item.setId(null);
+                    item.getErros().add("Registro recusado pelo banco por violar uma restrição de unicidade ou integridade");
+                } catch (DataAccessException | TransactionException ex) {
+                    log.warn("Falha ao gravar a linha {} da importação", item.getLinha(), ex);
+                    item.setId(null);
+                    item.getErros().add("Registro não gravado por uma falha no banco de dados; importe a linha novamente");
+                }
+            }
+        }
+    }
+
+    private Equipamento gravar(Item item, Map<Long, Empresa> empresas, Map<Long, Departamento> departamentos) {
+        // A entidade é recriada a cada tentativa: após um rollback, o id já atribuído não é reaproveitável
+        Equipamento equipamento = equipamentoMapper.createEquipamento(item.getDto(), item.getTipo(),
+            empresas.get(item.getEmpresaId()), departamentos.get(item.getDepartamentoId()));
+        equipamento = equipamentoRepository.save(equipamento);
+        item.setId(equipamento.getId());
+
+        if (trigramIndex != null) {
+            trigramIndex.atualizar(equipamento);
+        }
+        return equipamento;
+    }
+
+    private List<Item> validos(List<Item> itens) {
+        return itens.stream().filter(item -> item.getErros().isEmpty()).collect(Collectors.toList());
+    }
+
+    // ==================== LEITURA DE CSV ====================
+
+    /**
+     * Lê um CSV (RFC 4180: separador vírgula, campos entre aspas com "" como escape) e devolve
+     * um mapa por linha, indexado pelos nomes do cabeçalho.
+     */
+    static List<Map<String, Object>> lerCsv(String conteudo) {
+        if (conteudo == null || conteudo.isBlank()) {
+            throw new ValidationException("O arquivo CSV está vazio");
+        }
+        List<List<String>> linhas = separarCsv(conteudo.startsWith("\uFEFF") ? conteudo.substring(1) : conteudo);
+        List<String> cabecalho = linhas.get(0).stream().map(String::trim).collect(Collectors.toList());
+
+        List<Map<String, Object>> registros = new ArrayList<>(linhas.size() - 1);
+        for (List<String> linha : linhas.subList(1, linhas.size())) {
+            if (linha.size() == 1 && linha.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, Object> registro = new HashMap<>();
+            for (int i = 0; i < Math.min(cabecalho.size(), linha.size()); i++) {
+                if (!linha.get(i).isEmpty()) {
+                    registro.put(cabecalho.get(i), linha.get(i));
+                }
+            }
+            registros.add(registro);
+        }
+        return registros;
+    }
+
+    private static List<List<String>> separarCsv(String conteudo) {
+        List<List<String>> linhas = new ArrayList<>();
+        List<String> linha = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < conteudo.length(); i++) {
+            char c = conteudo.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < conteudo.length() && conteudo.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                linha.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < conteudo.length() && conteudo.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                linha.add(campo.toString());
+                campo.setLength(0);
+                linhas.add(linha);
+                linha = new ArrayList<>();
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new ValidationException("CSV inválido: aspas não fechadas");
+        }
+        if (campo.length() > 0 || !linha.isEmpty()) {
+            linha.add(campo.toString());
+            linhas.add(linha);
+        }
+        return linhas;
+    }
+
+    // ==================== ESTRUTURAS AUXILIARES ====================
+
+    @Getter
+    @AllArgsConstructor
+    private static class CampoUnico {
+        private final Class<? extends Equipamento> entidade;
+        private final String nome;
+        private final String rotulo;
+        private final Set<TipoEquipamento> tipos;
+    }
+
+    @Getter
+    @Setter
+    private static class Item {
+        private final int linha;
+        private final Map<String, Object> registro;
+        private final List<String> erros = new ArrayList<>();
+        private TipoEquipamento tipo;
+        private EquipamentoEscritaDTO dto;
+        private Long id;
+
+        Item(int linha, Map<String, Object> registro) {
+            this.linha = linha;
+            this.registro = registro;
+        }
+
+        String getTexto(String campo) {
+            Object valor = registro.get(campo);
+            return valor == null || valor.toString().isBlank() ? null : valor.toString();
+        }
+
+        Long getEmpresaId() {
+            return dto == null ? null : dto.getEmpresaId();
+        }
+
+        Long getDepartamentoId() {
+            return dto == null ? null : dto.getDepartamentoId();
+        }
+    }
+}
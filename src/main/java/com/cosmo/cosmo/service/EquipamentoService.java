@@ -16,31 +16,56 @@
 package com.cosmo.cosmo.service;
 
 import com.cosmo.cosmo.controller.EquipamentoController;
+import com.cosmo.cosmo.dto.geral.KeysetCursor;
 import com.cosmo.cosmo.dto.geral.PagedResponseDTO;
 import com.cosmo.cosmo.dto.departamento.DepartamentoResponseDTO;
 import com.cosmo.cosmo.dto.empresa.EmpresaResponseDTO;
 import com.cosmo.cosmo.dto.equipamento.*;
+import com.cosmo.cosmo.entity.equipamento.Celular;
+import com.cosmo.cosmo.entity.equipamento.Chip;
+import com.cosmo.cosmo.entity.equipamento.Computador;
 import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.entity.equipamento.Impressora;
 import com.cosmo.cosmo.entity.Empresa;
 import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.enums.EstadoConservacao;
 import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
 import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.cosmo.cosmo.index.EquipamentoContadores;
+import com.cosmo.cosmo.index.EquipamentoTrigramIndex;
 import com.cosmo.cosmo.mapper.EquipamentoMapper;
 import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.projection.EquipamentoContagemProjection;
 import com.cosmo.cosmo.repository.equipamento.EquipamentoRepositoryFactory;
 import com.cosmo.cosmo.exception.ResourceNotFoundException;
 import com.cosmo.cosmo.exception.DuplicateResourceException;
+import com.cosmo.cosmo.exception.ValidationException;
 import com.cosmo.cosmo.specification.EquipamentoSpecification;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -63,10 +88,47 @@ public class EquipamentoService {
     @Autowired
     private DepartamentoService departamentoService;
 
+    private static final Map<String, String> ROTULOS_CAMPOS_UNICOS = Map.of(
+        "numeroPatrimonio", "número de patrimônio",
+        "serialNumber", "serial number",
+        "hostname", "hostname",
+        "imei", "IMEI",
+        "imei2", "IMEI2",
+        "eid", "EID",
+        "iccid", "ICCID",
+        "numeroTelefone", "número de telefone",
+        "enderecoIP", "endereço IP"
+    );
+
+    // Coluna presente no nome de cada índice único do banco; imei2 antes de imei para não confundir os dois
+    private static final Map<String, String> CAMPOS_POR_INDICE = new LinkedHashMap<>();
+
+    static {
+        CAMPOS_POR_INDICE.put("numero_patrimonio", "numeroPatrimonio");
+        CAMPOS_POR_INDICE.put("serial_number", "serialNumber");
+        CAMPOS_POR_INDICE.put("hostname", "hostname");
+        CAMPOS_POR_INDICE.put("imei2", "imei2");
+        CAMPOS_POR_INDICE.put("imei", "imei");
+        CAMPOS_POR_INDICE.put("eid", "eid");
+        CAMPOS_POR_INDICE.put("iccid", "iccid");
+        CAMPOS_POR_INDICE.put("numero_telefone", "numeroTelefone");
+        CAMPOS_POR_INDICE.put("endereco_ip", "enderecoIP");
+    }
+
+    @Autowired
+    private EquipamentoContadores contadores;
+
+    @Autowired
+    private InventarioResumoService inventarioResumoService;
+
+    // Opcional: presente apenas com cosmo.equipamento.trigram-index.enabled=true
+    @Autowired(required = false)
+    private EquipamentoTrigramIndex trigramIndex;
+
     public PagedResponseDTO<EquipamentoResponseDTO> findAll(Pageable pageable) {
-        Page<Equipamento> page = equipamentoRepository.findAll(pageable);
+        Page<Long> page = equipamentoRepository.findIds(null, pageable);
 
-        List<EquipamentoResponseDTO> equipamentos = page.getContent()
+        List<EquipamentoResponseDTO> equipamentos = repositoryFactory.findAllByIdsPolimorfico(page.getContent())
                 .stream()
                 .map(equipamento -> {
                     EquipamentoResponseDTO dto = equipamentoMapper.toResponseDTO(equipamento);
@@ -95,10 +157,9 @@ public class EquipamentoService {
     }
 
     public PagedResponseDTO<EquipamentoResponseDTO> findByTipo(TipoEquipamento tipo, Pageable pageable) {
-        Class<? extends Equipamento> entityClass = getEntityClassByTipo(tipo);
-        Page<Equipamento> page = equipamentoRepository.findByTipo(entityClass, pageable);
+        Page<Long> page = equipamentoRepository.findIds(EquipamentoSpecification.porTipo(tipo), pageable);
 
-        List<EquipamentoResponseDTO> equipamentos = page.getContent()
+        List<EquipamentoResponseDTO> equipamentos = repositoryFactory.findAllByIdsPolimorfico(page.getContent())
                 .stream()
                 .map(equipamento -> {
                     EquipamentoResponseDTO dto = equipamentoMapper.toResponseDTO(equipamento);
@@ -133,107 +194,123 @@ public class EquipamentoService {
         return addHateoasLinks(dto);
     }
 
-    // Métodos específicos para criação por tipo de equipamento
+    /**
+     * Versão atual do equipamento para o ETag de {@link #findById(Long)}, lida sem carregar a entidade.
+     */
+    public String getVersao(Long id) {
+        return equipamentoRepository.findVersaoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Equipamento não encontrado com id: " + id));
+    }
+
+    // Métodos específicos para criação por tipo de equipamento (transacionais para gravar o resumo de inventário junto)
+    @Transactional
     public EquipamentoResponseDTO createNotebook(NotebookCreateDTO createDTO) {
         EquipamentoResponseDTO dto = createEquipamento(createDTO, TipoEquipamento.NOTEBOOK);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO createDesktop(DesktopCreateDTO createDTO) {
         EquipamentoResponseDTO dto = createEquipamento(createDTO, TipoEquipamento.DESKTOP);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO createCelular(CelularCreateDTO createDTO) {
         EquipamentoResponseDTO dto = createEquipamento(createDTO, TipoEquipamento.CELULAR);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO createChip(ChipCreateDTO createDTO) {
         EquipamentoResponseDTO dto = createEquipamento(createDTO, TipoEquipamento.CHIP);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO createImpressora(ImpressoraCreateDTO createDTO) {
         EquipamentoResponseDTO dto = createEquipamento(createDTO, TipoEquipamento.IMPRESSORA);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO createMonitor(MonitorCreateDTO createDTO) {
         EquipamentoResponseDTO dto = createEquipamento(createDTO, TipoEquipamento.MONITOR);
         return addHateoasLinks(dto);
     }
 
     // Métodos específicos para atualização por tipo de equipamento
+    @Transactional
     public EquipamentoResponseDTO updateNotebook(Long id, NotebookUpdateDTO updateDTO) {
         EquipamentoResponseDTO dto = updateEquipamento(id, updateDTO);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO updateDesktop(Long id, DesktopUpdateDTO updateDTO) {
         EquipamentoResponseDTO dto = updateEquipamento(id, updateDTO);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO updateCelular(Long id, CelularUpdateDTO updateDTO) {
         EquipamentoResponseDTO dto = updateEquipamento(id, updateDTO);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO updateChip(Long id, ChipUpdateDTO updateDTO) {
         EquipamentoResponseDTO dto = updateEquipamento(id, updateDTO);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO updateImpressora(Long id, ImpressoraUpdateDTO updateDTO) {
         EquipamentoResponseDTO dto = updateEquipamento(id, updateDTO);
         return addHateoasLinks(dto);
     }
 
+    @Transactional
     public EquipamentoResponseDTO updateMonitor(Long id, MonitorUpdateDTO updateDTO) {
         EquipamentoResponseDTO dto = updateEquipamento(id, updateDTO);
         return addHateoasLinks(dto);
     }
 
     // Método genérico para criação
-    private EquipamentoResponseDTO createEquipamento(Object createDTO, TipoEquipamento tipo) {
-        // Validar campos únicos antes de salvar
-        validateUniqueFieldsForCreation(createDTO, tipo);
-
+    private EquipamentoResponseDTO createEquipamento(EquipamentoEscritaDTO createDTO, TipoEquipamento tipo) {
         // Obter empresa e departamento
-        Long empresaId = getEmpresaIdFromDTO(createDTO);
-        Long departamentoId = getDepartamentoIdFromDTO(createDTO);
-
-        Empresa empresa = empresaService.findEntityById(empresaId);
-        Departamento departamento = departamentoService.findEntityById(departamentoId);
+        Empresa empresa = empresaService.findEntityById(createDTO.getEmpresaId());
+        Departamento departamento = departamentoService.findEntityById(createDTO.getDepartamentoId());
 
         // Criar equipamento usando o mapper específico
         Equipamento equipamento = equipamentoMapper.createEquipamento(createDTO, tipo, empresa, departamento);
-        equipamento = equipamentoRepository.save(equipamento);
+
+        // Validar campos únicos antes de salvar
+        validarCamposUnicos(equipamento, null);
+        equipamento = salvar(equipamento);
+        inventarioResumoService.registrar(equipamento);
+        atualizarIndiceBusca(equipamento);
 
         return equipamentoMapper.toResponseDTO(equipamento);
     }
 
     // Método genérico para atualização
-    private EquipamentoResponseDTO updateEquipamento(Long id, Object updateDTO) {
+    private EquipamentoResponseDTO updateEquipamento(Long id, EquipamentoEscritaDTO updateDTO) {
         Equipamento equipamento = equipamentoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Equipamento não encontrado com id: " + id));
 
-        TipoEquipamento tipo = equipamentoMapper.getTipoFromDTO(updateDTO);
-
-        // Validar campos únicos antes de atualizar
-        validateUniqueFieldsForUpdate(updateDTO, tipo, id);
-
         // Obter empresa e departamento
-        Long empresaId = getEmpresaIdFromDTO(updateDTO);
-        Long departamentoId = getDepartamentoIdFromDTO(updateDTO);
-
-        Empresa empresa = empresaService.findEntityById(empresaId);
-        Departamento departamento = departamentoService.findEntityById(departamentoId);
+        Empresa empresa = empresaService.findEntityById(updateDTO.getEmpresaId());
+        Departamento departamento = departamentoService.findEntityById(updateDTO.getDepartamentoId());
 
         // Atualizar usando o mapper específico
         equipamentoMapper.updateEquipamento(updateDTO, equipamento, empresa, departamento);
-        equipamento = equipamentoRepository.save(equipamento);
+
+        // Validar campos únicos antes de atualizar
+        validarCamposUnicos(equipamento, id);
+        equipamento = salvar(equipamento);
+        inventarioResumoService.registrar(equipamento);
+        atualizarIndiceBusca(equipamento);
 
         return equipamentoMapper.toResponseDTO(equipamento);
     }
@@ -242,16 +319,20 @@ public class EquipamentoService {
         Long id = dto.getId();
 
         // Apenas o link para si mesmo (self)
-        dto.add(linkTo(methodOn(EquipamentoController.class).findById(id)).withSelfRel());
+        dto.add(linkTo(methodOn(EquipamentoController.class).findById(id, null)).withSelfRel());
 
         return dto;
     }
 
+    @Transactional
     public void deleteById(Long id) {
-        if (!equipamentoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Equipamento não encontrado com id: " + id);
+        Equipamento equipamento = findEntityById(id);
+        equipamentoRepository.delete(equipamento);
+        inventarioResumoService.remover(equipamento);
+
+        if (trigramIndex != null) {
+            trigramIndex.remover(id);
         }
-        equipamentoRepository.deleteById(id);
     }
 
     // Método auxiliar para outros services
@@ -260,26 +341,35 @@ public class EquipamentoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Equipamento não encontrado com id: " + id));
     }
 
+    /**
+     * Carrega os equipamentos informados em uma única consulta; ids inexistentes são ignorados.
+     */
+    public List<Equipamento> findEntitiesByIds(Collection<Long> ids) {
+        return equipamentoRepository.findAllById(ids);
+    }
+
     public PagedResponseDTO<EquipamentoResponseDTO> filtrarEquipamentos(
             String serialNumber,
             String numeroPatrimonio,
             String marca,
             String modelo,
-            String estadoConservacao,
-            String status,
+            List<EstadoConservacao> estadoConservacao,
+            List<StatusEquipamento> status,
             Boolean termoResponsabilidade,
             String notaFiscal,
-            String statusPropriedade,
+            List<StatusPropriedade> statusPropriedade,
+            Long empresaId,
+            Long departamentoId,
             Pageable pageable) {
 
-        Specification<Equipamento> spec = EquipamentoSpecification.comFiltros(
+        Specification<Equipamento> spec = criarSpecificationFiltros(
             serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
-            status, termoResponsabilidade, notaFiscal, statusPropriedade
+            status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId
         );
 
-        Page<Equipamento> page = equipamentoRepository.findAll(spec, pageable);
+        Page<Long> page = equipamentoRepository.findIds(spec, pageable);
 
-        List<EquipamentoResponseDTO> equipamentos = page.getContent()
+        List<EquipamentoResponseDTO> equipamentos = repositoryFactory.findAllByIdsPolimorfico(page.getContent())
                 .stream()
                 .map(equipamento -> {
                     EquipamentoResponseDTO dto = equipamentoMapper.toResponseDTO(equipamento);
@@ -303,229 +393,503 @@ public class EquipamentoService {
 
         // Adicionar links de navegação HAL
         addPaginationLinksForFiltro(response, pageable, page, serialNumber, numeroPatrimonio,
-            marca, modelo, estadoConservacao, status, termoResponsabilidade, notaFiscal, statusPropriedade);
+            marca, modelo, estadoConservacao, status, termoResponsabilidade, notaFiscal, statusPropriedade,
+            empresaId, departamentoId);
 
         return response;
     }
 
+    // ==================== VISÃO RESUMIDA (view=summary) ====================
+
     /**
-     * Atualiza apenas o status de um equipamento
-     * Método auxiliar para uso do HistoricoService
+     * Lista equipamentos na representação resumida. A página é projetada direto da tabela base,
+     * sem carregar as entidades dos subtipos nem a coluna TEXT de observações.
      */
-    @Transactional
-    public void updateEntityStatus(Long equipamentoId, StatusEquipamento novoStatus) {
-        Equipamento equipamento = equipamentoRepository.findById(equipamentoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Equipamento não encontrado com id: " + equipamentoId));
+    public PagedResponseDTO<EquipamentoResumoDTO> findAllResumo(Pageable pageable) {
+        Page<EquipamentoResumoDTO> page = equipamentoRepository.findResumos(null, pageable);
+
+        PagedResponseDTO<EquipamentoResumoDTO> response = toResumoResponse(page);
+        String[] ordenacao = getOrdenacao(pageable, "id");
+        addPaginationLinksResumo(response, page, numero -> methodOn(EquipamentoController.class)
+                .findAllResumo("summary", numero, pageable.getPageSize(), ordenacao[0], ordenacao[1]));
 
-        equipamento.setStatus(novoStatus);
-        equipamentoRepository.save(equipamento);
+        return response;
     }
 
-    // Métodos para buscar por tipo específico
-    public List<EquipamentoResponseDTO> findByTipo(TipoEquipamento tipo) {
-        Class<? extends Equipamento> entityClass = getEntityClassByTipo(tipo);
-        return equipamentoRepository.findByTipo(entityClass)
-                .stream()
-                .map(equipamento -> {
-                    EquipamentoResponseDTO dto = equipamentoMapper.toResponseDTO(equipamento);
-                    return addHateoasLinks(dto);
-                })
-                .collect(Collectors.toList());
+    /**
+     * Versão resumida de {@link #filtrarEquipamentos}, com os mesmos filtros.
+     */
+    public PagedResponseDTO<EquipamentoResumoDTO> filtrarEquipamentosResumo(
+            String serialNumber,
+            String numeroPatrimonio,
+            String marca,
+            String modelo,
+            List<EstadoConservacao> estadoConservacao,
+            List<StatusEquipamento> status,
+            Boolean termoResponsabilidade,
+            String notaFiscal,
+            List<StatusPropriedade> statusPropriedade,
+            Long empresaId,
+            Long departamentoId,
+            Pageable pageable) {
+
+        Specification<Equipamento> spec = criarSpecificationFiltros(
+            serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+            status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId
+        );
+
+        Page<EquipamentoResumoDTO> page = equipamentoRepository.findResumos(spec, pageable);
+
+        PagedResponseDTO<EquipamentoResumoDTO> response = toResumoResponse(page);
+        String[] ordenacao = getOrdenacao(pageable, "id");
+        addPaginationLinksResumo(response, page, numero -> methodOn(EquipamentoController.class)
+                .filtrarEquipamentosResumo("summary", serialNumber, numeroPatrimonio, marca, modelo,
+                    estadoConservacao, status, termoResponsabilidade, notaFiscal, statusPropriedade,
+                    empresaId, departamentoId, numero, pageable.getPageSize(), ordenacao[0], ordenacao[1]));
+
+        return response;
     }
 
-    public Long countByTipo(TipoEquipamento tipo) {
-        Class<? extends Equipamento> entityClass = getEntityClassByTipo(tipo);
-        return equipamentoRepository.countByTipo(entityClass);
-    }
-
-    // Métodos auxiliares para extrair IDs dos DTOs
-    private Long getEmpresaIdFromDTO(Object dto) {
-        if (dto instanceof NotebookCreateDTO) return ((NotebookCreateDTO) dto).getEmpresaId();
-        if (dto instanceof NotebookUpdateDTO) return ((NotebookUpdateDTO) dto).getEmpresaId();
-        if (dto instanceof DesktopCreateDTO) return ((DesktopCreateDTO) dto).getEmpresaId();
-        if (dto instanceof DesktopUpdateDTO) return ((DesktopUpdateDTO) dto).getEmpresaId();
-        if (dto instanceof CelularCreateDTO) return ((CelularCreateDTO) dto).getEmpresaId();
-        if (dto instanceof CelularUpdateDTO) return ((CelularUpdateDTO) dto).getEmpresaId();
-        if (dto instanceof ChipCreateDTO) return ((ChipCreateDTO) dto).getEmpresaId();
-        if (dto instanceof ChipUpdateDTO) return ((ChipUpdateDTO) dto).getEmpresaId();
-        if (dto instanceof ImpressoraCreateDTO) return ((ImpressoraCreateDTO) dto).getEmpresaId();
-        if (dto instanceof ImpressoraUpdateDTO) return ((ImpressoraUpdateDTO) dto).getEmpresaId();
-        if (dto instanceof MonitorCreateDTO) return ((MonitorCreateDTO) dto).getEmpresaId();
-        if (dto instanceof MonitorUpdateDTO) return ((MonitorUpdateDTO) dto).getEmpresaId();
-        throw new IllegalArgumentException("Tipo de DTO não suportado para extração de empresa ID");
-    }
-
-    private Long getDepartamentoIdFromDTO(Object dto) {
-        if (dto instanceof NotebookCreateDTO) return ((NotebookCreateDTO) dto).getDepartamentoId();
-        if (dto instanceof NotebookUpdateDTO) return ((NotebookUpdateDTO) dto).getDepartamentoId();
-        if (dto instanceof DesktopCreateDTO) return ((DesktopCreateDTO) dto).getDepartamentoId();
-        if (dto instanceof DesktopUpdateDTO) return ((DesktopUpdateDTO) dto).getDepartamentoId();
-        if (dto instanceof CelularCreateDTO) return ((CelularCreateDTO) dto).getDepartamentoId();
-        if (dto instanceof CelularUpdateDTO) return ((CelularUpdateDTO) dto).getDepartamentoId();
-        if (dto instanceof ChipCreateDTO) return ((ChipCreateDTO) dto).getDepartamentoId();
-        if (dto instanceof ChipUpdateDTO) return ((ChipUpdateDTO) dto).getDepartamentoId();
-        if (dto instanceof ImpressoraCreateDTO) return ((ImpressoraCreateDTO) dto).getDepartamentoId();
-        if (dto instanceof ImpressoraUpdateDTO) return ((ImpressoraUpdateDTO) dto).getDepartamentoId();
-        if (dto instanceof MonitorCreateDTO) return ((MonitorCreateDTO) dto).getDepartamentoId();
-        if (dto instanceof MonitorUpdateDTO) return ((MonitorUpdateDTO) dto).getDepartamentoId();
-        throw new IllegalArgumentException("Tipo de DTO não suportado para extração de departamento ID");
+    private PagedResponseDTO<EquipamentoResumoDTO> toResumoResponse(Page<EquipamentoResumoDTO> page) {
+        page.getContent().forEach(resumo -> resumo.add(linkTo(methodOn(EquipamentoController.class)
+                .findById(resumo.getId(), null)).withSelfRel()));
+
+        Map<String, List<EquipamentoResumoDTO>> embedded = new HashMap<>();
+        embedded.put("equipamentos", page.getContent());
+
+        PagedResponseDTO.PageInfo pageInfo = new PagedResponseDTO.PageInfo(
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.getNumber()
+        );
+
+        return new PagedResponseDTO<>(embedded, pageInfo);
     }
 
-    private Class<? extends Equipamento> getEntityClassByTipo(TipoEquipamento tipo) {
-        switch (tipo) {
-            case NOTEBOOK: return com.cosmo.cosmo.entity.equipamento.Notebook.class;
-            case DESKTOP: return com.cosmo.cosmo.entity.equipamento.Desktop.class;
-            case CELULAR: return com.cosmo.cosmo.entity.equipamento.Celular.class;
-            case CHIP: return com.cosmo.cosmo.entity.equipamento.Chip.class;
-            case IMPRESSORA: return com.cosmo.cosmo.entity.equipamento.Impressora.class;
-            case MONITOR: return com.cosmo.cosmo.entity.equipamento.Monitor.class;
-            default: throw new IllegalArgumentException("Tipo de equipamento não suportado: " + tipo);
+    private String[] getOrdenacao(Pageable pageable, String sortByPadrao) {
+        if (!pageable.getSort().iterator().hasNext()) {
+            return new String[] {sortByPadrao, "asc"};
         }
+        Sort.Order order = pageable.getSort().iterator().next();
+        return new String[] {order.getProperty(), order.isAscending() ? "asc" : "desc"};
     }
 
     /**
-     * Valida se os campos únicos não estão duplicados na criação de um novo equipamento
+     * Links de navegação das listagens resumidas; {@code invocacao} monta a chamada do
+     * controller para o número de página informado.
      */
-    private void validateUniqueFieldsForCreation(Object createDTO, TipoEquipamento tipo) {
-        // Validar campos comuns
-        validateCommonUniqueFields(createDTO, null);
+    private void addPaginationLinksResumo(PagedResponseDTO<EquipamentoResumoDTO> response, Page<?> page,
+                                          IntFunction<Object> invocacao) {
+        response.add(linkTo(invocacao.apply(page.getNumber())).withSelfRel());
+        response.add(linkTo(invocacao.apply(0)).withRel("first"));
+        response.add(linkTo(invocacao.apply(Math.max(page.getTotalPages() - 1, 0))).withRel("last"));
 
-        // Validar campos específicos por tipo
-        validateSpecificUniqueFields(createDTO, tipo, null);
+        if (page.hasPrevious()) {
+            response.add(linkTo(invocacao.apply(page.getNumber() - 1)).withRel("prev"));
+        }
+        if (page.hasNext()) {
+            response.add(linkTo(invocacao.apply(page.getNumber() + 1)).withRel("next"));
+        }
     }
 
+    // ==================== PAGINAÇÃO POR CURSOR (KEYSET) ====================
+
     /**
-     * Valida se os campos únicos não estão duplicados na atualização de um equipamento existente
+     * Lista equipamentos usando paginação por cursor. Cada página é buscada com um seek
+     * sobre a tupla (campo de ordenação, id), sem OFFSET, e o COUNT só é executado se solicitado.
      */
-    private void validateUniqueFieldsForUpdate(Object updateDTO, TipoEquipamento tipo, Long equipamentoId) {
-        // Validar campos comuns
-        validateCommonUniqueFields(updateDTO, equipamentoId);
+    public PagedResponseDTO<EquipamentoResponseDTO> findAllKeyset(String after, int size, String sortBy,
+            String sortDir, boolean incluirTotal) {
+        KeysetCursor cursor = resolveCursor(after, size, sortBy, sortDir);
 
-        // Validar campos específicos por tipo
-        validateSpecificUniqueFields(updateDTO, tipo, equipamentoId);
+        List<Equipamento> resultados = buscarPorCursor(EquipamentoSpecification.aposCursor(cursor), cursor, size);
+        Long total = incluirTotal ? equipamentoRepository.count() : null;
+
+        PagedResponseDTO<EquipamentoResponseDTO> response = toKeysetResponse(resultados, size, total);
+        KeysetCursor proximo = proximoCursor(resultados, cursor, size);
+
+        // Adicionar links de navegação HAL
+        response.add(linkTo(methodOn(EquipamentoController.class)
+                .findAllKeyset(after == null ? "" : after, size, cursor.getSortBy(), cursor.getSortDir(), incluirTotal))
+                .withSelfRel());
+        response.add(linkTo(methodOn(EquipamentoController.class)
+                .findAllKeyset("", size, cursor.getSortBy(), cursor.getSortDir(), incluirTotal))
+                .withRel("first"));
+        if (proximo != null) {
+            response.add(linkTo(methodOn(EquipamentoController.class)
+                    .findAllKeyset(proximo.encode(), size, cursor.getSortBy(), cursor.getSortDir(), incluirTotal))
+                    .withRel("next"));
+        }
+
+        return response;
     }
 
-    private void validateCommonUniqueFields(Object dto, Long excludeId) {
-        String numeroPatrimonio = getNumeroPatrimonioFromDTO(dto);
-        String serialNumber = getSerialNumberFromDTO(dto);
+    /**
+     * Versão por cursor de {@link #filtrarEquipamentos}, com os mesmos filtros.
+     */
+    public PagedResponseDTO<EquipamentoResponseDTO> filtrarEquipamentosKeyset(
+            String serialNumber,
+            String numeroPatrimonio,
+            String marca,
+            String modelo,
+            List<EstadoConservacao> estadoConservacao,
+            List<StatusEquipamento> status,
+            Boolean termoResponsabilidade,
+            String notaFiscal,
+            List<StatusPropriedade> statusPropriedade,
+            Long empresaId,
+            Long departamentoId,
+            String after,
+            int size,
+            String sortBy,
+            String sortDir,
+            boolean incluirTotal) {
+
+        KeysetCursor cursor = resolveCursor(after, size, sortBy, sortDir);
+
+        Specification<Equipamento> spec = criarSpecificationFiltros(
+            serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+            status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId
+        );
+
+        List<Equipamento> resultados = buscarPorCursor(spec.and(EquipamentoSpecification.aposCursor(cursor)), cursor, size);
+        Long total = incluirTotal ? equipamentoRepository.count(spec) : null;
 
-        // Validar número de patrimônio
-        if (numeroPatrimonio != null) {
-            boolean exists = excludeId != null
-                ? equipamentoRepository.existsByNumeroPatrimonioAndIdNot(numeroPatrimonio, excludeId)
-                : equipamentoRepository.existsByNumeroPatrimonio(numeroPatrimonio);
+        PagedResponseDTO<EquipamentoResponseDTO> response = toKeysetResponse(resultados, size, total);
+        KeysetCursor proximo = proximoCursor(resultados, cursor, size);
 
-            if (exists) {
-                throw new DuplicateResourceException("Já existe um equipamento cadastrado com o número de patrimônio: " + numeroPatrimonio);
-            }
+        // Adicionar links de navegação HAL
+        response.add(linkTo(methodOn(EquipamentoController.class)
+                .filtrarEquipamentosKeyset(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+                    status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
+                    after == null ? "" : after, size, cursor.getSortBy(), cursor.getSortDir(), incluirTotal))
+                .withSelfRel());
+        response.add(linkTo(methodOn(EquipamentoController.class)
+                .filtrarEquipamentosKeyset(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+                    status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
+                    "", size, cursor.getSortBy(), cursor.getSortDir(), incluirTotal))
+                .withRel("first"));
+        if (proximo != null) {
+            response.add(linkTo(methodOn(EquipamentoController.class)
+                    .filtrarEquipamentosKeyset(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
+                        status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
+                        proximo.encode(), size, cursor.getSortBy(), cursor.getSortDir(), incluirTotal))
+                    .withRel("next"));
         }
 
-        // Validar serial number
-        if (serialNumber != null) {
-            boolean exists = excludeId != null
-                ? equipamentoRepository.existsBySerialNumberAndIdNot(serialNumber, excludeId)
-                : equipamentoRepository.existsBySerialNumber(serialNumber);
+        return response;
+    }
 
-            if (exists) {
-                throw new DuplicateResourceException("Já existe um equipamento cadastrado com o serial number: " + serialNumber);
-            }
+    private KeysetCursor resolveCursor(String after, int size, String sortBy, String sortDir) {
+        if (size < 1) {
+            throw new ValidationException("O tamanho da página deve ser maior que zero");
         }
-    }
 
-    private void validateSpecificUniqueFields(Object dto, TipoEquipamento tipo, Long excludeId) {
-        Class<? extends Equipamento> entityClass = getEntityClassByTipo(tipo);
+        KeysetCursor cursor = (after == null || after.isBlank())
+                ? KeysetCursor.inicial(sortBy, sortDir)
+                : KeysetCursor.decode(after);
 
-        switch (tipo) {
-            case CELULAR:
-                validateCelularUniqueFields(dto, entityClass, excludeId);
-                break;
-            case CHIP:
-                validateChipUniqueFields(dto, entityClass, excludeId);
-                break;
-            case IMPRESSORA:
-                validateImpressoraUniqueFields(dto, entityClass, excludeId);
-                break;
-            case NOTEBOOK:
-            case DESKTOP:
-                validateComputadorUniqueFields(dto, entityClass, excludeId);
-                break;
-            // Monitor não tem campos únicos específicos
+        if (!EquipamentoSpecification.CAMPOS_ORDENACAO_CURSOR.contains(cursor.getSortBy())) {
+            throw new ValidationException("Campo de ordenação não suportado na paginação por cursor: " + cursor.getSortBy()
+                    + ". Use um dos campos: " + EquipamentoSpecification.CAMPOS_ORDENACAO_CURSOR);
         }
+        return cursor;
     }
 
-    private void validateCelularUniqueFields(Object dto, Class<? extends Equipamento> entityClass, Long excludeId) {
-        String imei = getFieldFromDTO(dto, "imei");
-        String imei2 = getFieldFromDTO(dto, "imei2");
-        String eid = getFieldFromDTO(dto, "eid");
+    // Busca um item além do tamanho da página para saber se existe próxima página sem executar COUNT
+    private List<Equipamento> buscarPorCursor(Specification<Equipamento> spec, KeysetCursor cursor, int size) {
+        List<Long> ids = equipamentoRepository.findIds(spec, cursor.toSort(), size + 1);
+        return repositoryFactory.findAllByIdsPolimorfico(ids);
+    }
 
-        if (imei != null && repositoryFactory.existsUniqueField(entityClass, "imei", imei, excludeId)) {
-            throw new DuplicateResourceException("Já existe um equipamento cadastrado com o IMEI: " + imei);
+    private KeysetCursor proximoCursor(List<Equipamento> resultados, KeysetCursor cursor, int size) {
+        if (resultados.size() <= size) {
+            return null;
         }
+        Equipamento ultimo = resultados.get(size - 1);
+        return cursor.proximo(ultimo.getId(), getValorOrdenacao(ultimo, cursor.getSortBy()));
+    }
 
-        if (imei2 != null && repositoryFactory.existsUniqueField(entityClass, "imei2", imei2, excludeId)) {
-            throw new DuplicateResourceException("Já existe um equipamento cadastrado com o IMEI2: " + imei2);
+    private String getValorOrdenacao(Equipamento equipamento, String sortBy) {
+        switch (sortBy) {
+            case "numeroPatrimonio": return equipamento.getNumeroPatrimonio();
+            case "serialNumber": return equipamento.getSerialNumber();
+            case "marca": return equipamento.getMarca();
+            case "modelo": return equipamento.getModelo();
+            default: return null;
         }
+    }
 
-        if (eid != null && repositoryFactory.existsUniqueField(entityClass, "eid", eid, excludeId)) {
-            throw new DuplicateResourceException("Já existe um equipamento cadastrado com o EID: " + eid);
-        }
+    private PagedResponseDTO<EquipamentoResponseDTO> toKeysetResponse(List<Equipamento> resultados, int size, Long total) {
+        List<EquipamentoResponseDTO> equipamentos = resultados
+                .stream()
+                .limit(size)
+                .map(equipamento -> {
+                    EquipamentoResponseDTO dto = equipamentoMapper.toResponseDTO(equipamento);
+                    return addHateoasLinksWithNestedEntities(dto);
+                })
+                .collect(Collectors.toList());
+
+        // Criar o embedded map
+        Map<String, List<EquipamentoResponseDTO>> embedded = new HashMap<>();
+        embedded.put("equipamentos", equipamentos);
+
+        // Sem OFFSET não há número de página; o total só é informado quando solicitado
+        PagedResponseDTO.PageInfo pageInfo = new PagedResponseDTO.PageInfo(
+                size,
+                total,
+                total != null ? (int) Math.ceil((double) total / size) : null,
+                null
+        );
+
+        return new PagedResponseDTO<>(embedded, pageInfo);
     }
 
-    private void validateChipUniqueFields(Object dto, Class<? extends Equipamento> entityClass, Long excludeId) {
-        String iccid = getFieldFromDTO(dto, "iccid");
-        String numeroTelefone = getFieldFromDTO(dto, "numeroTelefone");
+    /**
+     * Monta a especificação dos filtros. Com o índice de trigramas disponível, os filtros por
+     * substring que ele consegue resolver viram um "id IN (...)" no lugar do LIKE '%termo%'.
+     */
+    Specification<Equipamento> criarSpecificationFiltros(
+            String serialNumber,
+            String numeroPatrimonio,
+            String marca,
+            String modelo,
+            List<EstadoConservacao> estadoConservacao,
+            List<StatusEquipamento> status,
+            Boolean termoResponsabilidade,
+            String notaFiscal,
+            List<StatusPropriedade> statusPropriedade,
+            Long empresaId,
+            Long departamentoId) {
+
+        Set<Long> porSerialNumber = resolverNoIndice(EquipamentoTrigramIndex.Campo.SERIAL_NUMBER, serialNumber);
+        Set<Long> porNumeroPatrimonio = resolverNoIndice(EquipamentoTrigramIndex.Campo.NUMERO_PATRIMONIO, numeroPatrimonio);
+        Set<Long> porMarca = resolverNoIndice(EquipamentoTrigramIndex.Campo.MARCA, marca);
+        Set<Long> porModelo = resolverNoIndice(EquipamentoTrigramIndex.Campo.MODELO, modelo);
+        Set<Long> porNotaFiscal = resolverNoIndice(EquipamentoTrigramIndex.Campo.NOTA_FISCAL, notaFiscal);
+
+        Specification<Equipamento> spec = EquipamentoSpecification.comFiltros(
+            porSerialNumber == null ? serialNumber : null,
+            porNumeroPatrimonio == null ? numeroPatrimonio : null,
+            porMarca == null ? marca : null,
+            porModelo == null ? modelo : null,
+            estadoConservacao,
+            status,
+            termoResponsabilidade,
+            porNotaFiscal == null ? notaFiscal : null,
+            statusPropriedade,
+            empresaId,
+            departamentoId
+        );
+
+        Set<Long> candidatos = null;
+        for (Set<Long> ids : Arrays.asList(porSerialNumber, porNumeroPatrimonio, porMarca, porModelo, porNotaFiscal)) {
+            if (ids == null) {
+                continue;
+            }
+            if (candidatos == null) {
+                candidatos = new HashSet<>(ids);
+            } else {
+                candidatos.retainAll(ids);
+            }
+        }
+
+        return candidatos != null ? spec.and(EquipamentoSpecification.comIds(candidatos)) : spec;
+    }
 
-        if (iccid != null && repositoryFactory.existsUniqueField(entityClass, "iccid", iccid, excludeId)) {
-            throw new DuplicateResourceException("Já existe um equipamento cadastrado com o ICCID: " + iccid);
+    private Set<Long> resolverNoIndice(EquipamentoTrigramIndex.Campo campo, String termo) {
+        if (trigramIndex == null || termo == null || termo.trim().isEmpty()) {
+            return null;
         }
+        return trigramIndex.buscar(campo, termo).orElse(null);
+    }
 
-        if (numeroTelefone != null && repositoryFactory.existsUniqueField(entityClass, "numeroTelefone", numeroTelefone, excludeId)) {
-            throw new DuplicateResourceException("Já existe um equipamento cadastrado com o número de telefone: " + numeroTelefone);
+    private void atualizarIndiceBusca(Equipamento equipamento) {
+        if (trigramIndex != null) {
+            trigramIndex.atualizar(equipamento);
         }
     }
 
-    private void validateImpressoraUniqueFields(Object dto, Class<? extends Equipamento> entityClass, Long excludeId) {
-        String enderecoIP = getFieldFromDTO(dto, "enderecoIP");
+    /**
+     * Transição de status sem bloqueio, para uso do HistoricoService: um UPDATE condicional sobre o status
+     * com que o equipamento foi lido. Retorna false, sem alterar nada, quando outra transação mudou o status
+     * nesse intervalo. Na transição vencedora também grava o ponteiro para o histórico ativo, reflete a
+     * mudança nos contadores e no resumo de inventário e relê a entidade.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean compararEAlterarStatus(Equipamento equipamento, StatusEquipamento novoStatus, Long historicoAtualId) {
+        StatusEquipamento statusAtual = equipamento.getStatus();
+        int alterados = equipamentoRepository.compararEAlterarStatus(equipamento.getId(), statusAtual.name(),
+                novoStatus.name(), historicoAtualId, LocalDateTime.now());
+        if (alterados == 0) {
+            return false;
+        }
+
+        contadores.registrar(equipamento.getTipo(), statusAtual, novoStatus);
+        inventarioResumoService.registrarStatus(equipamento, novoStatus);
+        equipamentoRepository.recarregar(equipamento);
+        return true;
+    }
 
-        if (enderecoIP != null && repositoryFactory.existsUniqueField(entityClass, "enderecoIP", enderecoIP, excludeId)) {
-            throw new DuplicateResourceException("Já existe um equipamento cadastrado com o endereço IP: " + enderecoIP);
+    /**
+     * Versão em lote de {@link #compararEAlterarStatus(Equipamento, StatusEquipamento, Long)}: um UPDATE por
+     * combinação de status lido e novo status, em vez de um por equipamento. Retorna false quando outra
+     * transação alterou algum dos equipamentos; quem chama deve então desfazer a transação. O ponteiro para o
+     * histórico ativo é recalculado a partir dos históricos gravados, e as entidades carregadas deixam de ser
+     * gerenciadas: releia-as para montar a resposta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean compararEAlterarStatus(Map<Equipamento, StatusEquipamento> novosStatus) {
+        Map<StatusEquipamento, Map<StatusEquipamento, List<Long>>> idsPorTransicao = new EnumMap<>(StatusEquipamento.class);
+        novosStatus.forEach((equipamento, novoStatus) -> idsPorTransicao
+                .computeIfAbsent(equipamento.getStatus(), status -> new EnumMap<>(StatusEquipamento.class))
+                .computeIfAbsent(novoStatus, status -> new ArrayList<>())
+                .add(equipamento.getId()));
+
+        LocalDateTime agora = LocalDateTime.now();
+        for (Map.Entry<StatusEquipamento, Map<StatusEquipamento, List<Long>>> porStatusAtual : idsPorTransicao.entrySet()) {
+            for (Map.Entry<StatusEquipamento, List<Long>> transicao : porStatusAtual.getValue().entrySet()) {
+                List<Long> ids = transicao.getValue();
+                int alterados = equipamentoRepository.compararEAlterarStatusEmLote(ids,
+                        porStatusAtual.getKey().name(), transicao.getKey().name(), agora);
+                if (alterados != ids.size()) {
+                    return false;
+                }
+            }
         }
+
+        novosStatus.forEach((equipamento, novoStatus) ->
+                contadores.registrar(equipamento.getTipo(), equipamento.getStatus(), novoStatus));
+        inventarioResumoService.registrarStatus(novosStatus);
+        return true;
     }
 
-    private void validateComputadorUniqueFields(Object dto, Class<? extends Equipamento> entityClass, Long excludeId) {
-        String hostname = getFieldFromDTO(dto, "hostname");
+    // Métodos para buscar por tipo específico
+    public List<EquipamentoResponseDTO> findByTipo(TipoEquipamento tipo) {
+        // Consulta direto na entidade do subtipo: apenas junções internas com as tabelas da sua hierarquia
+        Class<? extends Equipamento> entityClass = getEntityClassByTipo(tipo);
+        return repositoryFactory.getRepositoryByType(entityClass).findAll()
+                .stream()
+                .map(equipamento -> {
+                    EquipamentoResponseDTO dto = equipamentoMapper.toResponseDTO(equipamento);
+                    return addHateoasLinks(dto);
+                })
+                .collect(Collectors.toList());
+    }
 
-        if (hostname != null && repositoryFactory.existsUniqueField(entityClass, "hostname", hostname, excludeId)) {
-            throw new DuplicateResourceException("Já existe um equipamento cadastrado com o hostname: " + hostname);
+    public Long countByTipo(TipoEquipamento tipo) {
+        if (contadores.isPronto()) {
+            return contadores.total(tipo);
         }
+        return equipamentoRepository.countByTipo(tipo);
     }
 
-    // Métodos auxiliares para extrair campos dos DTOs
-    private String getNumeroPatrimonioFromDTO(Object dto) {
-        try {
-            return (String) dto.getClass().getMethod("getNumeroPatrimonio").invoke(dto);
-        } catch (Exception e) {
-            return null;
+    /**
+     * Contagens por tipo e status servidas pelos contadores em memória; enquanto eles não
+     * foram carregados, usa a consulta agrupada.
+     */
+    public EquipamentoContagemDTO countByTipoAndStatus() {
+        Map<TipoEquipamento, Map<StatusEquipamento, Long>> porTipoEStatus;
+        if (contadores.isPronto()) {
+            porTipoEStatus = contadores.porTipoEStatus();
+        } else {
+            porTipoEStatus = new EnumMap<>(TipoEquipamento.class);
+            for (TipoEquipamento tipo : TipoEquipamento.values()) {
+                Map<StatusEquipamento, Long> porStatus = new EnumMap<>(StatusEquipamento.class);
+                for (StatusEquipamento status : StatusEquipamento.values()) {
+                    porStatus.put(status, 0L);
+                }
+                porTipoEStatus.put(tipo, porStatus);
+            }
+            for (EquipamentoContagemProjection contagem : equipamentoRepository.countByTipoAndStatus()) {
+                porTipoEStatus.get(contagem.getTipo()).put(contagem.getStatus(), contagem.getTotal());
+            }
         }
+
+        Map<TipoEquipamento, Long> porTipo = new EnumMap<>(TipoEquipamento.class);
+        porTipoEStatus.forEach((tipo, porStatus) ->
+                porTipo.put(tipo, porStatus.values().stream().mapToLong(Long::longValue).sum()));
+        long total = porTipo.values().stream().mapToLong(Long::longValue).sum();
+
+        return new EquipamentoContagemDTO(total, porTipo, porTipoEStatus);
     }
 
-    private String getSerialNumberFromDTO(Object dto) {
-        try {
-            return (String) dto.getClass().getMethod("getSerialNumber").invoke(dto);
-        } catch (Exception e) {
-            return null;
+    private Class<? extends Equipamento> getEntityClassByTipo(TipoEquipamento tipo) {
+        switch (tipo) {
+            case NOTEBOOK: return com.cosmo.cosmo.entity.equipamento.Notebook.class;
+            case DESKTOP: return com.cosmo.cosmo.entity.equipamento.Desktop.class;
+            case CELULAR: return com.cosmo.cosmo.entity.equipamento.Celular.class;
+            case CHIP: return com.cosmo.cosmo.entity.equipamento.Chip.class;
+            case IMPRESSORA: return com.cosmo.cosmo.entity.equipamento.Impressora.class;
+            case MONITOR: return com.cosmo.cosmo.entity.equipamento.Monitor.class;
+            default: throw new IllegalArgumentException("Tipo de equipamento não suportado: " + tipo);
         }
     }
 
-    private String getFieldFromDTO(Object dto, String fieldName) {
+    /**
+     * Verifica os campos únicos do equipamento (comuns e do subtipo) em uma única consulta e
+     * informa todos os conflitos de uma vez. É uma checagem amigável: a garantia final são os
+     * índices únicos do banco, tratados em {@link #salvar(Equipamento)}.
+     */
+    private void validarCamposUnicos(Equipamento equipamento, Long excludeId) {
+        Map<String, String> valores = new LinkedHashMap<>();
+        valores.put("numeroPatrimonio", equipamento.getNumeroPatrimonio());
+        valores.put("serialNumber", equipamento.getSerialNumber());
+        if (equipamento instanceof Computador computador) {
+            valores.put("hostname", computador.getHostname());
+        } else if (equipamento instanceof Celular celular) {
+            valores.put("imei", celular.getImei());
+            valores.put("imei2", celular.getImei2());
+            valores.put("eid", celular.getEid());
+        } else if (equipamento instanceof Chip chip) {
+            valores.put("iccid", chip.getIccid());
+            valores.put("numeroTelefone", chip.getNumeroTelefone());
+        } else if (equipamento instanceof Impressora impressora) {
+            valores.put("enderecoIP", impressora.getEnderecoIP());
+        }
+        valores.values().removeIf(Objects::isNull);
+
+        List<String> conflitos = equipamentoRepository.findCamposEmConflito(valores, excludeId);
+        if (conflitos.isEmpty()) {
+            return;
+        }
+        String campos = conflitos.stream()
+                .distinct()
+                .map(campo -> ROTULOS_CAMPOS_UNICOS.get(campo) + ": " + valores.get(campo))
+                .collect(Collectors.joining(", "));
+        throw new DuplicateResourceException("Já existe um equipamento cadastrado com o " + campos);
+    }
+
+    /**
+     * Grava o equipamento e converte a violação de um índice único em DuplicateResourceException,
+     * cobrindo o caso de outro cadastro com o mesmo valor ter sido gravado depois da validação.
+     */
+    private Equipamento salvar(Equipamento equipamento) {
         try {
-            String methodName = "get" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
-            return (String) dto.getClass().getMethod(methodName).invoke(dto);
-        } catch (Exception e) {
-            return null;
+            return equipamentoRepository.saveAndFlush(equipamento);
+        } catch (DataIntegrityViolationException e) {
+            if (!(e.getCause() instanceof ConstraintViolationException violacao) || !violaUnicidade(violacao)) {
+                throw e;
+            }
+            // Em INSERTs em lote o Hibernate nem sempre identifica o índice; nesse caso vale a mensagem genérica
+            String constraint = violacao.getConstraintName() == null ? "" : violacao.getConstraintName().toLowerCase();
+            for (Map.Entry<String, String> indice : CAMPOS_POR_INDICE.entrySet()) {
+                if (constraint.contains(indice.getKey())) {
+                    throw new DuplicateResourceException("Já existe um equipamento cadastrado com o "
+                            + ROTULOS_CAMPOS_UNICOS.get(indice.getValue()));
+                }
+            }
+            throw new DuplicateResourceException("Já existe um equipamento cadastrado com um dos valores únicos informados");
         }
     }
 
+    // 23505 é o SQLState padrão de chave duplicada, informado mesmo quando o tipo da restrição não é reconhecido
+    private static boolean violaUnicidade(ConstraintViolationException violacao) {
+        return violacao.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                || "23505".equals(violacao.getSQLState());
+    }
+
     // Métodos legados - marcados como deprecated para migração gradual
     @Deprecated
     public EquipamentoResponseDTO save(Object requestDTO) {
@@ -608,8 +972,9 @@ public class EquipamentoService {
     }
 
     private void addPaginationLinksForFiltro(PagedResponseDTO<EquipamentoResponseDTO> response, Pageable pageable, Page<?> page,
-            String serialNumber, String numeroPatrimonio, String marca, String modelo, String estadoConservacao,
-            String status, Boolean termoResponsabilidade, String notaFiscal, String statusPropriedade) {
+            String serialNumber, String numeroPatrimonio, String marca, String modelo, List<EstadoConservacao> estadoConservacao,
+            List<StatusEquipamento> status, Boolean termoResponsabilidade, String notaFiscal,
+            List<StatusPropriedade> statusPropriedade, Long empresaId, Long departamentoId) {
 
         int currentPage = pageable.getPageNumber();
         int pageSize = pageable.getPageSize();
@@ -621,26 +986,26 @@ public class EquipamentoService {
         // Link para a página atual (self)
         response.add(linkTo(methodOn(EquipamentoController.class)
                 .filtrarEquipamentos(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
-                    status, termoResponsabilidade, notaFiscal, statusPropriedade,
+                    status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
                     currentPage, pageSize, sortBy, sortDir)).withSelfRel());
 
         // Link para primeira página
         response.add(linkTo(methodOn(EquipamentoController.class)
                 .filtrarEquipamentos(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
-                    status, termoResponsabilidade, notaFiscal, statusPropriedade,
+                    status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
                     0, pageSize, sortBy, sortDir)).withRel("first"));
 
         // Link para última página
         response.add(linkTo(methodOn(EquipamentoController.class)
                 .filtrarEquipamentos(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
-                    status, termoResponsabilidade, notaFiscal, statusPropriedade,
+                    status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
                     page.getTotalPages() - 1, pageSize, sortBy, sortDir)).withRel("last"));
 
         // Link para página anterior (se não for a primeira)
         if (page.hasPrevious()) {
             response.add(linkTo(methodOn(EquipamentoController.class)
                     .filtrarEquipamentos(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
-                        status, termoResponsabilidade, notaFiscal, statusPropriedade,
+                        status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
                         currentPage - 1, pageSize, sortBy, sortDir)).withRel("prev"));
         }
 
@@ -648,7 +1013,7 @@ public class EquipamentoService {
         if (page.hasNext()) {
             response.add(linkTo(methodOn(EquipamentoController.class)
                     .filtrarEquipamentos(serialNumber, numeroPatrimonio, marca, modelo, estadoConservacao,
-                        status, termoResponsabilidade, notaFiscal, statusPropriedade,
+                        status, termoResponsabilidade, notaFiscal, statusPropriedade, empresaId, departamentoId,
                         currentPage + 1, pageSize, sortBy, sortDir)).withRel("next"));
         }
 
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.repository.HistoricoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+/**
+ * Move para historico_arquivo os históricos encerrados (com devolução) há mais tempo que o horizonte
+ * configurado, mantendo a tabela historico com o período recente, que concentra as consultas.
+ * <p>
+ * Com várias instâncias da aplicação, apenas a que obtiver o lock nomeado {@value #NOME_LOCK} executa; as demais
+ * ignoram a execução agendada. Cada lote é copiado e removido na mesma transação; uma edição concorrente de um
+ * registro do lote aguarda o fim dessa transação e então falha por concorrência otimista, pois a linha já não existe.
+ * Os registros arquivados continuam disponíveis nas listagens com incluirArquivo=true e na consulta por id.
+ */
+@Slf4j
+@Service
+public class HistoricoArquivoService {
+
+    // Lock nomeado do MySQL que impede duas instâncias de arquivarem ao mesmo tempo
+    private static final String NOME_LOCK = "cosmo.historico.arquivo";
+
+    @Autowired
+    private HistoricoRepository historicoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${cosmo.historico.arquivo.horizonte:P12M}")
+    private Period horizonte;
+
+    @Value("${cosmo.historico.arquivo.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Scheduled(cron = "${cosmo.historico.arquivo.cron:0 0 3 * * *}")
+    public void arquivar() {
+        // GET_LOCK pertence à sessão: a conexão que obtém o lock fica reservada até liberá-lo (ou até cair,
+        // quando o MySQL o libera sozinho), e os lotes usam outras conexões do pool
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            if (!obterLock(conexao)) {
+                log.info("Arquivamento de históricos já em execução em outra instância; execução ignorada");
+                return null;
+            }
+            try {
+                arquivarLotes();
+            } finally {
+                liberarLock(conexao);
+            }
+            return null;
+        });
+    }
+
+    private void arquivarLotes() {
+        LocalDateTime corte = LocalDateTime.now().minus(horizonte);
+        long total = 0;
+        int arquivados;
+        do {
+            arquivados = transactionTemplate.execute(status -> arquivarLote(corte));
+            total += arquivados;
+        } while (arquivados == tamanhoLote);
+
+        if (total > 0) {
+            log.info("Arquivados {} históricos devolvidos antes de {}", total, corte);
+        }
+    }
+
+    private static boolean obterLock(Connection conexao) throws SQLException {
+        try (PreparedStatement statement = conexao.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, NOME_LOCK);
+            try (ResultSet resultado = statement.executeQuery()) {
+                return resultado.next() && resultado.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void liberarLock(Connection conexao) throws SQLException {
+        try (PreparedStatement statement = conexao.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, NOME_LOCK);
+            statement.executeQuery().close();
+        }
+    }
+
+    private int arquivarLote(LocalDateTime corte) {
+        List<Long> ids = historicoRepository.findIdsArquivaveis(corte, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        historicoRepository.copiarParaArquivo(ids, LocalDateTime.now());
+        historicoRepository.removerArquivados(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.controller.HistoricoController;
+import com.cosmo.cosmo.dto.historico.DuracaoAnalyticsDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.Historico;
+import com.cosmo.cosmo.entity.HistoricoDuracaoResumo;
+import com.cosmo.cosmo.entity.HistoricoDuracaoResumoId;
+import com.cosmo.cosmo.entity.HistoricoDuracaoResumoId.Medida;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.HistoricoConsolidadoRepository;
+import com.cosmo.cosmo.repository.HistoricoDuracaoResumoRepository;
+import com.cosmo.cosmo.repository.projection.UltimaDevolucaoProjection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+/**
+ * Mantém os histogramas de duração da tabela historico_duracao_resumo e calcula as estatísticas a partir deles.
+ * <p>
+ * Cada devolução soma o empréstimo (da entrega à devolução) e o tempo ocioso que o antecedeu (da devolução
+ * anterior do mesmo equipamento à entrega) à faixa do grupo do equipamento, na transação da devolução.
+ * Como as faixas são as mesmas em todos os grupos, os histogramas podem ser somados em qualquer agrupamento;
+ * o percentil é estimado pela média dos valores da faixa em que cai.
+ */
+@Service
+public class HistoricoDuracaoService {
+
+    // Faixas de um minuto até este valor; acima dele, 2^BITS_SUBFAIXA faixas por potência de 2
+    private static final int FAIXAS_LINEARES = 16;
+    private static final int BITS_SUBFAIXA = 3;
+
+    // Mesma ordem da chave primária de historico_duracao_resumo
+    private static final Comparator<HistoricoDuracaoResumoId> ORDEM_CHAVE = Comparator
+            .comparing((HistoricoDuracaoResumoId id) -> id.getTipoEquipamento().name())
+            .thenComparing(HistoricoDuracaoResumoId::getEmpresaId)
+            .thenComparing(HistoricoDuracaoResumoId::getDepartamentoId)
+            .thenComparing(id -> id.getMedida().name())
+            .thenComparing(HistoricoDuracaoResumoId::getFaixa);
+
+    @Autowired
+    private HistoricoDuracaoResumoRepository historicoDuracaoResumoRepository;
+
+    @Autowired
+    private HistoricoConsolidadoRepository historicoConsolidadoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    /**
+     * Soma aos histogramas os empréstimos devolvidos, com uma gravação por faixa afetada.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarDevolucoes(Collection<Historico> historicos) {
+        Map<Long, LocalDateTime> ultimasDevolucoes = historicoConsolidadoRepository
+                .findUltimaDevolucaoPorEquipamento(
+                        historicos.stream().map(historico -> historico.getEquipamento().getId()).collect(Collectors.toSet()),
+                        historicos.stream().map(Historico::getId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(UltimaDevolucaoProjection::getEquipamentoId, UltimaDevolucaoProjection::getDataDevolucao));
+
+        Map<HistoricoDuracaoResumoId, long[]> variacoes = new HashMap<>();
+        for (Historico historico : historicos) {
+            Equipamento equipamento = historico.getEquipamento();
+            acumular(variacoes, equipamento, Medida.EMPRESTIMO,
+                    minutos(historico.getDataEntrega(), historico.getDataDevolucao()));
+
+            LocalDateTime devolucaoAnterior = ultimasDevolucoes.get(equipamento.getId());
+            if (devolucaoAnterior != null) {
+                acumular(variacoes, equipamento, Medida.OCIOSIDADE, minutos(devolucaoAnterior, historico.getDataEntrega()));
+            }
+        }
+
+        // Em ordem de chave primária: devoluções concorrentes que afetam as mesmas faixas bloqueiam as linhas
+        // na mesma sequência e esperam umas pelas outras em vez de entrar em deadlock
+        List<HistoricoDuracaoResumoId> faixas = new ArrayList<>(variacoes.keySet());
+        faixas.sort(ORDEM_CHAVE);
+        for (HistoricoDuracaoResumoId faixa : faixas) {
+            long[] variacao = variacoes.get(faixa);
+            historicoDuracaoResumoRepository.somar(faixa.getTipoEquipamento().name(), faixa.getEmpresaId(),
+                    faixa.getDepartamentoId(), faixa.getMedida().name(), faixa.getFaixa(), variacao[0], variacao[1]);
+        }
+    }
+
+    /**
+     * Média, p50 e p95 das durações no geral e por tipo, empresa e departamento, lidos dos histogramas:
+     * o custo depende do número de grupos e faixas, não de empréstimos.
+     */
+    @Transactional(readOnly = true)
+    public DuracaoAnalyticsDTO getDuracao() {
+        Histogramas geral = new Histogramas();
+        Map<TipoEquipamento, Histogramas> porTipo = new EnumMap<>(TipoEquipamento.class);
+        Map<Long, Histogramas> porEmpresa = new LinkedHashMap<>();
+        Map<Long, Histogramas> porDepartamento = new LinkedHashMap<>();
+
+        for (HistoricoDuracaoResumo resumo : historicoDuracaoResumoRepository.findAll()) {
+            HistoricoDuracaoResumoId id = resumo.getId();
+            geral.somar(resumo);
+            porTipo.computeIfAbsent(id.getTipoEquipamento(), chave -> new Histogramas()).somar(resumo);
+            porEmpresa.computeIfAbsent(id.getEmpresaId(), chave -> new Histogramas()).somar(resumo);
+            porDepartamento.computeIfAbsent(id.getDepartamentoId(), chave -> new Histogramas()).somar(resumo);
+        }
+
+        Map<Long, String> empresas = empresaRepository.findAllById(porEmpresa.keySet()).stream()
+                .collect(Collectors.toMap(Empresa::getId, Empresa::getNome));
+        Map<Long, String> departamentos = departamentoRepository.findAllById(porDepartamento.keySet()).stream()
+                .collect(Collectors.toMap(Departamento::getId, Departamento::getNome));
+
+        List<DuracaoAnalyticsDTO.Grupo> gruposPorTipo = porTipo.entrySet().stream()
+                .map(entrada -> entrada.getValue().toGrupo(null, entrada.getKey().name()))
+                .collect(Collectors.toList());
+
+        DuracaoAnalyticsDTO dto = new DuracaoAnalyticsDTO(geral.toGrupo(null, null), gruposPorTipo,
+                toGrupos(porEmpresa, empresas::get), toGrupos(porDepartamento, departamentos::get));
+        dto.add(linkTo(methodOn(HistoricoController.class).getDuracaoAnalytics()).withSelfRel());
+        return dto;
+    }
+
+    /**
+     * Índice da faixa de uma duração em minutos. A migração V24 repete este cálculo em SQL na carga inicial;
+     * os valores de referência listados lá são conferidos por HistoricoDuracaoServiceFaixaTest.
+     */
+    static int faixa(long minutos) {
+        if (minutos < FAIXAS_LINEARES) {
+            return (int) minutos;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(minutos);
+        int subfaixa = (int) ((minutos >>> (expoente - BITS_SUBFAIXA)) & ((1 << BITS_SUBFAIXA) - 1));
+        return FAIXAS_LINEARES + (expoente - 4) * (1 << BITS_SUBFAIXA) + subfaixa;
+    }
+
+    private static void acumular(Map<HistoricoDuracaoResumoId, long[]> variacoes, Equipamento equipamento,
+                                 Medida medida, long minutos) {
+        HistoricoDuracaoResumoId id = new HistoricoDuracaoResumoId(equipamento.getTipo(),
+                equipamento.getEmpresa().getId(), equipamento.getDepartamento().getId(), medida, faixa(minutos));
+        long[] variacao = variacoes.computeIfAbsent(id, chave -> new long[2]);
+        variacao[0]++;
+        variacao[1] += minutos;
+    }
+
+    // Minutos completos entre as datas (como TIMESTAMPDIFF); datas fora de ordem contam como zero
+    private static long minutos(LocalDateTime inicio, LocalDateTime fim) {
+        return Math.max(ChronoUnit.MINUTES.between(inicio, fim), 0);
+    }
+
+    // Preenche os nomes e ordena do grupo com mais empréstimos para o com menos
+    private static List<DuracaoAnalyticsDTO.Grupo> toGrupos(Map<Long, Histogramas> grupos, Function<Long, String> nomes) {
+        return grupos.entrySet().stream()
+                .map(entrada -> entrada.getValue().toGrupo(entrada.getKey(), nomes.apply(entrada.getKey())))
+                .sorted(Comparator.comparingLong((DuracaoAnalyticsDTO.Grupo grupo) -> grupo.getEmprestimo().getQuantidade())
+                        .reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Histogramas de empréstimo e de ociosidade de um agrupamento, somados faixa a faixa.
+     */
+    private static class Histogramas {
+
+        private final Histograma emprestimo = new Histograma();
+        private final Histograma ociosidade = new Histograma();
+
+        void somar(HistoricoDuracaoResumo resumo) {
+            Histograma histograma = resumo.getId().getMedida() == Medida.EMPRESTIMO ? emprestimo : ociosidade;
+            histograma.somar(resumo.getId().getFaixa(), resumo.getQuantidade(), resumo.getSomaMinutos());
+        }
+
+        DuracaoAnalyticsDTO.Grupo toGrupo(Long id, String nome) {
+            return new DuracaoAnalyticsDTO.Grupo(id, nome, emprestimo.estatisticas(), ociosidade.estatisticas());
+        }
+    }
+
+    private static class Histograma {
+
+        // faixa -> {quantidade, soma dos minutos}, em ordem crescente de faixa
+        private final SortedMap<Integer, long[]> faixas = new TreeMap<>();
+        private long quantidade;
+        private long somaMinutos;
+
+        void somar(int faixa, long quantidade, long somaMinutos) {
+            long[] valores = faixas.computeIfAbsent(faixa, chave -> new long[2]);
+            valores[0] += quantidade;
+            valores[1] += somaMinutos;
+            this.quantidade += quantidade;
+            this.somaMinutos += somaMinutos;
+        }
+
+        DuracaoAnalyticsDTO.Estatisticas estatisticas() {
+            if (quantidade == 0) {
+                return new DuracaoAnalyticsDTO.Estatisticas(0, null, null, null);
+            }
+            return new DuracaoAnalyticsDTO.Estatisticas(quantidade, Math.round((double) somaMinutos / quantidade),
+                    percentil(0.50), percentil(0.95));
+        }
+
+        // Média dos valores da faixa que contém o registro de posição ceil(p * quantidade)
+        private Long percentil(double p) {
+            long posicao = Math.max((long) Math.ceil(p * quantidade), 1);
+            long acumulado = 0;
+            for (long[] valores : faixas.values()) {
+                acumulado += valores[0];
+                if (acumulado >= posicao) {
+                    return Math.round((double) valores[1] / valores[0]);
+                }
+            }
+            return null;
+        }
+    }
+}
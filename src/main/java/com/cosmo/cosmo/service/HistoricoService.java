@@ -19,12 +19,17 @@ import com.cosmo.cosmo.controller.HistoricoController;
 import com.cosmo.cosmo.dto.geral.PagedResponseDTO;
 import com.cosmo.cosmo.dto.historico.*;
 import com.cosmo.cosmo.entity.Historico;
+import com.cosmo.cosmo.entity.HistoricoBase;
+import com.cosmo.cosmo.entity.HistoricoConsolidado;
 import com.cosmo.cosmo.entity.equipamento.Equipamento;
 import com.cosmo.cosmo.entity.Usuario;
 import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.index.HistoricoIntervaloIndex;
 import com.cosmo.cosmo.mapper.HistoricoMapper;
+import com.cosmo.cosmo.repository.HistoricoConsolidadoRepository;
 import com.cosmo.cosmo.repository.HistoricoRepository;
 import com.cosmo.cosmo.exception.ResourceNotFoundException;
+import com.cosmo.cosmo.exception.ConflictException;
 import com.cosmo.cosmo.exception.ValidationException;
 import com.cosmo.cosmo.specification.HistoricoSpecification;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,14 +37,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -50,6 +60,9 @@ public class HistoricoService {
     @Autowired
     private HistoricoRepository historicoRepository;
 
+    @Autowired
+    private HistoricoConsolidadoRepository historicoConsolidadoRepository;
+
     @Autowired
     private HistoricoMapper historicoMapper;
 
@@ -59,6 +72,13 @@ public class HistoricoService {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private HistoricoDuracaoService historicoDuracaoService;
+
+    // Opcional: presente apenas com cosmo.historico.intervalo-index.enabled=true
+    @Autowired(required = false)
+    private HistoricoIntervaloIndex intervaloIndex;
+
     public PagedResponseDTO<HistoricoResponseDTO> findAll(Pageable pageable) {
         Page<Historico> page = historicoRepository.findAll(pageable);
 
@@ -90,12 +110,16 @@ public class HistoricoService {
         return response;
     }
 
-    public PagedResponseDTO<HistoricoResponseDTO> findByUsuarioId(Long usuarioId, Pageable pageable) {
-        Page<Historico> page = historicoRepository.findByUsuarioId(usuarioId, pageable);
+    /**
+     * Históricos ativos do usuário; os registros arquivados só são lidos com {@code incluirArquivo}.
+     */
+    public PagedResponseDTO<HistoricoResponseDTO> findByUsuarioId(Long usuarioId, boolean incluirArquivo, Pageable pageable) {
+        Page<? extends HistoricoBase> page = incluirArquivo
+                ? historicoConsolidadoRepository.findByUsuarioIdAndStatusRegistroHistoricoTrue(usuarioId, pageable)
+                : historicoRepository.findByUsuarioIdAndStatusRegistroHistoricoTrue(usuarioId, pageable);
 
         List<HistoricoResponseDTO> historicos = page.getContent()
                 .stream()
-                .filter(h -> h.getStatusRegistroHistorico()) // Só históricos ativos
                 .map(historico -> {
                     HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
                     return addHateoasLinksWithNestedEntities(dto);
@@ -117,17 +141,21 @@ public class HistoricoService {
         PagedResponseDTO<HistoricoResponseDTO> response = new PagedResponseDTO<>(embedded, pageInfo);
 
         // Adicionar links de navegação HAL específicos para usuário
-        addPaginationLinksByUsuario(response, pageable, page, usuarioId);
+        addPaginationLinksByUsuario(response, pageable, page, usuarioId, incluirArquivo);
 
         return response;
     }
 
-    public PagedResponseDTO<HistoricoResponseDTO> findByEquipamentoId(Long equipamentoId, Pageable pageable) {
-        Page<Historico> page = historicoRepository.findByEquipamentoId(equipamentoId, pageable);
+    /**
+     * Históricos ativos do equipamento; os registros arquivados só são lidos com {@code incluirArquivo}.
+     */
+    public PagedResponseDTO<HistoricoResponseDTO> findByEquipamentoId(Long equipamentoId, boolean incluirArquivo, Pageable pageable) {
+        Page<? extends HistoricoBase> page = incluirArquivo
+                ? historicoConsolidadoRepository.findByEquipamentoIdAndStatusRegistroHistoricoTrue(equipamentoId, pageable)
+                : historicoRepository.findByEquipamentoIdAndStatusRegistroHistoricoTrue(equipamentoId, pageable);
 
         List<HistoricoResponseDTO> historicos = page.getContent()
                 .stream()
-                .filter(h -> h.getStatusRegistroHistorico()) // Só históricos ativos
                 .map(historico -> {
                     HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
                     return addHateoasLinksWithNestedEntities(dto);
@@ -149,7 +177,7 @@ public class HistoricoService {
         PagedResponseDTO<HistoricoResponseDTO> response = new PagedResponseDTO<>(embedded, pageInfo);
 
         // Adicionar links de navegação HAL específicos para equipamento
-        addPaginationLinksByEquipamento(response, pageable, page, equipamentoId);
+        addPaginationLinksByEquipamento(response, pageable, page, equipamentoId, incluirArquivo);
 
         return response;
     }
@@ -164,13 +192,28 @@ public class HistoricoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca no histórico em uso e, se o registro já foi movido para o arquivo, na visão consolidada.
+     */
     public HistoricoResponseDTO findById(Long id) {
-        Historico historico = historicoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Histórico não encontrado com id: " + id));
+        HistoricoBase historico = historicoRepository.findById(id).orElse(null);
+        if (historico == null) {
+            historico = historicoConsolidadoRepository.findArquivadoById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Histórico não encontrado com id: " + id));
+        }
         HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
         return addHateoasLinks(dto);
     }
 
+    /**
+     * Versão atual do histórico para o ETag de {@link #findById(Long)}, lida sem carregar a entidade.
+     */
+    public String getVersao(Long id) {
+        return historicoRepository.findVersaoById(id)
+                .or(() -> historicoConsolidadoRepository.findVersaoArquivadoById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Histórico não encontrado com id: " + id));
+    }
+
     /**
      * Registra a entrega de um equipamento usando EntregaEquipamentoDTO
      * Abstrai a conversão do DTO e chama o método principal de entrega
@@ -209,12 +252,14 @@ public class HistoricoService {
         Historico historico = historicoMapper.toEntity(requestDTO, equipamento, usuario);
         historico.setDataEntrega(LocalDateTime.now());
 
-        // Alterar status do equipamento para EM_USO
-        equipamento.setStatus(StatusEquipamento.EM_USO);
-
-        // Salvar histórico e atualizar equipamento através do repository
         historico = historicoRepository.save(historico);
-        equipamentoService.updateEntityStatus(equipamento.getId(), StatusEquipamento.EM_USO);
+        atualizarIntervalos(List.of(historico));
+
+        // Alterar status do equipamento para EM_USO apenas se ele não mudou desde a validação acima
+        // (compare-and-set); a entrega concorrente que perder a disputa é desfeita junto com a transação
+        if (!equipamentoService.compararEAlterarStatus(equipamento, StatusEquipamento.EM_USO, historico.getId())) {
+            throw new ConflictException("Equipamento foi alterado por outra operação e não pode ser entregue");
+        }
 
         HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
         return addHateoasLinks(dto);
@@ -251,9 +296,11 @@ public class HistoricoService {
         // Definir status final (padrão: DISPONIVEL)
         StatusEquipamento statusFinal = novoStatus != null ? novoStatus : StatusEquipamento.DISPONIVEL;
 
-        // Salvar histórico e atualizar status do equipamento
+        // Salvar histórico, somar as durações aos histogramas e atualizar status do equipamento
         historico = historicoRepository.save(historico);
-        equipamentoService.updateEntityStatus(historico.getEquipamento().getId(), statusFinal);
+        historicoDuracaoService.registrarDevolucoes(List.of(historico));
+        atualizarIntervalos(List.of(historico));
+        alterarStatusNaDevolucao(historico, statusFinal);
 
         HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
         return addHateoasLinks(dto);
@@ -294,10 +341,13 @@ public class HistoricoService {
         historico.setMotivoCancelamento(motivoCancelamento);
         historico.setDataCancelamento(LocalDateTime.now());
 
-        // Reverter status do equipamento para DISPONIVEL
-        equipamentoService.updateEntityStatus(historico.getEquipamento().getId(), StatusEquipamento.DISPONIVEL);
-
         historico = historicoRepository.save(historico);
+        atualizarIntervalos(List.of(historico));
+
+        // Reverter status do equipamento para DISPONIVEL
+        if (!equipamentoService.compararEAlterarStatus(historico.getEquipamento(), StatusEquipamento.DISPONIVEL, null)) {
+            throw new ConflictException("Equipamento foi alterado por outra operação; o histórico não foi cancelado");
+        }
         HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
         return addHateoasLinks(dto);
     }
@@ -350,9 +400,8 @@ public class HistoricoService {
 
     // Métodos de consulta específicos - atualizados para considerar status ativo
     public List<HistoricoResponseDTO> findByUsuarioId(Long usuarioId) {
-        return historicoRepository.findByUsuarioId(usuarioId)
+        return historicoRepository.findByUsuarioIdAndStatusRegistroHistoricoTrue(usuarioId)
                 .stream()
-                .filter(h -> h.getStatusRegistroHistorico()) // Só históricos ativos
                 .map(historico -> {
                     HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
                     return addHateoasLinks(dto);
@@ -361,9 +410,8 @@ public class HistoricoService {
     }
 
     public List<HistoricoResponseDTO> findByEquipamentoId(Long equipamentoId) {
-        return historicoRepository.findByEquipamentoId(equipamentoId)
+        return historicoRepository.findByEquipamentoIdAndStatusRegistroHistoricoTrue(equipamentoId)
                 .stream()
-                .filter(h -> h.getStatusRegistroHistorico()) // Só históricos ativos
                 .map(historico -> {
                     HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historico);
                     return addHateoasLinks(dto);
@@ -375,59 +423,91 @@ public class HistoricoService {
      * Verifica se um equipamento está atualmente em uso (considera apenas históricos ativos)
      */
     public boolean isEquipamentoEmUso(Long equipamentoId) {
-        List<Historico> historicos = historicoRepository.findByEquipamentoId(equipamentoId);
-        return historicos.stream()
-                .anyMatch(h -> h.getStatusRegistroHistorico() && h.getDataDevolucao() == null);
+        return historicoRepository.existsAtivoByEquipamentoId(equipamentoId);
     }
 
     /**
      * Busca histórico ativo (sem devolução) de um equipamento
      */
     public HistoricoResponseDTO findHistoricoAtivoByEquipamento(Long equipamentoId) {
-        List<Historico> historicos = historicoRepository.findByEquipamentoId(equipamentoId);
-        Historico historicoAtivo = historicos.stream()
-                .filter(h -> h.getStatusRegistroHistorico() && h.getDataDevolucao() == null)
-                .findFirst()
+        Historico historicoAtivo = historicoRepository.findAtivoByEquipamentoId(equipamentoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Nenhum histórico ativo encontrado para o equipamento: " + equipamentoId));
 
         HistoricoResponseDTO dto = historicoMapper.toResponseDTO(historicoAtivo);
         return addHateoasLinks(dto);
     }
 
+    /**
+     * Busca o histórico do usuário que estava com o equipamento no instante informado, incluindo o arquivo.
+     * Usa o índice de períodos de posse quando habilitado e, sem ele, o índice por equipamento e data de entrega.
+     */
+    @Transactional(readOnly = true)
+    public HistoricoResponseDTO findPosseByEquipamento(Long equipamentoId, LocalDateTime instante) {
+        List<HistoricoConsolidado> historicos = Optional.ofNullable(intervaloIndex)
+                .flatMap(indice -> indice.buscarPorEquipamento(equipamentoId, instante))
+                .map(this::findConsolidadosByIds)
+                .orElseGet(() -> historicoConsolidadoRepository.findPosseByEquipamentoId(equipamentoId, instante));
+
+        if (historicos.isEmpty()) {
+            throw new ResourceNotFoundException("Nenhum histórico encontrado para o equipamento " + equipamentoId + " em " + instante);
+        }
+        return addHateoasLinks(historicoMapper.toResponseDTO(historicos.get(0)));
+    }
+
+    /**
+     * Busca os históricos dos equipamentos que estavam com o usuário no instante informado, incluindo o arquivo.
+     * Usa o índice de períodos de posse quando habilitado e, sem ele, o índice por usuário e data de entrega.
+     */
+    @Transactional(readOnly = true)
+    public List<HistoricoResponseDTO> findPosseByUsuario(Long usuarioId, LocalDateTime instante) {
+        List<HistoricoConsolidado> historicos = Optional.ofNullable(intervaloIndex)
+                .flatMap(indice -> indice.buscarPorUsuario(usuarioId, instante))
+                .map(this::findConsolidadosByIds)
+                .orElseGet(() -> historicoConsolidadoRepository.findPosseByUsuarioId(usuarioId, instante));
+
+        return historicos.stream()
+                .map(historico -> addHateoasLinks(historicoMapper.toResponseDTO(historico)))
+                .collect(Collectors.toList());
+    }
+
     // ==================== MÉTODOS PARA OPERAÇÕES MÚLTIPLAS ====================
 
     /**
      * Realiza a entrega de múltiplos equipamentos para um usuário
      * Todos os equipamentos devem estar disponíveis para que a operação seja realizada
      * Se algum equipamento não estiver disponível, toda a transação é cancelada (rollback)
+     * Operação em conjunto: uma consulta para validar, inserção dos históricos em lote e
+     * um UPDATE de status por status de origem, independentemente do número de equipamentos
      */
     @Transactional
     public OperacaoMultiplaResponseDTO entregarMultiplosEquipamentos(EntregaMultiplaDTO entregaMultiplaDTO) {
-        List<HistoricoResponseDTO> historicosProcessados = new ArrayList<>();
         List<String> erros = new ArrayList<>();
 
         // Validar se o usuário existe
         Usuario usuario = usuarioService.findEntityById(entregaMultiplaDTO.getUsuarioId());
 
-        // Pré-validação: verificar se todos os equipamentos estão disponíveis
+        // Pré-validação: carregar todos os equipamentos em uma única consulta (WHERE id IN (...))
+        Map<Long, Equipamento> equipamentosPorId = equipamentoService
+                .findEntitiesByIds(entregaMultiplaDTO.getEquipamentoIds())
+                .stream()
+                .collect(Collectors.toMap(Equipamento::getId, Function.identity()));
+
         List<Equipamento> equipamentos = new ArrayList<>();
+        Set<Long> idsInformados = new HashSet<>();
         for (Long equipamentoId : entregaMultiplaDTO.getEquipamentoIds()) {
-            try {
-                Equipamento equipamento = equipamentoService.findEntityById(equipamentoId);
-
-                // Validar status do equipamento
-                if (equipamento.getStatus() == StatusEquipamento.EM_USO) {
-                    throw new ValidationException("Equipamento ID " + equipamentoId + " já está em uso");
-                }
-
-                if (equipamento.getStatus() == StatusEquipamento.DANIFICADO) {
-                    throw new ValidationException("Equipamento ID " + equipamentoId + " está danificado e não pode ser entregue");
-                }
-
+            Equipamento equipamento = equipamentosPorId.get(equipamentoId);
+
+            if (!idsInformados.add(equipamentoId)) {
+                erros.add("Equipamento ID " + equipamentoId + ": informado mais de uma vez");
+            } else if (equipamento == null) {
+                erros.add("Equipamento ID " + equipamentoId + ": Equipamento não encontrado com id: " + equipamentoId);
+            } else if (equipamento.getStatus() == StatusEquipamento.EM_USO) {
+                erros.add("Equipamento ID " + equipamentoId + ": Equipamento ID " + equipamentoId + " já está em uso");
+            } else if (equipamento.getStatus() == StatusEquipamento.DANIFICADO) {
+                erros.add("Equipamento ID " + equipamentoId + ": Equipamento ID " + equipamentoId
+                        + " está danificado e não pode ser entregue");
+            } else {
                 equipamentos.add(equipamento);
-
-            } catch (Exception e) {
-                erros.add("Equipamento ID " + equipamentoId + ": " + e.getMessage());
             }
         }
 
@@ -437,43 +517,47 @@ public class HistoricoService {
                 entregaMultiplaDTO.getEquipamentoIds().size(),
                 0,
                 erros.size(),
-                historicosProcessados,
+                new ArrayList<>(),
                 erros,
                 "Operação cancelada devido a erros de validação. Nenhum equipamento foi entregue."
             );
             return addHateoasLinksToOperacaoMultipla(resultado, "entrega");
         }
 
-        // Processar cada equipamento individualmente
+        // Criar os históricos de entrega e gravá-los em lote
+        LocalDateTime dataEntrega = LocalDateTime.now();
+        List<Historico> historicos = new ArrayList<>();
+        Map<Equipamento, StatusEquipamento> novosStatus = new LinkedHashMap<>();
         for (Equipamento equipamento : equipamentos) {
-            try {
-                // Criar HistoricoRequestDTO para cada equipamento
-                HistoricoRequestDTO requestDTO = new HistoricoRequestDTO();
-                requestDTO.setEquipamentoId(equipamento.getId());
-                requestDTO.setUsuarioId(entregaMultiplaDTO.getUsuarioId());
-                requestDTO.setObservacoesEntrega(entregaMultiplaDTO.getObservacoesEntrega());
-                requestDTO.setUrlTermoEntrega(entregaMultiplaDTO.getUrlTermoEntrega());
-
-                // Realizar a entrega
-                HistoricoResponseDTO historico = entregarEquipamento(requestDTO);
-                historicosProcessados.add(historico);
-
-            } catch (Exception e) {
-                erros.add("Erro ao entregar equipamento ID " + equipamento.getId() + ": " + e.getMessage());
-            }
+            HistoricoRequestDTO requestDTO = new HistoricoRequestDTO();
+            requestDTO.setEquipamentoId(equipamento.getId());
+            requestDTO.setUsuarioId(entregaMultiplaDTO.getUsuarioId());
+            requestDTO.setObservacoesEntrega(entregaMultiplaDTO.getObservacoesEntrega());
+            requestDTO.setUrlTermoEntrega(entregaMultiplaDTO.getUrlTermoEntrega());
+
+            Historico historico = historicoMapper.toEntity(requestDTO, equipamento, usuario);
+            historico.setDataEntrega(dataEntrega);
+            historicos.add(historico);
+            novosStatus.put(equipamento, StatusEquipamento.EM_USO);
         }
+        historicoRepository.saveAll(historicos);
+        atualizarIntervalos(historicos);
 
-        String observacaoGeral = erros.isEmpty()
-            ? "Todos os equipamentos foram entregues com sucesso"
-            : "Operação concluída com alguns erros";
+        // Alterar o status para EM_USO apenas se nenhum equipamento mudou desde a pré-validação (compare-and-set);
+        // caso contrário, a exceção desfaz toda a transação
+        if (!equipamentoService.compararEAlterarStatus(novosStatus)) {
+            throw new ConflictException("Equipamentos foram alterados por outra operação; nenhum equipamento foi entregue");
+        }
+
+        List<HistoricoResponseDTO> historicosProcessados = toResponseDTOs(historicos);
 
         OperacaoMultiplaResponseDTO resultado = new OperacaoMultiplaResponseDTO(
             entregaMultiplaDTO.getEquipamentoIds().size(),
             historicosProcessados.size(),
-            erros.size(),
+            0,
             historicosProcessados,
             erros,
-            observacaoGeral
+            "Todos os equipamentos foram entregues com sucesso"
         );
 
         return addHateoasLinksToOperacaoMultipla(resultado, "entrega");
@@ -482,104 +566,137 @@ public class HistoricoService {
     /**
      * Realiza a devolução de múltiplos equipamentos
      * Permite observações específicas para cada equipamento e URL única do termo de devolução
+     * Operação em conjunto: uma consulta para validar, atualização dos históricos em lote e
+     * um UPDATE de status por combinação de status de origem e destino
      */
     @Transactional
     public OperacaoMultiplaResponseDTO devolverMultiplosEquipamentos(DevolucaoMultiplaDTO devolucaoMultiplaDTO) {
-        List<HistoricoResponseDTO> historicosProcessados = new ArrayList<>();
         List<String> erros = new ArrayList<>();
+        List<ItemDevolucaoDTO> itens = devolucaoMultiplaDTO.getItensDevolvidos();
 
-        // Pré-validação: verificar se todos os históricos existem e estão válidos para devolução
-        List<Historico> historicos = new ArrayList<>();
-        for (ItemDevolucaoDTO item : devolucaoMultiplaDTO.getItensDevolvidos()) {
-            try {
-                Historico historico = historicoRepository.findById(item.getHistoricoId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Histórico não encontrado com ID: " + item.getHistoricoId()));
-
-                // Validar se já foi devolvido
-                if (historico.getDataDevolucao() != null) {
-                    throw new ValidationException("Histórico ID " + item.getHistoricoId() + " já foi devolvido anteriormente");
-                }
-
-                // Validar se está ativo
-                if (!historico.getStatusRegistroHistorico()) {
-                    throw new ValidationException("Histórico ID " + item.getHistoricoId() + " está cancelado");
-                }
-
-                // Validar se o novo status é válido
-                if (item.getNovoStatus() == StatusEquipamento.EM_USO) {
-                    throw new ValidationException("Não é possível devolver equipamento mantendo status EM_USO");
-                }
-
-                historicos.add(historico);
-
-            } catch (Exception e) {
-                erros.add("Histórico ID " + item.getHistoricoId() + ": " + e.getMessage());
+        // Pré-validação: carregar todos os históricos em uma única consulta (WHERE id IN (...))
+        Map<Long, Historico> historicosPorId = historicoRepository
+                .findAllById(itens.stream().map(ItemDevolucaoDTO::getHistoricoId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Historico::getId, Function.identity()));
+
+        Set<Long> idsInformados = new HashSet<>();
+        for (ItemDevolucaoDTO item : itens) {
+            Long historicoId = item.getHistoricoId();
+            Historico historico = historicosPorId.get(historicoId);
+
+            if (!idsInformados.add(historicoId)) {
+                erros.add("Histórico ID " + historicoId + ": informado mais de uma vez");
+            } else if (historico == null) {
+                erros.add("Histórico ID " + historicoId + ": Histórico não encontrado com ID: " + historicoId);
+            } else if (historico.getDataDevolucao() != null) {
+                erros.add("Histórico ID " + historicoId + ": Histórico ID " + historicoId + " já foi devolvido anteriormente");
+            } else if (!historico.getStatusRegistroHistorico()) {
+                erros.add("Histórico ID " + historicoId + ": Histórico ID " + historicoId + " está cancelado");
+            } else if (item.getNovoStatus() == StatusEquipamento.EM_USO) {
+                erros.add("Histórico ID " + historicoId + ": Não é possível devolver equipamento mantendo status EM_USO");
             }
         }
 
         // Se houver erros na validação, não processa nenhum item
         if (!erros.isEmpty()) {
             OperacaoMultiplaResponseDTO resultado = new OperacaoMultiplaResponseDTO(
-                devolucaoMultiplaDTO.getItensDevolvidos().size(),
+                itens.size(),
                 0,
                 erros.size(),
-                historicosProcessados,
+                new ArrayList<>(),
                 erros,
                 "Operação cancelada devido a erros de validação. Nenhum equipamento foi devolvido."
             );
             return addHateoasLinksToOperacaoMultipla(resultado, "devolucao");
         }
 
-        // Processar cada devolução individualmente
-        for (int i = 0; i < historicos.size(); i++) {
-            Historico historico = historicos.get(i);
-            ItemDevolucaoDTO item = devolucaoMultiplaDTO.getItensDevolvidos().get(i);
-
-            try {
-                // Atualizar dados da devolução
-                historico.setDataDevolucao(LocalDateTime.now());
-                historico.setObservacoesDevolucao(item.getObservacoesDevolucao());
-                historico.setUrlTermoDevolucao(devolucaoMultiplaDTO.getUrlTermoDevolucao()); // URL única para todos
-
-                // Definir status final (padrão: DISPONIVEL)
-                StatusEquipamento statusFinal = item.getNovoStatus() != null ? item.getNovoStatus() : StatusEquipamento.DISPONIVEL;
-
-                // Salvar histórico e atualizar status do equipamento
-                historico = historicoRepository.save(historico);
-                equipamentoService.updateEntityStatus(historico.getEquipamento().getId(), statusFinal);
-
-                HistoricoResponseDTO historicoResponse = historicoMapper.toResponseDTO(historico);
-                historicoResponse = addHateoasLinks(historicoResponse);
-                historicosProcessados.add(historicoResponse);
+        // Registrar as devoluções; as alterações dos históricos são gravadas em lote antes do UPDATE de status
+        LocalDateTime dataDevolucao = LocalDateTime.now();
+        List<Historico> historicos = new ArrayList<>();
+        Map<Equipamento, StatusEquipamento> novosStatus = new LinkedHashMap<>();
+        for (ItemDevolucaoDTO item : itens) {
+            Historico historico = historicosPorId.get(item.getHistoricoId());
+            historico.setDataDevolucao(dataDevolucao);
+            historico.setObservacoesDevolucao(item.getObservacoesDevolucao());
+            historico.setUrlTermoDevolucao(devolucaoMultiplaDTO.getUrlTermoDevolucao()); // URL única para todos
+            historicos.add(historico);
+
+            // Definir status final (padrão: DISPONIVEL)
+            StatusEquipamento statusFinal = item.getNovoStatus() != null ? item.getNovoStatus() : StatusEquipamento.DISPONIVEL;
+            novosStatus.put(historico.getEquipamento(), statusFinal);
+        }
+        historicoDuracaoService.registrarDevolucoes(historicos);
+        atualizarIntervalos(historicos);
 
-            } catch (Exception e) {
-                erros.add("Erro ao devolver equipamento (Histórico ID " + item.getHistoricoId() + "): " + e.getMessage());
-            }
+        // Aplicar os status finais apenas se nenhum equipamento mudou desde a pré-validação (compare-and-set);
+        // caso contrário, a exceção desfaz toda a transação
+        if (!equipamentoService.compararEAlterarStatus(novosStatus)) {
+            throw new ConflictException("Equipamentos foram alterados por outra operação; nenhum equipamento foi devolvido");
         }
 
-        String observacaoGeral = erros.isEmpty()
-            ? "Todos os equipamentos foram devolvidos com sucesso"
-            : "Operação concluída com alguns erros";
+        List<HistoricoResponseDTO> historicosProcessados = toResponseDTOs(historicos);
 
         OperacaoMultiplaResponseDTO resultado = new OperacaoMultiplaResponseDTO(
-            devolucaoMultiplaDTO.getItensDevolvidos().size(),
+            itens.size(),
             historicosProcessados.size(),
-            erros.size(),
+            0,
             historicosProcessados,
             erros,
-            observacaoGeral
+            "Todos os equipamentos foram devolvidos com sucesso"
         );
 
         return addHateoasLinksToOperacaoMultipla(resultado, "devolucao");
     }
 
+    /**
+     * Relê os históricos gravados por uma operação múltipla (uma consulta), na ordem em que foram processados.
+     * Necessário porque o UPDATE de status em lote deixa as entidades carregadas desatualizadas.
+     */
+    private List<HistoricoResponseDTO> toResponseDTOs(List<Historico> historicos) {
+        Map<Long, Historico> atualizados = historicoRepository
+                .findAllById(historicos.stream().map(Historico::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Historico::getId, Function.identity()));
+
+        return historicos.stream()
+                .map(historico -> addHateoasLinks(historicoMapper.toResponseDTO(atualizados.get(historico.getId()))))
+                .collect(Collectors.toList());
+    }
+
+    // Carrega os históricos encontrados no índice de períodos de posse, em ordem de entrega
+    private List<HistoricoConsolidado> findConsolidadosByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return historicoConsolidadoRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(HistoricoConsolidado::getDataEntrega))
+                .collect(Collectors.toList());
+    }
+
+    private void atualizarIntervalos(List<Historico> historicos) {
+        if (intervaloIndex != null) {
+            intervaloIndex.atualizar(historicos);
+        }
+    }
+
+    /**
+     * Aplica o status final da devolução e desfaz o ponteiro do equipamento para o histórico ativo,
+     * com um UPDATE condicional sobre o status lido (compare-and-set).
+     */
+    private void alterarStatusNaDevolucao(Historico historico, StatusEquipamento statusFinal) {
+        if (!equipamentoService.compararEAlterarStatus(historico.getEquipamento(), statusFinal, null)) {
+            throw new ConflictException("Equipamento foi alterado por outra operação; a devolução não foi registrada");
+        }
+    }
+
     // ==================== MÉTODOS AUXILIARES PARA HATEOAS ====================
 
     private HistoricoResponseDTO addHateoasLinks(HistoricoResponseDTO dto) {
         Long id = dto.getId();
 
         // Apenas o link para si mesmo (self)
-        dto.add(linkTo(methodOn(HistoricoController.class).getHistoricoById(id)).withSelfRel());
+        dto.add(linkTo(methodOn(HistoricoController.class).getHistoricoById(id, null)).withSelfRel());
 
         return dto;
     }
@@ -646,7 +763,7 @@ public class HistoricoService {
         }
     }
 
-    private void addPaginationLinksByUsuario(PagedResponseDTO<HistoricoResponseDTO> response, Pageable pageable, Page<?> page, Long usuarioId) {
+    private void addPaginationLinksByUsuario(PagedResponseDTO<HistoricoResponseDTO> response, Pageable pageable, Page<?> page, Long usuarioId, boolean incluirArquivo) {
         int currentPage = pageable.getPageNumber();
         int pageSize = pageable.getPageSize();
         String sortBy = pageable.getSort().iterator().hasNext() ? 
@@ -656,26 +773,26 @@ public class HistoricoService {
 
         // Link para a página atual (self)
         response.add(linkTo(methodOn(HistoricoController.class)
-                .getHistoricosByUsuario(usuarioId, currentPage, pageSize, sortBy, sortDir)).withSelfRel());
+                .getHistoricosByUsuario(usuarioId, currentPage, pageSize, sortBy, sortDir, incluirArquivo)).withSelfRel());
 
         // Link para primeira página
         response.add(linkTo(methodOn(HistoricoController.class)
-                .getHistoricosByUsuario(usuarioId, 0, pageSize, sortBy, sortDir)).withRel("first"));
+                .getHistoricosByUsuario(usuarioId, 0, pageSize, sortBy, sortDir, incluirArquivo)).withRel("first"));
 
         // Link para última página
         response.add(linkTo(methodOn(HistoricoController.class)
-                .getHistoricosByUsuario(usuarioId, page.getTotalPages() - 1, pageSize, sortBy, sortDir)).withRel("last"));
+                .getHistoricosByUsuario(usuarioId, page.getTotalPages() - 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("last"));
 
         // Link para página anterior (se não for a primeira)
         if (page.hasPrevious()) {
             response.add(linkTo(methodOn(HistoricoController.class)
-                    .getHistoricosByUsuario(usuarioId, currentPage - 1, pageSize, sortBy, sortDir)).withRel("prev"));
+                    .getHistoricosByUsuario(usuarioId, currentPage - 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("prev"));
         }
 
         // Link para próxima página (se não for a última)
         if (page.hasNext()) {
             response.add(linkTo(methodOn(HistoricoController.class)
-                    .getHistoricosByUsuario(usuarioId, currentPage + 1, pageSize, sortBy, sortDir)).withRel("next"));
+                    .getHistoricosByUsuario(usuarioId, currentPage + 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("next"));
         }
 
         // Link para todos os históricos
@@ -683,7 +800,7 @@ public class HistoricoService {
                 .getAllHistoricos(0, 10, "id", "desc")).withRel("todos-historicos"));
     }
 
-    private void addPaginationLinksByEquipamento(PagedResponseDTO<HistoricoResponseDTO> response, Pageable pageable, Page<?> page, Long equipamentoId) {
+    private void addPaginationLinksByEquipamento(PagedResponseDTO<HistoricoResponseDTO> response, Pageable pageable, Page<?> page, Long equipamentoId, boolean incluirArquivo) {
         int currentPage = pageable.getPageNumber();
         int pageSize = pageable.getPageSize();
         String sortBy = pageable.getSort().iterator().hasNext() ?
@@ -693,26 +810,26 @@ public class HistoricoService {
 
         // Link para a página atual (self)
         response.add(linkTo(methodOn(HistoricoController.class)
-                .getHistoricosByEquipamento(equipamentoId, currentPage, pageSize, sortBy, sortDir)).withSelfRel());
+                .getHistoricosByEquipamento(equipamentoId, currentPage, pageSize, sortBy, sortDir, incluirArquivo)).withSelfRel());
 
         // Link para primeira página
         response.add(linkTo(methodOn(HistoricoController.class)
-                .getHistoricosByEquipamento(equipamentoId, 0, pageSize, sortBy, sortDir)).withRel("first"));
+                .getHistoricosByEquipamento(equipamentoId, 0, pageSize, sortBy, sortDir, incluirArquivo)).withRel("first"));
 
         // Link para última página
         response.add(linkTo(methodOn(HistoricoController.class)
-                .getHistoricosByEquipamento(equipamentoId, page.getTotalPages() - 1, pageSize, sortBy, sortDir)).withRel("last"));
+                .getHistoricosByEquipamento(equipamentoId, page.getTotalPages() - 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("last"));
 
         // Link para página anterior (se não for a primeira)
         if (page.hasPrevious()) {
             response.add(linkTo(methodOn(HistoricoController.class)
-                    .getHistoricosByEquipamento(equipamentoId, currentPage - 1, pageSize, sortBy, sortDir)).withRel("prev"));
+                    .getHistoricosByEquipamento(equipamentoId, currentPage - 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("prev"));
         }
 
         // Link para próxima página (se não for a última)
         if (page.hasNext()) {
             response.add(linkTo(methodOn(HistoricoController.class)
-                    .getHistoricosByEquipamento(equipamentoId, currentPage + 1, pageSize, sortBy, sortDir)).withRel("next"));
+                    .getHistoricosByEquipamento(equipamentoId, currentPage + 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("next"));
         }
 
         // Link para todos os históricos
@@ -733,15 +850,18 @@ public class HistoricoService {
             LocalDate dataEntregaFim,
             LocalDate dataDevolucaoInicio,
             LocalDate dataDevolucaoFim,
-            String statusRegistroHistorico,
+            Boolean statusRegistroHistorico,
+            boolean incluirArquivo,
             Pageable pageable) {
 
-        Specification<Historico> spec = HistoricoSpecification.comFiltros(
-            usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
-            dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico
-        );
-
-        Page<Historico> page = historicoRepository.findAll(spec, pageable);
+        // Sem incluirArquivo a consulta fica na tabela historico, com apenas o período recente
+        Page<? extends HistoricoBase> page = incluirArquivo
+                ? historicoConsolidadoRepository.findAll(HistoricoSpecification.comFiltros(
+                    usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
+                    dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico), pageable)
+                : historicoRepository.findAll(HistoricoSpecification.comFiltros(
+                    usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
+                    dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico), pageable);
 
         List<HistoricoResponseDTO> historicos = page.getContent()
                 .stream()
@@ -767,14 +887,15 @@ public class HistoricoService {
 
         // Adicionar links de navegação HAL
         addPaginationLinksForFiltro(response, pageable, page, usuarioId, equipamentoId,
-            dataEntregaInicio, dataEntregaFim, dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico);
+            dataEntregaInicio, dataEntregaFim, dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico, incluirArquivo);
 
         return response;
     }
 
     private void addPaginationLinksForFiltro(PagedResponseDTO<HistoricoResponseDTO> response, Pageable pageable, Page<?> page,
             Long usuarioId, Long equipamentoId, LocalDate dataEntregaInicio, LocalDate dataEntregaFim,
-            LocalDate dataDevolucaoInicio, LocalDate dataDevolucaoFim, String statusRegistroHistorico) {
+            LocalDate dataDevolucaoInicio, LocalDate dataDevolucaoFim, Boolean statusRegistroHistorico,
+            boolean incluirArquivo) {
 
         int currentPage = pageable.getPageNumber();
         int pageSize = pageable.getPageSize();
@@ -787,26 +908,26 @@ public class HistoricoService {
         response.add(linkTo(methodOn(HistoricoController.class)
                 .filtrarHistoricos(usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
                     dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico,
-                    currentPage, pageSize, sortBy, sortDir)).withSelfRel());
+                    currentPage, pageSize, sortBy, sortDir, incluirArquivo)).withSelfRel());
 
         // Link para primeira página
         response.add(linkTo(methodOn(HistoricoController.class)
                 .filtrarHistoricos(usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
                     dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico,
-                    0, pageSize, sortBy, sortDir)).withRel("first"));
+                    0, pageSize, sortBy, sortDir, incluirArquivo)).withRel("first"));
 
         // Link para última página
         response.add(linkTo(methodOn(HistoricoController.class)
                 .filtrarHistoricos(usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
                     dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico,
-                    page.getTotalPages() - 1, pageSize, sortBy, sortDir)).withRel("last"));
+                    page.getTotalPages() - 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("last"));
 
         // Link para página anterior (se não for a primeira)
         if (page.hasPrevious()) {
             response.add(linkTo(methodOn(HistoricoController.class)
                     .filtrarHistoricos(usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
                         dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico,
-                        currentPage - 1, pageSize, sortBy, sortDir)).withRel("prev"));
+                        currentPage - 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("prev"));
         }
 
         // Link para próxima página (se não for a última)
@@ -814,7 +935,7 @@ public class HistoricoService {
             response.add(linkTo(methodOn(HistoricoController.class)
                     .filtrarHistoricos(usuarioId, equipamentoId, dataEntregaInicio, dataEntregaFim,
                         dataDevolucaoInicio, dataDevolucaoFim, statusRegistroHistorico,
-                        currentPage + 1, pageSize, sortBy, sortDir)).withRel("next"));
+                        currentPage + 1, pageSize, sortBy, sortDir, incluirArquivo)).withRel("next"));
         }
 
         // Link para todos os históricos
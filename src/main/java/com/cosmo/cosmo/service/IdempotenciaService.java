@@ -0,0 +1,255 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.entity.RespostaIdempotente;
+import com.cosmo.cosmo.exception.ConflictException;
+import com.cosmo.cosmo.repository.RespostaIdempotenteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * Garante que uma operação enviada com Idempotency-Key seja executada uma única vez e que as novas
+ * tentativas recebam a resposta gravada.
+ * <p>
+ * Antes de executar, a chave é reservada com um INSERT na tabela resposta_idempotente; ao concluir com
+ * sucesso a resposta é gravada na mesma linha e mantida também em um cache em memória limitado, ambos com
+ * a retenção configurada. Requisições concorrentes com a mesma chave aguardam a execução em andamento: na
+ * mesma instância pelo término dela, em outra instância consultando a tabela, até o tempo máximo de execução.
+ * A reserva vale pelo tempo máximo de execução e é prorrogada periodicamente enquanto a operação executa, de
+ * modo que só expira (e pode ser assumida por outra tentativa) se a instância parar durante a execução.
+ * Respostas de erro não são gravadas, e a chave fica livre para uma nova tentativa.
+ */
+@Slf4j
+@Service
+public class IdempotenciaService {
+
+    // Intervalo entre as consultas enquanto outra instância executa a mesma chave
+    private static final long INTERVALO_CONSULTA_MS = 200;
+
+    @Autowired
+    private RespostaIdempotenteRepository respostaIdempotenteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cosmo.idempotencia.retencao:PT24H}")
+    private Duration retencao;
+
+    @Value("${cosmo.idempotencia.tempo-execucao:PT1M}")
+    private Duration tempoExecucao;
+
+    @Value("${cosmo.idempotencia.cache.max-entradas:10000}")
+    private long maxEntradasCache;
+
+    private Cache<String, RespostaIdempotente> respostas;
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> execucoesLocais = new ConcurrentHashMap<>();
+
+    // Prorroga as reservas em execução; executor próprio para não depender das tarefas agendadas da aplicação
+    private final ScheduledExecutorService renovacoes = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotencia-renovacao").daemon().factory());
+
+    /**
+     * Execução da operação; retorna a resposta a gravar, ou null quando ela não deve ser reaproveitada (erro).
+     */
+    @FunctionalInterface
+    public interface Execucao {
+        RespostaIdempotente executar() throws IOException, ServletException;
+    }
+
+    @PostConstruct
+    void criarCache() {
+        respostas = Caffeine.newBuilder()
+                .maximumSize(maxEntradasCache)
+                .expireAfterWrite(retencao)
+                .build();
+    }
+
+    @PreDestroy
+    void encerrarRenovacoes() {
+        renovacoes.shutdownNow();
+    }
+
+    /**
+     * Executa a operação uma única vez para o identificador. Retorna a resposta de uma execução anterior ou
+     * concorrente já concluída, ou vazio quando a operação foi executada nesta chamada.
+     *
+     * @throws ConflictException se outra execução com o mesmo identificador não terminar no tempo máximo
+     */
+    public Optional<RespostaIdempotente> executar(String id, Execucao execucao) throws IOException, ServletException {
+        LocalDateTime limite = LocalDateTime.now().plus(tempoExecucao);
+        while (true) {
+            RespostaIdempotente concluida = buscarConcluida(id);
+            if (concluida != null) {
+                return Optional.of(concluida);
+            }
+
+            CompletableFuture<Void> propria = new CompletableFuture<>();
+            CompletableFuture<Void> emAndamento = execucoesLocais.putIfAbsent(id, propria);
+            if (emAndamento != null) {
+                aguardar(emAndamento, limite);
+                continue;
+            }
+
+            try {
+                if (reservar(id)) {
+                    executarReservada(id, execucao);
+                    return Optional.empty();
+                }
+            } finally {
+                execucoesLocais.remove(id, propria);
+                propria.complete(null);
+            }
+
+            // Reservada por outra instância: consulta a tabela de novo após um intervalo
+            esperarIntervalo(limite);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cosmo.idempotencia.limpeza-intervalo:PT1H}",
+               initialDelayString = "${cosmo.idempotencia.limpeza-intervalo:PT1H}")
+    public void removerExpiradas() {
+        Integer removidas = transactionTemplate.execute(status ->
+                respostaIdempotenteRepository.removerExpiradas(LocalDateTime.now()));
+        if (removidas != null && removidas > 0) {
+            log.info("Removidas {} respostas idempotentes expiradas", removidas);
+        }
+    }
+
+    private void executarReservada(String id, Execucao execucao) throws IOException, ServletException {
+        // Prorroga a reserva a cada terço da validade, bem antes de ela expirar
+        long intervalo = Math.max(tempoExecucao.toMillis() / 3, 1);
+        ScheduledFuture<?> renovacao = renovacoes.scheduleAtFixedRate(() -> renovar(id),
+                intervalo, intervalo, TimeUnit.MILLISECONDS);
+        RespostaIdempotente resposta = null;
+        try {
+            resposta = execucao.executar();
+        } finally {
+            renovacao.cancel(false);
+            if (resposta != null) {
+                concluir(id, resposta);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> respostaIdempotenteRepository.liberar(id));
+            }
+        }
+    }
+
+    private void renovar(String id) {
+        try {
+            Integer renovadas = transactionTemplate.execute(status ->
+                    respostaIdempotenteRepository.renovar(id, LocalDateTime.now().plus(tempoExecucao)));
+            if (renovadas == null || renovadas == 0) {
+                log.warn("Reserva da chave idempotente {} não pôde ser prorrogada; ela não pertence mais a esta execução", id);
+            }
+        } catch (RuntimeException e) {
+            // Uma exceção cancelaria as próximas renovações; a seguinte tenta de novo antes de a reserva expirar
+            log.warn("Falha ao prorrogar a reserva da chave idempotente {}", id, e);
+        }
+    }
+
+    private RespostaIdempotente buscarConcluida(String id) {
+        RespostaIdempotente resposta = respostas.getIfPresent(id);
+        if (resposta == null) {
+            resposta = respostaIdempotenteRepository.findById(id)
+                    .filter(registro -> RespostaIdempotente.CONCLUIDA.equals(registro.getSituacao()))
+                    .orElse(null);
+            if (resposta != null) {
+                respostas.put(id, resposta);
+            }
+        }
+        return resposta != null && resposta.getExpiraEm().isAfter(LocalDateTime.now()) ? resposta : null;
+    }
+
+    // Reserva a chave; uma reserva ou resposta expirada (instância que parou durante a execução) é substituída
+    private boolean reservar(String id) {
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status ->
+                    respostaIdempotenteRepository.reservar(id, agora, agora.plus(tempoExecucao)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            Integer removidas = transactionTemplate.execute(status ->
+                    respostaIdempotenteRepository.removerSeExpirada(id, LocalDateTime.now()));
+            return removidas != null && removidas > 0 && reservar(id);
+        }
+    }
+
+    private void concluir(String id, RespostaIdempotente resposta) {
+        resposta.setId(id);
+        resposta.setSituacao(RespostaIdempotente.CONCLUIDA);
+        resposta.setCriadoEm(LocalDateTime.now());
+        resposta.setExpiraEm(resposta.getCriadoEm().plus(retencao));
+
+        Integer atualizadas = transactionTemplate.execute(status -> respostaIdempotenteRepository.concluir(id,
+                resposta.getHashRequisicao(), resposta.getStatusHttp(), resposta.getContentType(),
+                resposta.getCorpo(), resposta.getExpiraEm()));
+        if (atualizadas == null || atualizadas == 0) {
+            log.warn("Reserva da chave idempotente {} expirou antes da conclusão; a resposta não foi gravada", id);
+            return;
+        }
+        respostas.put(id, resposta);
+    }
+
+    private static void aguardar(CompletableFuture<Void> execucao, LocalDateTime limite) {
+        long restante = Duration.between(LocalDateTime.now(), limite).toMillis();
+        if (restante <= 0) {
+            throw emProcessamento();
+        }
+        try {
+            execucao.get(restante, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw emProcessamento();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw emProcessamento();
+        } catch (ExecutionException e) {
+            // A falha da execução concorrente é tratada pela requisição que a executou
+        }
+    }
+
+    private static void esperarIntervalo(LocalDateTime limite) {
+        if (LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(INTERVALO_CONSULTA_MS)).isAfter(limite)) {
+            throw emProcessamento();
+        }
+        try {
+            Thread.sleep(INTERVALO_CONSULTA_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw emProcessamento();
+        }
+    }
+
+    private static ConflictException emProcessamento() {
+        return new ConflictException("Requisição com a mesma Idempotency-Key ainda em processamento; tente novamente mais tarde");
+    }
+}
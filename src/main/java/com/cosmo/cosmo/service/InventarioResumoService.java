@@ -0,0 +1,237 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.controller.DashboardController;
+import com.cosmo.cosmo.dto.dashboard.InventarioDashboardDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.InventarioResumo;
+import com.cosmo.cosmo.entity.InventarioResumoId;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.InventarioResumoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+/**
+ * Mantém a tabela inventario_resumo e monta o dashboard de inventário a partir dela.
+ * <p>
+ * As variações são gravadas na transação de quem altera o equipamento (EquipamentoService, e por meio
+ * dele o HistoricoService), de modo que o resumo é confirmado ou desfeito junto com a escrita.
+ * A comparação é feita com o estado guardado no próprio equipamento ao ser carregado, por isso
+ * alterações feitas na entidade antes da chamada também são contadas.
+ */
+@Service
+public class InventarioResumoService {
+
+    // Mesma ordem da chave primária de inventario_resumo
+    private static final Comparator<InventarioResumoId> ORDEM_CHAVE = Comparator
+            .comparing(InventarioResumoId::getEmpresaId)
+            .thenComparing(InventarioResumoId::getDepartamentoId)
+            .thenComparing(id -> id.getStatus().name())
+            .thenComparing(InventarioResumoId::getStatusPropriedade);
+
+    @Autowired
+    private InventarioResumoRepository inventarioResumoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    /**
+     * Reflete no resumo a inclusão ou alteração de um equipamento já gravado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Equipamento equipamento) {
+        registrar(List.of(equipamento));
+    }
+
+    /**
+     * Reflete no resumo a inclusão ou alteração de vários equipamentos, com uma gravação por grupo afetado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Collection<? extends Equipamento> equipamentos) {
+        Map<InventarioResumoId, Variacao> variacoes = new HashMap<>();
+        for (Equipamento equipamento : equipamentos) {
+            InventarioResumoId anterior = equipamento.getResumoRegistrado();
+            BigDecimal valorAnterior = valor(equipamento.getValorRegistrado());
+            equipamento.marcarResumoRegistrado();
+
+            if (anterior != null) {
+                variacoes.computeIfAbsent(anterior, chave -> new Variacao()).somar(-1, valorAnterior.negate());
+            }
+            variacoes.computeIfAbsent(equipamento.getResumoRegistrado(), chave -> new Variacao())
+                    .somar(1, valor(equipamento.getValorRegistrado()));
+        }
+
+        gravar(variacoes);
+    }
+
+    /**
+     * Reflete no resumo uma mudança de status gravada por UPDATE direto, fora do ciclo de vida da entidade;
+     * o equipamento ainda traz o estado com que foi carregado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarStatus(Equipamento equipamento, StatusEquipamento novoStatus) {
+        registrarStatus(Map.of(equipamento, novoStatus));
+    }
+
+    /**
+     * Reflete no resumo as mudanças de status gravadas por UPDATE em lote, com uma gravação por grupo afetado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarStatus(Map<? extends Equipamento, StatusEquipamento> novosStatus) {
+        Map<InventarioResumoId, Variacao> variacoes = new HashMap<>();
+        novosStatus.forEach((equipamento, novoStatus) -> {
+            InventarioResumoId anterior = equipamento.getResumoRegistrado();
+            if (anterior == null || anterior.getStatus() == novoStatus) {
+                return;
+            }
+            InventarioResumoId novo = new InventarioResumoId(anterior.getEmpresaId(), anterior.getDepartamentoId(),
+                    novoStatus, anterior.getStatusPropriedade());
+            BigDecimal valor = valor(equipamento.getValorRegistrado());
+            variacoes.computeIfAbsent(anterior, chave -> new Variacao()).somar(-1, valor.negate());
+            variacoes.computeIfAbsent(novo, chave -> new Variacao()).somar(1, valor);
+        });
+
+        gravar(variacoes);
+    }
+
+    /**
+     * Reflete no resumo a exclusão de um equipamento, pelo estado em que ele foi carregado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remover(Equipamento equipamento) {
+        InventarioResumoId anterior = equipamento.getResumoRegistrado();
+        if (anterior != null) {
+            somar(anterior, -1, valor(equipamento.getValorRegistrado()).negate());
+        }
+    }
+
+    /**
+     * Totais do inventário lidos do resumo: o custo depende do número de grupos, não de equipamentos.
+     */
+    @Transactional(readOnly = true)
+    public InventarioDashboardDTO getInventario() {
+        List<InventarioResumo> grupos = inventarioResumoRepository.findGruposComEquipamentos();
+
+        Map<StatusEquipamento, Long> porStatus = new EnumMap<>(StatusEquipamento.class);
+        Map<String, Long> porStatusPropriedade = new LinkedHashMap<>();
+        for (StatusEquipamento status : StatusEquipamento.values()) {
+            porStatus.put(status, 0L);
+        }
+        for (StatusPropriedade statusPropriedade : StatusPropriedade.values()) {
+            porStatusPropriedade.put(statusPropriedade.name(), 0L);
+        }
+        porStatusPropriedade.put(InventarioResumoId.PROPRIEDADE_NAO_INFORMADA, 0L);
+
+        Map<Long, InventarioDashboardDTO.Grupo> porEmpresa = new LinkedHashMap<>();
+        Map<Long, InventarioDashboardDTO.Grupo> porDepartamento = new LinkedHashMap<>();
+        long totalEquipamentos = 0;
+        BigDecimal valorTotal = BigDecimal.ZERO;
+
+        for (InventarioResumo grupo : grupos) {
+            InventarioResumoId id = grupo.getId();
+            long quantidade = grupo.getQuantidade();
+            BigDecimal valor = grupo.getValorTotal();
+
+            totalEquipamentos += quantidade;
+            valorTotal = valorTotal.add(valor);
+            porStatus.merge(id.getStatus(), quantidade, Long::sum);
+            porStatusPropriedade.merge(id.getStatusPropriedade(), quantidade, Long::sum);
+            acumular(porEmpresa, id.getEmpresaId(), quantidade, valor);
+            acumular(porDepartamento, id.getDepartamentoId(), quantidade, valor);
+        }
+
+        Map<Long, String> empresas = empresaRepository.findAllById(porEmpresa.keySet()).stream()
+                .collect(Collectors.toMap(Empresa::getId, Empresa::getNome));
+        Map<Long, String> departamentos = departamentoRepository.findAllById(porDepartamento.keySet()).stream()
+                .collect(Collectors.toMap(Departamento::getId, Departamento::getNome));
+
+        InventarioDashboardDTO dto = new InventarioDashboardDTO(totalEquipamentos, valorTotal, porStatus,
+                porStatusPropriedade, ordenar(porEmpresa, empresas::get), ordenar(porDepartamento, departamentos::get));
+        dto.add(linkTo(methodOn(DashboardController.class).getInventario()).withSelfRel());
+        return dto;
+    }
+
+    /**
+     * Grava as variações em ordem de chave primária: transações concorrentes que afetam os mesmos grupos
+     * bloqueiam as linhas na mesma sequência e esperam umas pelas outras em vez de entrar em deadlock.
+     */
+    private void gravar(Map<InventarioResumoId, Variacao> variacoes) {
+        List<InventarioResumoId> grupos = new ArrayList<>(variacoes.keySet());
+        grupos.sort(ORDEM_CHAVE);
+        for (InventarioResumoId grupo : grupos) {
+            Variacao variacao = variacoes.get(grupo);
+            if (variacao.quantidade != 0 || variacao.valor.signum() != 0) {
+                somar(grupo, variacao.quantidade, variacao.valor);
+            }
+        }
+    }
+
+    private void somar(InventarioResumoId grupo, long quantidade, BigDecimal valor) {
+        inventarioResumoRepository.somar(grupo.getEmpresaId(), grupo.getDepartamentoId(), grupo.getStatus().name(),
+                grupo.getStatusPropriedade(), quantidade, valor);
+    }
+
+    private static void acumular(Map<Long, InventarioDashboardDTO.Grupo> grupos, Long id, long quantidade, BigDecimal valor) {
+        InventarioDashboardDTO.Grupo grupo = grupos.computeIfAbsent(id,
+                chave -> new InventarioDashboardDTO.Grupo(chave, null, 0, BigDecimal.ZERO));
+        grupo.setQuantidade(grupo.getQuantidade() + quantidade);
+        grupo.setValorTotal(grupo.getValorTotal().add(valor));
+    }
+
+    // Preenche os nomes e ordena do grupo com mais equipamentos para o com menos
+    private static List<InventarioDashboardDTO.Grupo> ordenar(Map<Long, InventarioDashboardDTO.Grupo> grupos,
+                                                              Function<Long, String> nomes) {
+        grupos.values().forEach(grupo -> grupo.setNome(nomes.apply(grupo.getId())));
+        return grupos.values().stream()
+                .sorted(Comparator.comparingLong(InventarioDashboardDTO.Grupo::getQuantidade).reversed())
+                .collect(Collectors.toList());
+    }
+
+    // O valor é Float na entidade e DECIMAL(10,2) no banco; a conversão pelo texto evita o ruído do ponto flutuante
+    private static BigDecimal valor(Float valor) {
+        return valor == null ? BigDecimal.ZERO : new BigDecimal(valor.toString()).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static class Variacao {
+
+        private long quantidade;
+        private BigDecimal valor = BigDecimal.ZERO;
+
+        void somar(long quantidade, BigDecimal valor) {
+            this.quantidade += quantidade;
+            this.valor = this.valor.add(valor);
+        }
+    }
+}
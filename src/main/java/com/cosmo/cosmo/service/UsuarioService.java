@@ -15,6 +15,8 @@
  */
 package com.cosmo.cosmo.service;
 
+import com.cosmo.cosmo.controller.DepartamentoController;
+import com.cosmo.cosmo.controller.EmpresaController;
 import com.cosmo.cosmo.controller.UsuarioController;
 import com.cosmo.cosmo.dto.geral.PagedResponseDTO;
 import com.cosmo.cosmo.dto.usuario.UsuarioRequestDTO;
@@ -95,6 +97,14 @@ public class UsuarioService {
         return addHateoasLinksWithNestedEntities(dto);
     }
 
+    /**
+     * Versão atual do usuário para o ETag de {@link #findById(Long)}, lida sem carregar a entidade.
+     */
+    public String getVersao(Long id) {
+        return usuarioRepository.findVersaoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com id: " + id));
+    }
+
     public UsuarioResponseDTO save(UsuarioRequestDTO requestDTO) {
         // Validar se email já existe
         if (usuarioRepository.existsByEmail(requestDTO.getEmail())) {
@@ -197,16 +207,16 @@ public class UsuarioService {
         // Adicionar links HATEOAS para o usuário principal
         addHateoasLinks(dto);
 
-        // Adicionar links HATEOAS para o departamento aninhado
+        // Departamento e empresa já vêm mapeados da entidade (carregada com eles na mesma consulta);
+        // basta acrescentar o link de cada um, sem buscar de novo pelos outros services
         if (dto.getDepartamento() != null) {
-            DepartamentoResponseDTO departamentoComLinks = departamentoService.findById(dto.getDepartamento().getId());
-            dto.setDepartamento(departamentoComLinks);
+            DepartamentoResponseDTO departamento = dto.getDepartamento();
+            departamento.add(linkTo(methodOn(DepartamentoController.class).getDepartamentoById(departamento.getId())).withSelfRel());
         }
 
-        // Adicionar links HATEOAS para a empresa aninhada
         if (dto.getEmpresa() != null) {
-            EmpresaResponseDTO empresaComLinks = empresaService.findById(dto.getEmpresa().getId());
-            dto.setEmpresa(empresaComLinks);
+            EmpresaResponseDTO empresa = dto.getEmpresa();
+            empresa.add(linkTo(methodOn(EmpresaController.class).getEmpresaById(empresa.getId())).withSelfRel());
         }
 
         return dto;
@@ -286,7 +296,7 @@ public class UsuarioService {
         Long id = dto.getId();
 
         // Apenas o link para si mesmo (self)
-        dto.add(linkTo(methodOn(UsuarioController.class).getUsuarioById(id)).withSelfRel());
+        dto.add(linkTo(methodOn(UsuarioController.class).getUsuarioById(id, null)).withSelfRel());
 
         return dto;
     }
@@ -15,25 +15,98 @@
  */
 package com.cosmo.cosmo.specification;
 
+import com.cosmo.cosmo.dto.geral.KeysetCursor;
 import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.EstadoConservacao;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.enums.StatusPropriedade;
+import com.cosmo.cosmo.enums.TipoEquipamento;
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public class EquipamentoSpecification {
 
+    /**
+     * Campos permitidos na paginação por cursor. Todos possuem índice em equipamento e,
+     * como o InnoDB anexa a chave primária aos índices secundários, cada índice já
+     * cobre a tupla (campo, id) usada no seek.
+     */
+    public static final Set<String> CAMPOS_ORDENACAO_CURSOR = Set.of(
+            "id", "numeroPatrimonio", "serialNumber", "marca", "modelo");
+
+    /**
+     * Restringe a consulta a um conjunto de ids já resolvido (ex.: candidatos do índice de trigramas).
+     */
+    public static Specification<Equipamento> comIds(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> ids.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get("id").in(ids);
+    }
+
+    /**
+     * Filtra pela coluna discriminadora persistida, resolvida apenas na tabela base.
+     */
+    public static Specification<Equipamento> porTipo(TipoEquipamento tipo) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("tipo"), tipo);
+    }
+
+    /**
+     * Restringe a consulta aos registros posteriores ao cursor na ordenação (campo, id).
+     * No MySQL os valores NULL vêm antes dos demais em ordem ascendente (e depois em descendente).
+     */
+    public static Specification<Equipamento> aposCursor(KeysetCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null || !cursor.hasPosition()) {
+                return criteriaBuilder.conjunction();
+            }
+
+            boolean asc = cursor.isAscending();
+            Path<Long> id = root.get("id");
+            Predicate idPosterior = asc
+                    ? criteriaBuilder.greaterThan(id, cursor.getId())
+                    : criteriaBuilder.lessThan(id, cursor.getId());
+
+            if ("id".equals(cursor.getSortBy())) {
+                return idPosterior;
+            }
+
+            Path<String> campo = root.get(cursor.getSortBy());
+            String valor = cursor.getValue();
+
+            if (valor == null) {
+                Predicate mesmoValorNulo = criteriaBuilder.and(criteriaBuilder.isNull(campo), idPosterior);
+                return asc ? criteriaBuilder.or(mesmoValorNulo, criteriaBuilder.isNotNull(campo)) : mesmoValorNulo;
+            }
+
+            Predicate valorPosterior = asc
+                    ? criteriaBuilder.greaterThan(campo, valor)
+                    : criteriaBuilder.lessThan(campo, valor);
+            Predicate mesmoValor = criteriaBuilder.and(criteriaBuilder.equal(campo, valor), idPosterior);
+
+            return asc
+                    ? criteriaBuilder.or(valorPosterior, mesmoValor)
+                    : criteriaBuilder.or(valorPosterior, mesmoValor, criteriaBuilder.isNull(campo));
+        };
+    }
+
     public static Specification<Equipamento> comFiltros(
             String serialNumber,
             String numeroPatrimonio,
             String marca,
             String modelo,
-            String estadoConservacao,
-            String status,
+            List<EstadoConservacao> estadoConservacao,
+            List<StatusEquipamento> status,
             Boolean termoResponsabilidade,
             String notaFiscal,
-            String statusPropriedade) {
+            List<StatusPropriedade> statusPropriedade,
+            Long empresaId,
+            Long departamentoId) {
 
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -70,20 +143,14 @@ public class EquipamentoSpecification {
                 ));
             }
 
-            // Filtro por estado de conservação (busca parcial e insensível a maiúsculas/minúsculas)
-            if (estadoConservacao != null && !estadoConservacao.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("estadoConservacao").as(String.class)),
-                    "%" + estadoConservacao.toLowerCase() + "%"
-                ));
+            // Filtro por estado de conservação (valores exatos, compilado para IN)
+            if (estadoConservacao != null && !estadoConservacao.isEmpty()) {
+                predicates.add(root.get("estadoConservacao").in(estadoConservacao));
             }
 
-            // Filtro por status (busca parcial e insensível a maiúsculas/minúsculas)
-            if (status != null && !status.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("status").as(String.class)),
-                    "%" + status.toLowerCase() + "%"
-                ));
+            // Filtro por status (valores exatos, compilado para IN sobre idx_equipamento_status)
+            if (status != null && !status.isEmpty()) {
+                predicates.add(root.get("status").in(status));
             }
 
             // Filtro por termo de responsabilidade (busca exata para booleano)
@@ -99,12 +166,19 @@ public class EquipamentoSpecification {
                 ));
             }
 
-            // Filtro por status da propriedade (busca parcial e insensível a maiúsculas/minúsculas)
-            if (statusPropriedade != null && !statusPropriedade.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("statusPropriedade").as(String.class)),
-                    "%" + statusPropriedade.toLowerCase() + "%"
-                ));
+            // Filtro por status da propriedade (valores exatos, compilado para IN)
+            if (statusPropriedade != null && !statusPropriedade.isEmpty()) {
+                predicates.add(root.get("statusPropriedade").in(statusPropriedade));
+            }
+
+            // Filtro por empresa (combinado com status usa idx_equipamento_empresa_status)
+            if (empresaId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("empresa").get("id"), empresaId));
+            }
+
+            // Filtro por departamento (combinado com status usa idx_equipamento_departamento_status)
+            if (departamentoId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("departamento").get("id"), departamentoId));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
@@ -15,7 +15,7 @@
  */
 package com.cosmo.cosmo.specification;
 
-import com.cosmo.cosmo.entity.Historico;
+import com.cosmo.cosmo.entity.HistoricoBase;
 import org.springframework.data.jpa.domain.Specification;
 
 import jakarta.persistence.criteria.Predicate;
@@ -23,16 +23,23 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Filtros aplicáveis tanto ao histórico em uso quanto à visão consolidada com o arquivo.
+ * Os filtros de período recebem datas e comparam as colunas de data e hora com intervalos semiabertos
+ * [início 00:00, dia seguinte ao fim 00:00): o dia final é incluído por inteiro e a coluna não é
+ * convertida, o que mantém a busca por faixa nos índices (idx_historico_usuario_periodo e
+ * idx_historico_equipamento_periodo).
+ */
 public class HistoricoSpecification {
 
-    public static Specification<Historico> comFiltros(
+    public static <T extends HistoricoBase> Specification<T> comFiltros(
             Long usuarioId,
             Long equipamentoId,
             LocalDate dataEntregaInicio,
             LocalDate dataEntregaFim,
             LocalDate dataDevolucaoInicio,
             LocalDate dataDevolucaoFim,
-            String statusRegistroHistorico) {
+            Boolean statusRegistroHistorico) {
 
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -47,32 +54,29 @@ public class HistoricoSpecification {
                 predicates.add(criteriaBuilder.equal(root.get("equipamento").get("id"), equipamentoId));
             }
 
-            // Filtro por data de entrega - início
+            // Filtro por data de entrega - a partir do início do dia inicial
             if (dataEntregaInicio != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dataEntrega"), dataEntregaInicio));
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dataEntrega"), dataEntregaInicio.atStartOfDay()));
             }
 
-            // Filtro por data de entrega - fim
+            // Filtro por data de entrega - antes do início do dia seguinte ao final
             if (dataEntregaFim != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("dataEntrega"), dataEntregaFim));
+                predicates.add(criteriaBuilder.lessThan(root.get("dataEntrega"), dataEntregaFim.plusDays(1).atStartOfDay()));
             }
 
-            // Filtro por data de devolução - início
+            // Filtro por data de devolução - a partir do início do dia inicial
             if (dataDevolucaoInicio != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dataDevolucao"), dataDevolucaoInicio));
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dataDevolucao"), dataDevolucaoInicio.atStartOfDay()));
             }
 
-            // Filtro por data de devolução - fim
+            // Filtro por data de devolução - antes do início do dia seguinte ao final
             if (dataDevolucaoFim != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("dataDevolucao"), dataDevolucaoFim));
+                predicates.add(criteriaBuilder.lessThan(root.get("dataDevolucao"), dataDevolucaoFim.plusDays(1).atStartOfDay()));
             }
 
-            // Filtro por status do registro histórico (busca parcial e insensível a maiúsculas/minúsculas)
-            if (statusRegistroHistorico != null && !statusRegistroHistorico.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("statusRegistroHistorico").as(String.class)),
-                    "%" + statusRegistroHistorico.toLowerCase() + "%"
-                ));
+            // Filtro por status do registro histórico (true = ativo, false = cancelado)
+            if (statusRegistroHistorico != null) {
+                predicates.add(criteriaBuilder.equal(root.get("statusRegistroHistorico"), statusRegistroHistorico));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
@@ -0,0 +1,17 @@
+-- Coluna discriminadora persistida na tabela base equipamento
+-- Permite filtrar e contar por tipo sem juntar todas as subtabelas da herança JOINED
+
+ALTER TABLE equipamento ADD COLUMN tipo VARCHAR(20) NULL AFTER id;
+
+-- Preenchimento dos registros existentes a partir da subtabela de cada tipo
+UPDATE equipamento e JOIN notebook n ON n.id = e.id SET e.tipo = 'NOTEBOOK';
+UPDATE equipamento e JOIN desktop d ON d.id = e.id SET e.tipo = 'DESKTOP';
+UPDATE equipamento e JOIN celular c ON c.id = e.id SET e.tipo = 'CELULAR';
+UPDATE equipamento e JOIN chip c ON c.id = e.id SET e.tipo = 'CHIP';
+UPDATE equipamento e JOIN impressora i ON i.id = e.id SET e.tipo = 'IMPRESSORA';
+UPDATE equipamento e JOIN monitor m ON m.id = e.id SET e.tipo = 'MONITOR';
+
+ALTER TABLE equipamento MODIFY COLUMN tipo VARCHAR(20) NOT NULL;
+
+-- Índice para consultas e contagens por tipo
+CREATE INDEX idx_equipamento_tipo ON equipamento(tipo);
@@ -0,0 +1,10 @@
+-- Índices compostos para os filtros por status combinados com empresa ou departamento
+-- Ex.: "equipamentos disponíveis no meu departamento" (departamento_id = ? AND status IN (...))
+
+CREATE INDEX idx_equipamento_empresa_status ON equipamento(empresa_id, status);
+CREATE INDEX idx_equipamento_departamento_status ON equipamento(departamento_id, status);
+
+-- Os índices simples passam a ser redundantes: os compostos começam pelas mesmas colunas
+-- e continuam atendendo às chaves estrangeiras
+DROP INDEX idx_equipamento_empresa ON equipamento;
+DROP INDEX idx_equipamento_departamento ON equipamento;
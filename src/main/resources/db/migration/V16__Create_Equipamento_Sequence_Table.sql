@@ -0,0 +1,11 @@
+-- Gerador de ids de equipamento compatível com inserção em lote
+-- O MySQL não possui sequências; o Hibernate emula a sequência equipamento_seq com esta tabela,
+-- reservando blocos de 50 ids (allocationSize) por consulta.
+
+CREATE TABLE equipamento_seq (
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+-- Começa acima do maior id existente; o otimizador pooled usa o valor lido como limite superior do bloco
+INSERT INTO equipamento_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM equipamento;
@@ -0,0 +1,25 @@
+-- Resumo do inventário por empresa, departamento, status e status de propriedade
+-- Mantido pela aplicação na mesma transação de cada inclusão, alteração, exclusão ou mudança de status,
+-- para que o dashboard leia uma linha por grupo em vez de percorrer todos os equipamentos
+
+CREATE TABLE inventario_resumo (
+    empresa_id BIGINT NOT NULL,
+    departamento_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    -- PROPRIO, LOCADO ou NAO_INFORMADO (a coluna faz parte da chave e não aceita NULL)
+    status_propriedade VARCHAR(20) NOT NULL,
+    quantidade BIGINT NOT NULL DEFAULT 0,
+    valor_total DECIMAL(15,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (empresa_id, departamento_id, status, status_propriedade)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Carga inicial a partir dos equipamentos existentes
+INSERT INTO inventario_resumo (empresa_id, departamento_id, status, status_propriedade, quantidade, valor_total)
+SELECT empresa_id,
+       departamento_id,
+       status,
+       COALESCE(status_propriedade, 'NAO_INFORMADO'),
+       COUNT(*),
+       COALESCE(SUM(valor), 0)
+FROM equipamento
+GROUP BY empresa_id, departamento_id, status, COALESCE(status_propriedade, 'NAO_INFORMADO');
@@ -0,0 +1,9 @@
+-- Coluna de versão (@Version) incrementada pelo Hibernate a cada alteração
+-- Usada no ETag das consultas por id (inclui as versões das entidades aninhadas na resposta)
+-- e no controle de concorrência otimista
+
+ALTER TABLE equipamento ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE usuario ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE historico ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE empresa ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE departamento ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Índices compostos para as listagens paginadas de históricos ativos por usuário e por equipamento
+-- Ex.: usuario_id = ? AND status_registro_historico = TRUE ORDER BY data_entrega DESC
+-- A página ordenada é lida direto do índice, sem filesort
+
+CREATE INDEX idx_historico_usuario_ativo_entrega ON historico(usuario_id, status_registro_historico, data_entrega);
+CREATE INDEX idx_historico_equipamento_ativo_entrega ON historico(equipamento_id, status_registro_historico, data_entrega);
+
+-- Os índices simples passam a ser redundantes: os compostos começam pelas mesmas colunas
+-- e continuam atendendo às chaves estrangeiras
+DROP INDEX idx_historico_usuario ON historico;
+DROP INDEX idx_historico_equipamento ON historico;
@@ -0,0 +1,16 @@
+-- Ponteiro do equipamento para o seu histórico ativo (entregue, não devolvido e não cancelado)
+-- Mantido pela entrega, devolução e cancelamento; "está em uso" e "com quem está" passam a ser
+-- leituras de uma linha pela chave primária, sem varrer os históricos do equipamento
+
+ALTER TABLE equipamento ADD COLUMN historico_atual_id BIGINT NULL;
+
+-- Preenchimento a partir dos históricos ativos existentes
+UPDATE equipamento e
+    JOIN (SELECT equipamento_id, MAX(id) AS historico_id
+          FROM historico
+          WHERE status_registro_historico = TRUE AND data_devolucao IS NULL
+          GROUP BY equipamento_id) h ON h.equipamento_id = e.id
+SET e.historico_atual_id = h.historico_id;
+
+ALTER TABLE equipamento ADD CONSTRAINT fk_equipamento_historico_atual
+    FOREIGN KEY (historico_atual_id) REFERENCES historico(id);
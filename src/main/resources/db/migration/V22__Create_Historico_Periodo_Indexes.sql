@@ -0,0 +1,9 @@
+-- Índices compostos para os filtros de auditoria por usuário ou equipamento combinados com período
+-- Ex.: usuario_id = ? AND data_entrega >= '2025-01-01 00:00' AND data_entrega < '2025-02-01 00:00'
+-- A igualdade vem antes da faixa de datas; as demais colunas filtráveis completam o índice, de modo que
+-- a contagem da página e a seleção das linhas são resolvidas no próprio índice (index range scan)
+
+CREATE INDEX idx_historico_usuario_periodo
+    ON historico(usuario_id, data_entrega, data_devolucao, status_registro_historico);
+CREATE INDEX idx_historico_equipamento_periodo
+    ON historico(equipamento_id, data_entrega, data_devolucao, status_registro_historico);
@@ -0,0 +1,40 @@
+-- Camada de arquivo do histórico: registros encerrados (com devolução) há mais tempo que o horizonte
+-- configurado (cosmo.historico.arquivo.horizonte) são movidos para esta tabela pelo HistoricoArquivoService,
+-- mantendo a tabela historico, usada por todas as consultas do dia a dia, do tamanho do período recente.
+-- Tabela compactada: os registros arquivados são apenas lidos, e raramente.
+
+CREATE TABLE historico_arquivo (
+    id BIGINT NOT NULL,
+    equipamento_id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    data_entrega TIMESTAMP NOT NULL,
+    data_devolucao TIMESTAMP NOT NULL,
+    observacoes_entrega TEXT,
+    observacoes_devolucao TEXT,
+    url_termo_entrega VARCHAR(500),
+    url_termo_devolucao VARCHAR(500),
+    status_registro_historico BOOLEAN NOT NULL,
+    motivo_cancelamento TEXT,
+    data_cancelamento TIMESTAMP NULL,
+    arquivado_em TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_historico_arquivo_equipamento FOREIGN KEY (equipamento_id) REFERENCES equipamento(id),
+    CONSTRAINT fk_historico_arquivo_usuario FOREIGN KEY (usuario_id) REFERENCES usuario(id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Mesmas consultas por usuário ou equipamento e período feitas no histórico em uso
+CREATE INDEX idx_historico_arquivo_usuario_periodo ON historico_arquivo(usuario_id, data_entrega);
+CREATE INDEX idx_historico_arquivo_equipamento_periodo ON historico_arquivo(equipamento_id, data_entrega);
+
+-- Visão que une o histórico em uso ao arquivo, lida apenas quando o arquivo é pedido (incluirArquivo=true).
+-- Os filtros da consulta são aplicados dentro de cada parte da união (derived condition pushdown do MySQL 8)
+CREATE VIEW historico_consolidado AS
+SELECT id, equipamento_id, usuario_id, data_entrega, data_devolucao, observacoes_entrega, observacoes_devolucao,
+       url_termo_entrega, url_termo_devolucao, status_registro_historico, motivo_cancelamento, data_cancelamento,
+       FALSE AS arquivado
+FROM historico
+UNION ALL
+SELECT id, equipamento_id, usuario_id, data_entrega, data_devolucao, observacoes_entrega, observacoes_devolucao,
+       url_termo_entrega, url_termo_devolucao, status_registro_historico, motivo_cancelamento, data_cancelamento,
+       TRUE AS arquivado
+FROM historico_arquivo;
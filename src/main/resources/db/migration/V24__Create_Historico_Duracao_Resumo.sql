@@ -0,0 +1,61 @@
+-- Histogramas das durações de empréstimo e do tempo ocioso entre empréstimos, por tipo, empresa e
+-- departamento do equipamento. Cada devolução soma uma unidade à faixa correspondente na mesma transação,
+-- e as estatísticas (média, p50, p95) são calculadas a partir das faixas, sem percorrer o histórico.
+--
+-- Faixas em minutos, log-lineares: de 0 a 15 uma faixa por minuto; acima disso 8 faixas por potência de 2,
+-- com erro relativo de no máximo 12,5%. O cálculo deve coincidir com HistoricoDuracaoService.faixa.
+
+CREATE TABLE historico_duracao_resumo (
+    tipo_equipamento VARCHAR(20) NOT NULL,
+    empresa_id BIGINT NOT NULL,
+    departamento_id BIGINT NOT NULL,
+    -- EMPRESTIMO ou OCIOSIDADE
+    medida VARCHAR(20) NOT NULL,
+    faixa SMALLINT NOT NULL,
+    quantidade BIGINT NOT NULL DEFAULT 0,
+    soma_minutos BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tipo_equipamento, empresa_id, departamento_id, medida, faixa)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Carga inicial a partir dos empréstimos já devolvidos, no histórico em uso e no arquivo.
+-- O tempo ocioso de um empréstimo é o intervalo entre a devolução anterior do mesmo equipamento e a sua entrega
+INSERT INTO historico_duracao_resumo (tipo_equipamento, empresa_id, departamento_id, medida, faixa, quantidade, soma_minutos)
+WITH devolvidos AS (
+    SELECT equipamento_id, data_entrega, data_devolucao
+    FROM historico
+    WHERE status_registro_historico = TRUE AND data_devolucao IS NOT NULL
+    UNION ALL
+    SELECT equipamento_id, data_entrega, data_devolucao
+    FROM historico_arquivo
+    WHERE status_registro_historico = TRUE
+),
+duracoes AS (
+    SELECT equipamento_id, 'EMPRESTIMO' AS medida,
+           GREATEST(TIMESTAMPDIFF(MINUTE, data_entrega, data_devolucao), 0) AS minutos
+    FROM devolvidos
+    UNION ALL
+    SELECT equipamento_id, 'OCIOSIDADE',
+           GREATEST(TIMESTAMPDIFF(MINUTE, devolucao_anterior, data_entrega), 0)
+    FROM (
+        SELECT equipamento_id, data_entrega,
+               LAG(data_devolucao) OVER (PARTITION BY equipamento_id ORDER BY data_entrega) AS devolucao_anterior
+        FROM devolvidos
+    ) sequencia
+    WHERE devolucao_anterior IS NOT NULL
+)
+SELECT e.tipo,
+       e.empresa_id,
+       e.departamento_id,
+       d.medida,
+       -- Mesmo cálculo de HistoricoDuracaoService.faixa. Valores de referência, conferidos por
+       -- HistoricoDuracaoServiceFaixaTest (alterar os dois juntos):
+       --   minutos:  0  15  16  17  31  32  1440  10080  5000000
+       --   faixa:    0  15  16  16  23  24    67     89      161
+       CASE WHEN d.minutos < 16 THEN d.minutos
+            ELSE 16 + (LENGTH(BIN(d.minutos)) - 5) * 8 + ((d.minutos >> (LENGTH(BIN(d.minutos)) - 4)) & 7)
+       END AS faixa,
+       COUNT(*),
+       SUM(d.minutos)
+FROM duracoes d
+JOIN equipamento e ON e.id = d.equipamento_id
+GROUP BY e.tipo, e.empresa_id, e.departamento_id, d.medida, faixa;
@@ -0,0 +1,23 @@
+-- Respostas das operações de histórico enviadas com o cabeçalho Idempotency-Key (entrega, devolução e
+-- operações múltiplas). Uma nova tentativa com a mesma chave recebe a resposta gravada, sem executar a
+-- operação de novo. A linha é reservada (EM_ANDAMENTO) antes da execução, o que impede que duas
+-- requisições com a mesma chave sejam executadas ao mesmo tempo, inclusive em instâncias diferentes.
+
+CREATE TABLE resposta_idempotente (
+    -- SHA-256 do usuário, método, caminho e chave informada
+    id CHAR(64) NOT NULL,
+    -- EM_ANDAMENTO ou CONCLUIDA
+    situacao VARCHAR(20) NOT NULL,
+    -- SHA-256 do corpo da requisição, para recusar a mesma chave com outro conteúdo
+    hash_requisicao CHAR(64) NULL,
+    status_http INT NULL,
+    content_type VARCHAR(100) NULL,
+    corpo LONGBLOB NULL,
+    criado_em TIMESTAMP NOT NULL,
+    -- Fim da reserva (EM_ANDAMENTO) ou da retenção da resposta (CONCLUIDA)
+    expira_em TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Limpeza periódica das respostas expiradas
+CREATE INDEX idx_resposta_idempotente_expira_em ON resposta_idempotente(expira_em);
@@ -0,0 +1,10 @@
+-- Número de telefone do chip e endereço IP da impressora passam a ter índices únicos, como os demais
+-- campos únicos do equipamento. A validação da aplicação consulta o banco antes de gravar, mas duas
+-- gravações simultâneas com o mesmo valor passam ambas por ela; o índice único é a garantia final.
+-- Duplicidades já gravadas por essa corrida precisam ser corrigidas antes desta migração.
+
+DROP INDEX idx_chip_numero_telefone ON chip;
+CREATE UNIQUE INDEX idx_chip_numero_telefone ON chip(numero_telefone);
+
+DROP INDEX idx_impressora_endereco_ip ON impressora;
+CREATE UNIQUE INDEX idx_impressora_endereco_ip ON impressora(endereco_ip);
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.benchmark;
+
+import com.cosmo.cosmo.dto.equipamento.*;
+import com.cosmo.cosmo.enums.TipoEquipamento;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a leitura dos campos comuns dos DTOs de escrita pela interface selada EquipamentoEscritaDTO
+ * com as implementações usadas antes dela (reproduzidas abaixo como referência): a cadeia de instanceof
+ * para empresa, departamento e tipo, e getMethod/invoke para os campos únicos (número de patrimônio e
+ * serial number).
+ *
+ * Os doze tipos de DTO são percorridos em sequência, como no import em lote, para que as chamadas
+ * não fiquem monomórficas. Para executar:
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *       com.cosmo.cosmo.benchmark.EquipamentoEscritaDTOBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EquipamentoEscritaDTOBenchmark {
+
+    private static final int QUANTIDADE_TIPOS = 12;
+
+    private Object[] dtos;
+
+    @Setup
+    public void setUp() {
+        EquipamentoEscritaDTO[] escrita = {
+                new NotebookCreateDTO(), new NotebookUpdateDTO(),
+                new DesktopCreateDTO(), new DesktopUpdateDTO(),
+                new CelularCreateDTO(), new CelularUpdateDTO(),
+                new ChipCreateDTO(), new ChipUpdateDTO(),
+                new ImpressoraCreateDTO(), new ImpressoraUpdateDTO(),
+                new MonitorCreateDTO(), new MonitorUpdateDTO()
+        };
+        dtos = new Object[escrita.length];
+        for (int i = 0; i < escrita.length; i++) {
+            dtos[i] = preencher(escrita[i], i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_TIPOS)
+    public long interfaceSelada() {
+        long soma = 0;
+        for (Object dto : dtos) {
+            EquipamentoEscritaDTO escritaDTO = (EquipamentoEscritaDTO) dto;
+            soma += escritaDTO.getEmpresaId() + escritaDTO.getDepartamentoId() + escritaDTO.tipoEquipamento().ordinal();
+        }
+        return soma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_TIPOS)
+    public long cadeiaInstanceof() {
+        long soma = 0;
+        for (Object dto : dtos) {
+            soma += getEmpresaIdFromDTO(dto) + getDepartamentoIdFromDTO(dto) + getTipoFromDTO(dto).ordinal();
+        }
+        return soma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_TIPOS)
+    public long camposUnicosInterfaceSelada() {
+        long soma = 0;
+        for (Object dto : dtos) {
+            EquipamentoEscritaDTO escritaDTO = (EquipamentoEscritaDTO) dto;
+            soma += escritaDTO.getNumeroPatrimonio().length() + escritaDTO.getSerialNumber().length();
+        }
+        return soma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE_TIPOS)
+    public long camposUnicosReflexao() {
+        long soma = 0;
+        for (Object dto : dtos) {
+            soma += getNumeroPatrimonioFromDTO(dto).length() + getSerialNumberFromDTO(dto).length();
+        }
+        return soma;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(EquipamentoEscritaDTOBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opcoes).run();
+    }
+
+    private static Object preencher(EquipamentoEscritaDTO dto, long valor) {
+        switch (dto) {
+            case NotebookCreateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case NotebookUpdateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case DesktopCreateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case DesktopUpdateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case CelularCreateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case CelularUpdateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case ChipCreateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case ChipUpdateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case ImpressoraCreateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case ImpressoraUpdateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case MonitorCreateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+            case MonitorUpdateDTO d -> {
+                d.setEmpresaId(valor); d.setDepartamentoId(valor);
+                d.setNumeroPatrimonio("PAT-" + valor); d.setSerialNumber("SN-" + valor);
+            }
+        }
+        return dto;
+    }
+
+    // ==================== IMPLEMENTAÇÃO ANTERIOR (REFERÊNCIA) ====================
+
+    private static String getNumeroPatrimonioFromDTO(Object dto) {
+        try {
+            return (String) dto.getClass().getMethod("getNumeroPatrimonio").invoke(dto);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String getSerialNumberFromDTO(Object dto) {
+        try {
+            return (String) dto.getClass().getMethod("getSerialNumber").invoke(dto);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Long getEmpresaIdFromDTO(Object dto) {
+        if (dto instanceof NotebookCreateDTO) return ((NotebookCreateDTO) dto).getEmpresaId();
+        if (dto instanceof NotebookUpdateDTO) return ((NotebookUpdateDTO) dto).getEmpresaId();
+        if (dto instanceof DesktopCreateDTO) return ((DesktopCreateDTO) dto).getEmpresaId();
+        if (dto instanceof DesktopUpdateDTO) return ((DesktopUpdateDTO) dto).getEmpresaId();
+        if (dto instanceof CelularCreateDTO) return ((CelularCreateDTO) dto).getEmpresaId();
+        if (dto instanceof CelularUpdateDTO) return ((CelularUpdateDTO) dto).getEmpresaId();
+        if (dto instanceof ChipCreateDTO) return ((ChipCreateDTO) dto).getEmpresaId();
+        if (dto instanceof ChipUpdateDTO) return ((ChipUpdateDTO) dto).getEmpresaId();
+        if (dto instanceof ImpressoraCreateDTO) return ((ImpressoraCreateDTO) dto).getEmpresaId();
+        if (dto instanceof ImpressoraUpdateDTO) return ((ImpressoraUpdateDTO) dto).getEmpresaId();
+        if (dto instanceof MonitorCreateDTO) return ((MonitorCreateDTO) dto).getEmpresaId();
+        if (dto instanceof MonitorUpdateDTO) return ((MonitorUpdateDTO) dto).getEmpresaId();
+        throw new IllegalArgumentException("Tipo de DTO não suportado para extração de empresa ID");
+    }
+
+    private static Long getDepartamentoIdFromDTO(Object dto) {
+        if (dto instanceof NotebookCreateDTO) return ((NotebookCreateDTO) dto).getDepartamentoId();
+        if (dto instanceof NotebookUpdateDTO) return ((NotebookUpdateDTO) dto).getDepartamentoId();
+        if (dto instanceof DesktopCreateDTO) return ((DesktopCreateDTO) dto).getDepartamentoId();
+        if (dto instanceof DesktopUpdateDTO) return ((DesktopUpdateDTO) dto).getDepartamentoId();
+        if (dto instanceof CelularCreateDTO) return ((CelularCreateDTO) dto).getDepartamentoId();
+        if (dto instanceof CelularUpdateDTO) return ((CelularUpdateDTO) dto).getDepartamentoId();
+        if (dto instanceof ChipCreateDTO) return ((ChipCreateDTO) dto).getDepartamentoId();
+        if (dto instanceof ChipUpdateDTO) return ((ChipUpdateDTO) dto).getDepartamentoId();
+        if (dto instanceof ImpressoraCreateDTO) return ((ImpressoraCreateDTO) dto).getDepartamentoId();
+        if (dto instanceof ImpressoraUpdateDTO) return ((ImpressoraUpdateDTO) dto).getDepartamentoId();
+        if (dto instanceof MonitorCreateDTO) return ((MonitorCreateDTO) dto).getDepartamentoId();
+        if (dto instanceof MonitorUpdateDTO) return ((MonitorUpdateDTO) dto).getDepartamentoId();
+        throw new IllegalArgumentException("Tipo de DTO não suportado para extração de departamento ID");
+    }
+
+    private static TipoEquipamento getTipoFromDTO(Object dto) {
+        if (dto instanceof NotebookCreateDTO || dto instanceof NotebookUpdateDTO) {
+            return TipoEquipamento.NOTEBOOK;
+        } else if (dto instanceof DesktopCreateDTO || dto instanceof DesktopUpdateDTO) {
+            return TipoEquipamento.DESKTOP;
+        } else if (dto instanceof CelularCreateDTO || dto instanceof CelularUpdateDTO) {
+            return TipoEquipamento.CELULAR;
+        } else if (dto instanceof ChipCreateDTO || dto instanceof ChipUpdateDTO) {
+            return TipoEquipamento.CHIP;
+        } else if (dto instanceof ImpressoraCreateDTO || dto instanceof ImpressoraUpdateDTO) {
+            return TipoEquipamento.IMPRESSORA;
+        } else if (dto instanceof MonitorCreateDTO || dto instanceof MonitorUpdateDTO) {
+            return TipoEquipamento.MONITOR;
+        } else {
+            throw new IllegalArgumentException("Tipo de DTO não suportado: " + dto.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.config;
+
+import com.cosmo.cosmo.dto.equipamento.MonitorCreateDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.Usuario;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.UsuarioRepository;
+import com.cosmo.cosmo.service.EquipamentoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotenciaFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EquipamentoService equipamentoService;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Empresa empresa;
+    private Departamento departamento;
+
+    @BeforeEach
+    void setUp() {
+        empresa = empresaRepository.save(new Empresa(null, "Empresa", "SP", null));
+        departamento = departamentoRepository.save(new Departamento(null, "TI", null));
+    }
+
+    @Test
+    void novaTentativaComAMesmaChaveRecebeARespostaGravada() throws Exception {
+        Long equipamentoId = criarMonitor();
+        String corpo = corpoEntrega(equipamentoId, criarUsuario());
+        String chave = UUID.randomUUID().toString();
+
+        MvcResult primeira = mockMvc.perform(entregar(chave, corpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotenciaFilter.CABECALHO_REPETIDA))
+                .andReturn();
+
+        mockMvc.perform(entregar(chave, corpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotenciaFilter.CABECALHO_REPETIDA, "true"))
+                .andExpect(content().bytes(primeira.getResponse().getContentAsByteArray()));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM historico WHERE equipamento_id = ?", Integer.class, equipamentoId));
+    }
+
+    @Test
+    void chaveReutilizadaComOutroCorpoERecusada() throws Exception {
+        Long equipamentoId = criarMonitor();
+        String chave = UUID.randomUUID().toString();
+
+        mockMvc.perform(entregar(chave, corpoEntrega(equipamentoId, criarUsuario())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(entregar(chave, corpoEntrega(equipamentoId, criarUsuario())))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(IdempotenciaFilter.CABECALHO_REPETIDA));
+    }
+
+    @Test
+    void aMesmaChaveDeOutroUsuarioNaoRepeteAResposta() throws Exception {
+        String chave = UUID.randomUUID().toString();
+
+        mockMvc.perform(entregar(chave, corpoEntrega(criarMonitor(), criarUsuario())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(entregar(chave, corpoEntrega(criarMonitor(), criarUsuario())).with(user("outro")))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotenciaFilter.CABECALHO_REPETIDA));
+    }
+
+    private MockHttpServletRequestBuilder entregar(String chave, String corpo) {
+        return post("/api/historicos/entregar")
+                .with(user("admin"))
+                .header(IdempotenciaFilter.CABECALHO, chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo);
+    }
+
+    private static String corpoEntrega(Long equipamentoId, Long usuarioId) {
+        return "{\"equipamentoId\": " + equipamentoId + ", \"usuarioId\": " + usuarioId + "}";
+    }
+
+    private Long criarMonitor() {
+        MonitorCreateDTO createDTO = new MonitorCreateDTO();
+        createDTO.setSerialNumber("SN-" + UUID.randomUUID());
+        createDTO.setStatus(StatusEquipamento.DISPONIVEL);
+        createDTO.setEmpresaId(empresa.getId());
+        createDTO.setDepartamentoId(departamento.getId());
+        return equipamentoService.createMonitor(createDTO).getId();
+    }
+
+    private Long criarUsuario() {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuário");
+        usuario.setEmpresa(empresa);
+        usuario.setDepartamento(departamento);
+        usuario.setAtivo(true);
+        return usuarioRepository.save(usuario).getId();
+    }
+}
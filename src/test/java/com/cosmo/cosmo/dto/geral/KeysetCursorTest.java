@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.dto.geral;
+
+import com.cosmo.cosmo.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    @Test
+    void inicialNaoTemPosicao() {
+        KeysetCursor cursor = KeysetCursor.inicial("marca", "DESC");
+
+        assertFalse(cursor.hasPosition());
+        assertFalse(cursor.isAscending());
+        assertEquals("desc", cursor.getSortDir());
+    }
+
+    @Test
+    void encodeEDecodePreservamOrdenacaoEPosicao() {
+        KeysetCursor cursor = KeysetCursor.inicial("marca", "asc").proximo(42L, "Dell");
+
+        KeysetCursor decodificado = KeysetCursor.decode(cursor.encode());
+
+        assertEquals("marca", decodificado.getSortBy());
+        assertTrue(decodificado.isAscending());
+        assertEquals(42L, decodificado.getId());
+        assertEquals("Dell", decodificado.getValue());
+    }
+
+    @Test
+    void valorNuloEDiferenteDeValorVazio() {
+        KeysetCursor nulo = KeysetCursor.decode(KeysetCursor.inicial("modelo", "asc").proximo(1L, null).encode());
+        KeysetCursor vazio = KeysetCursor.decode(KeysetCursor.inicial("modelo", "asc").proximo(1L, "").encode());
+
+        assertNull(nulo.getValue());
+        assertEquals("", vazio.getValue());
+    }
+
+    @Test
+    void valorComSeparadorNaoQuebraODecode() {
+        KeysetCursor cursor = KeysetCursor.inicial("numeroPatrimonio", "desc").proximo(7L, "PAT:001:A");
+
+        KeysetCursor decodificado = KeysetCursor.decode(cursor.encode());
+
+        assertEquals("PAT:001:A", decodificado.getValue());
+        assertEquals(7L, decodificado.getId());
+        assertFalse(decodificado.isAscending());
+    }
+
+    @Test
+    void tokenInvalidoLancaValidationException() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("não é base64!"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(codificar("id:asc:1")));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(codificar("id:asc:abc:n")));
+    }
+
+    @Test
+    void toSortUsaIdComoDesempate() {
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), KeysetCursor.inicial("id", "asc").toSort());
+        assertEquals(Sort.by(Sort.Direction.DESC, "marca").and(Sort.by(Sort.Direction.DESC, "id")),
+                KeysetCursor.inicial("marca", "desc").toSort());
+    }
+
+    private static String codificar(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArvoreIntervalosTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private record Intervalo(LocalDateTime inicio, LocalDateTime fim) {
+    }
+
+    @Test
+    void buscaCoincideComVarreduraAposInsercoesERemocoesAleatorias() {
+        Random random = new Random(42);
+        ArvoreIntervalos arvore = new ArvoreIntervalos();
+        Map<Long, Intervalo> referencia = new HashMap<>();
+
+        for (long id = 1; id <= 2000; id++) {
+            // Inícios em poucos minutos distintos para forçar empates resolvidos pelo id
+            LocalDateTime inicio = BASE.plusMinutes(random.nextInt(500));
+            LocalDateTime fim = random.nextInt(10) == 0
+                    ? LocalDateTime.MAX
+                    : inicio.plusMinutes(1 + random.nextInt(120));
+            arvore.inserir(id, inicio, fim);
+            referencia.put(id, new Intervalo(inicio, fim));
+
+            if (random.nextInt(3) == 0) {
+                long removido = 1 + random.nextInt((int) id);
+                Intervalo intervalo = referencia.remove(removido);
+                if (intervalo != null) {
+                    arvore.remover(removido, intervalo.inicio());
+                }
+            }
+            if (id % 50 == 0) {
+                for (int i = 0; i < 20; i++) {
+                    LocalDateTime instante = BASE.plusMinutes(random.nextInt(700) - 50);
+                    assertEquals(varredura(referencia, instante), buscar(arvore, instante), "instante " + instante);
+                }
+            }
+        }
+
+        for (Map.Entry<Long, Intervalo> entry : new ArrayList<>(referencia.entrySet())) {
+            arvore.remover(entry.getKey(), entry.getValue().inicio());
+        }
+        assertTrue(arvore.isVazia());
+    }
+
+    @Test
+    void intervaloSemFimContemQualquerInstantePosterior() {
+        ArvoreIntervalos arvore = new ArvoreIntervalos();
+        arvore.inserir(1L, BASE, LocalDateTime.MAX);
+
+        assertEquals(List.of(), buscar(arvore, BASE.minusNanos(1)));
+        assertEquals(List.of(1L), buscar(arvore, BASE));
+        assertEquals(List.of(1L), buscar(arvore, BASE.plusYears(100)));
+    }
+
+    @Test
+    void iniciosIguaisSaoDistinguidosPeloId() {
+        ArvoreIntervalos arvore = new ArvoreIntervalos();
+        arvore.inserir(3L, BASE, BASE.plusHours(1));
+        arvore.inserir(1L, BASE, BASE.plusHours(2));
+        arvore.inserir(2L, BASE, BASE.plusHours(3));
+
+        assertEquals(List.of(1L, 2L, 3L), buscar(arvore, BASE.plusMinutes(30)));
+
+        arvore.remover(2L, BASE);
+
+        assertEquals(List.of(1L, 3L), buscar(arvore, BASE.plusMinutes(30)));
+        assertEquals(List.of(1L), buscar(arvore, BASE.plusMinutes(90)));
+    }
+
+    @Test
+    void fimIgualAoInstanteNaoContem() {
+        ArvoreIntervalos arvore = new ArvoreIntervalos();
+        arvore.inserir(1L, BASE, BASE.plusHours(1));
+        arvore.inserir(2L, BASE.plusHours(1), BASE.plusHours(2));
+
+        assertEquals(List.of(1L), buscar(arvore, BASE.plusHours(1).minusNanos(1)));
+        assertEquals(List.of(2L), buscar(arvore, BASE.plusHours(1)));
+        assertEquals(List.of(), buscar(arvore, BASE.plusHours(2)));
+    }
+
+    @Test
+    void removerIdInexistenteNaoAlteraArvore() {
+        ArvoreIntervalos arvore = new ArvoreIntervalos();
+        arvore.inserir(1L, BASE, BASE.plusHours(1));
+
+        arvore.remover(2L, BASE);
+        arvore.remover(1L, BASE.plusMinutes(1));
+
+        assertFalse(arvore.isVazia());
+        assertEquals(List.of(1L), buscar(arvore, BASE.plusMinutes(30)));
+
+        ArvoreIntervalos vazia = new ArvoreIntervalos();
+        vazia.remover(1L, BASE);
+        assertTrue(vazia.isVazia());
+    }
+
+    private static List<Long> buscar(ArvoreIntervalos arvore, LocalDateTime instante) {
+        List<Long> resultado = new ArrayList<>();
+        arvore.buscar(instante, resultado);
+        return resultado.stream().sorted().toList();
+    }
+
+    private static List<Long> varredura(Map<Long, Intervalo> intervalos, LocalDateTime instante) {
+        return intervalos.entrySet().stream()
+                .filter(e -> !e.getValue().inicio().isAfter(instante) && e.getValue().fim().isAfter(instante))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EquipamentoImportServiceCsvTest {
+
+    @Test
+    void indexaColunasPeloCabecalho() {
+        List<Map<String, Object>> registros = EquipamentoImportService.lerCsv(
+                " tipo , serialNumber ,marca\nNOTEBOOK,SN1,Dell\nMONITOR,SN2,LG\n");
+
+        assertEquals(2, registros.size());
+        assertEquals(Map.of("tipo", "NOTEBOOK", "serialNumber", "SN1", "marca", "Dell"), registros.get(0));
+        assertEquals(Map.of("tipo", "MONITOR", "serialNumber", "SN2", "marca", "LG"), registros.get(1));
+    }
+
+    @Test
+    void camposEntreAspasAceitamSeparadorQuebraDeLinhaEAspasEscapadas() {
+        List<Map<String, Object>> registros = EquipamentoImportService.lerCsv(
+                "tipo,observacoes\r\nNOTEBOOK,\"tela, teclado\r\ne \"\"bateria\"\"\"\r\n");
+
+        assertEquals(1, registros.size());
+        assertEquals("tela, teclado\r\ne \"bateria\"", registros.get(0).get("observacoes"));
+    }
+
+    @Test
+    void camposVaziosELinhasEmBrancoSaoIgnorados() {
+        List<Map<String, Object>> registros = EquipamentoImportService.lerCsv(
+                "tipo,marca,modelo\nNOTEBOOK,,X1\n\nMONITOR,LG");
+
+        assertEquals(2, registros.size());
+        assertFalse(registros.get(0).containsKey("marca"));
+        assertEquals("X1", registros.get(0).get("modelo"));
+        assertEquals(Map.of("tipo", "MONITOR", "marca", "LG"), registros.get(1));
+    }
+
+    @Test
+    void removeBomDoInicio() {
+        List<Map<String, Object>> registros = EquipamentoImportService.lerCsv("\uFEFFtipo\nNOTEBOOK");
+
+        assertEquals("NOTEBOOK", registros.get(0).get("tipo"));
+    }
+
+    @Test
+    void apenasCabecalhoNaoGeraRegistros() {
+        assertTrue(EquipamentoImportService.lerCsv("tipo,marca\n").isEmpty());
+    }
+
+    @Test
+    void conteudoInvalidoLancaValidationException() {
+        assertThrows(ValidationException.class, () -> EquipamentoImportService.lerCsv("  "));
+        assertThrows(ValidationException.class, () -> EquipamentoImportService.lerCsv("tipo\n\"NOTEBOOK"));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.dto.equipamento.EquipamentoImportResultadoDTO;
+import com.cosmo.cosmo.dto.equipamento.MonitorCreateDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.equipamento.Monitor;
+import com.cosmo.cosmo.mapper.EquipamentoMapper;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EquipamentoImportServiceTest {
+
+    @Mock
+    private EquipamentoRepository equipamentoRepository;
+
+    @Mock
+    private EmpresaRepository empresaRepository;
+
+    @Mock
+    private DepartamentoRepository departamentoRepository;
+
+    @Mock
+    private EquipamentoMapper equipamentoMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InventarioResumoService inventarioResumoService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private EquipamentoImportService importService;
+
+    private final AtomicLong proximoId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "tamanhoLote", 2);
+        ReflectionTestUtils.setField(importService, "maxLinhas", 100);
+        when(empresaRepository.findAllById(any())).thenReturn(List.of(new Empresa(1L, "Empresa", "SP", null)));
+        when(departamentoRepository.findAllById(any())).thenReturn(List.of(new Departamento(1L, "TI", null)));
+        when(equipamentoRepository.findValoresExistentes(any(), anyString(), anyCollection())).thenReturn(Set.of());
+        when(equipamentoMapper.createEquipamento(any(), any(), any(), any())).thenAnswer(invocation -> new Monitor());
+        when(equipamentoRepository.save(any())).thenAnswer(invocation -> {
+            Monitor monitor = invocation.getArgument(0);
+            monitor.setId(proximoId.getAndIncrement());
+            return monitor;
+        });
+    }
+
+    @Test
+    void valorCadastradoComOutraCaixaOuEspacoFinalRejeitaApenasALinha() {
+        // A collation do banco considera "abc" igual a "ABC" e devolve o valor como está gravado
+        when(equipamentoRepository.findValoresExistentes(any(), eq("serialNumber"), anyCollection()))
+                .thenReturn(Set.of("ABC"));
+
+        EquipamentoImportResultadoDTO resultado = importService.importarJson(List.of(
+                monitor("abc "), monitor("XYZ")));
+
+        assertEquals(1, resultado.getImportados());
+        assertEquals(EquipamentoImportResultadoDTO.Situacao.REJEITADO, resultado.getLinhas().get(0).getSituacao());
+        assertEquals(List.of("Já existe um equipamento cadastrado com o serial number: ABC"),
+                resultado.getLinhas().get(0).getErros());
+        assertEquals(EquipamentoImportResultadoDTO.Situacao.IMPORTADO, resultado.getLinhas().get(1).getSituacao());
+    }
+
+    @Test
+    void valoresRepetidosNoArquivoSeguemACollationDoBanco() {
+        EquipamentoImportResultadoDTO resultado = importService.importarJson(List.of(
+                monitor("Série-1"), monitor("SERIE-1  ")));
+
+        assertEquals(1, resultado.getImportados());
+        assertEquals(List.of("O serial number SERIE-1   está repetido na linha 1"),
+                resultado.getLinhas().get(1).getErros());
+    }
+
+    @Test
+    void chaveDeUnicidadeIgnoraCaixaAcentosEEspacosFinais() {
+        assertEquals("serie-1", EquipamentoImportService.chaveUnicidade("SÉRIE-1  "));
+        assertEquals(" a b", EquipamentoImportService.chaveUnicidade(" A b "));
+        assertTrue(EquipamentoImportService.chaveUnicidade("   ").isEmpty());
+    }
+
+    @Test
+    void falhaDeBancoEmUmBlocoRegistraAsLinhasAfetadasESegueComOsDemais() {
+        // O segundo bloco (linhas 3 e 4) encontra um lock; a linha 4 continua falhando ao ser regravada sozinha
+        doAnswer(invocation -> {
+            MonitorCreateDTO dto = invocation.getArgument(0);
+            Monitor monitor = new Monitor();
+            monitor.setSerialNumber(dto.getSerialNumber());
+            return monitor;
+        }).when(equipamentoMapper).createEquipamento(any(), any(), any(), any());
+        doAnswer(invocation -> {
+            Monitor monitor = invocation.getArgument(0);
+            if ("SN-4".equals(monitor.getSerialNumber())) {
+                throw new PessimisticLockingFailureException("Lock wait timeout exceeded");
+            }
+            monitor.setId(proximoId.getAndIncrement());
+            return monitor;
+        }).when(equipamentoRepository).save(any());
+
+        EquipamentoImportResultadoDTO resultado = importService.importarJson(List.of(
+                monitor("SN-1"), monitor("SN-2"), monitor("SN-3"), monitor("SN-4"), monitor("SN-5")));
+
+        assertEquals(4, resultado.getImportados());
+        assertEquals(1, resultado.getRejeitados());
+        EquipamentoImportResultadoDTO.Linha linha3 = resultado.getLinhas().get(2);
+        assertEquals(EquipamentoImportResultadoDTO.Situacao.IMPORTADO, linha3.getSituacao());
+        assertNotNull(linha3.getId());
+        EquipamentoImportResultadoDTO.Linha linha4 = resultado.getLinhas().get(3);
+        assertEquals(EquipamentoImportResultadoDTO.Situacao.REJEITADO, linha4.getSituacao());
+        assertNull(linha4.getId());
+        assertEquals(List.of("Registro não gravado por uma falha no banco de dados; importe a linha novamente"),
+                linha4.getErros());
+        assertEquals(EquipamentoImportResultadoDTO.Situacao.IMPORTADO, resultado.getLinhas().get(4).getSituacao());
+    }
+
+    private static Map<String, Object> monitor(String serialNumber) {
+        return Map.of(
+                "tipo", "MONITOR",
+                "serialNumber", serialNumber,
+                "status", "DISPONIVEL",
+                "estadoConservacao", "NOVO",
+                "empresaId", 1,
+                "departamentoId", 1);
+    }
+}
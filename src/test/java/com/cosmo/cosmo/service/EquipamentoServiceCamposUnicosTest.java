@@ -0,0 +1,165 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.dto.equipamento.ChipCreateDTO;
+import com.cosmo.cosmo.dto.equipamento.EquipamentoResponseDTO;
+import com.cosmo.cosmo.dto.equipamento.MonitorCreateDTO;
+import com.cosmo.cosmo.dto.equipamento.MonitorUpdateDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.exception.DuplicateResourceException;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EquipamentoServiceCamposUnicosTest {
+
+    private static final int CADASTROS_SIMULTANEOS = 8;
+
+    @Autowired
+    private EquipamentoService equipamentoService;
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Empresa empresa;
+    private Departamento departamento;
+
+    @BeforeEach
+    void setUp() {
+        // O esquema do H2 vem do Hibernate; os índices únicos são os mesmos criados pelas migrações V4 e V26
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_equipamento_serial_number ON equipamento(serial_number)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_chip_numero_telefone ON chip(numero_telefone)");
+        empresa = empresaRepository.save(new Empresa(null, "Empresa", "SP", null));
+        departamento = departamentoRepository.save(new Departamento(null, "TI", null));
+    }
+
+    @Test
+    void atualizacaoComSerialDeOutroEquipamentoLancaDuplicateResourceException() {
+        criarMonitor("SN-UPD-A");
+        EquipamentoResponseDTO outro = criarMonitor("SN-UPD-B");
+
+        MonitorUpdateDTO updateDTO = new MonitorUpdateDTO();
+        updateDTO.setSerialNumber("SN-UPD-A");
+        updateDTO.setStatus(StatusEquipamento.DISPONIVEL);
+        updateDTO.setEmpresaId(empresa.getId());
+        updateDTO.setDepartamentoId(departamento.getId());
+
+        DuplicateResourceException e = assertThrows(DuplicateResourceException.class,
+                () -> equipamentoService.updateMonitor(outro.getId(), updateDTO));
+
+        assertTrue(e.getMessage().contains("SN-UPD-A"), e.getMessage());
+        assertEquals("SN-UPD-B", equipamentoRepository.findById(outro.getId()).orElseThrow().getSerialNumber());
+    }
+
+    @Test
+    void atualizacaoMantendoOProprioSerialNaoConflita() {
+        EquipamentoResponseDTO monitor = criarMonitor("SN-UPD-C");
+
+        MonitorUpdateDTO updateDTO = new MonitorUpdateDTO();
+        updateDTO.setSerialNumber("SN-UPD-C");
+        updateDTO.setMarca("LG");
+        updateDTO.setStatus(StatusEquipamento.DISPONIVEL);
+        updateDTO.setEmpresaId(empresa.getId());
+        updateDTO.setDepartamentoId(departamento.getId());
+
+        equipamentoService.updateMonitor(monitor.getId(), updateDTO);
+
+        assertEquals("LG", equipamentoRepository.findById(monitor.getId()).orElseThrow().getMarca());
+    }
+
+    @Test
+    void cadastrosSimultaneosComOMesmoTelefoneGravamUmUnicoChip() throws Exception {
+        String telefone = "(11) 90000-0001";
+        ExecutorService executor = Executors.newFixedThreadPool(CADASTROS_SIMULTANEOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<EquipamentoResponseDTO>> cadastros = new ArrayList<>();
+        try {
+            for (int i = 0; i < CADASTROS_SIMULTANEOS; i++) {
+                ChipCreateDTO createDTO = new ChipCreateDTO();
+                createDTO.setSerialNumber("SN-CHIP-" + i);
+                createDTO.setNumeroTelefone(telefone);
+                createDTO.setStatus(StatusEquipamento.DISPONIVEL);
+                createDTO.setEmpresaId(empresa.getId());
+                createDTO.setDepartamentoId(departamento.getId());
+                cadastros.add(executor.submit(() -> {
+                    largada.await();
+                    return equipamentoService.createChip(createDTO);
+                }));
+            }
+            largada.countDown();
+
+            int sucessos = 0;
+            for (Future<EquipamentoResponseDTO> cadastro : cadastros) {
+                try {
+                    cadastro.get(30, TimeUnit.SECONDS);
+                    sucessos++;
+                } catch (ExecutionException e) {
+                    // Recusado pela validação ou, se passou por ela ao mesmo tempo que outro, pelo índice único
+                    assertInstanceOf(DuplicateResourceException.class, e.getCause());
+                }
+            }
+
+            assertEquals(1, sucessos);
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM chip WHERE numero_telefone = ?", Integer.class, telefone));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private EquipamentoResponseDTO criarMonitor(String serialNumber) {
+        MonitorCreateDTO createDTO = new MonitorCreateDTO();
+        createDTO.setSerialNumber(serialNumber);
+        createDTO.setStatus(StatusEquipamento.DISPONIVEL);
+        createDTO.setEmpresaId(empresa.getId());
+        createDTO.setDepartamentoId(departamento.getId());
+        return equipamentoService.createMonitor(createDTO);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoricoDuracaoServiceFaixaTest {
+
+    /**
+     * Os mesmos valores de referência listados na migração V24, ao lado do cálculo em SQL.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0",
+            "15, 15",
+            "16, 16",
+            "17, 16",
+            "31, 23",
+            "32, 24",
+            "1440, 67",
+            "10080, 89",
+            "5000000, 161"
+    })
+    void valoresDeReferencia(long minutos, int faixa) {
+        assertEquals(faixa, HistoricoDuracaoService.faixa(minutos));
+    }
+
+    @Test
+    void maiorDuracaoPossivelCabeNaColunaSmallint() {
+        assertEquals(487, HistoricoDuracaoService.faixa(Long.MAX_VALUE));
+    }
+
+    @Test
+    void faixasSaoContiguasECrescentes() {
+        int anterior = HistoricoDuracaoService.faixa(0);
+        for (long minutos = 1; minutos <= 1_000_000; minutos++) {
+            int faixa = HistoricoDuracaoService.faixa(minutos);
+            assertTrue(faixa == anterior || faixa == anterior + 1, "Salto na faixa em " + minutos + " minutos");
+            anterior = faixa;
+        }
+    }
+
+    @Test
+    void cadaPotenciaDeDoisAbreUmGrupoDeOitoFaixas() {
+        for (int expoente = 4; expoente < 62; expoente++) {
+            long inicio = 1L << expoente;
+            assertEquals(16 + (expoente - 4) * 8, HistoricoDuracaoService.faixa(inicio));
+            assertEquals(16 + (expoente - 4) * 8 + 7, HistoricoDuracaoService.faixa((inicio << 1) - 1));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.dto.equipamento.EquipamentoResponseDTO;
+import com.cosmo.cosmo.dto.equipamento.MonitorCreateDTO;
+import com.cosmo.cosmo.dto.historico.HistoricoRequestDTO;
+import com.cosmo.cosmo.dto.historico.HistoricoResponseDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.Usuario;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.exception.ConflictException;
+import com.cosmo.cosmo.exception.ValidationException;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoricoServiceConcorrenciaTest {
+
+    private static final int ENTREGAS_SIMULTANEAS = 8;
+
+    @Autowired
+    private HistoricoService historicoService;
+
+    @Autowired
+    private EquipamentoService equipamentoService;
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void entregasSimultaneasDoMesmoEquipamentoGeramUmUnicoHistoricoAtivo() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa(null, "Empresa", "SP", null));
+        Departamento departamento = departamentoRepository.save(new Departamento(null, "TI", null));
+        Long equipamentoId = criarMonitor(empresa, departamento).getId();
+
+        List<Long> usuarioIds = new ArrayList<>();
+        for (int i = 0; i < ENTREGAS_SIMULTANEAS; i++) {
+            usuarioIds.add(criarUsuario("Usuário " + i, empresa, departamento).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ENTREGAS_SIMULTANEAS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<HistoricoResponseDTO>> entregas = new ArrayList<>();
+        try {
+            for (Long usuarioId : usuarioIds) {
+                entregas.add(executor.submit(() -> {
+                    largada.await();
+                    HistoricoRequestDTO requestDTO = new HistoricoRequestDTO();
+                    requestDTO.setEquipamentoId(equipamentoId);
+                    requestDTO.setUsuarioId(usuarioId);
+                    return historicoService.entregarEquipamento(requestDTO);
+                }));
+            }
+            largada.countDown();
+
+            List<HistoricoResponseDTO> sucessos = new ArrayList<>();
+            for (Future<HistoricoResponseDTO> entrega : entregas) {
+                try {
+                    sucessos.add(entrega.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    // Quem perde a disputa falha com conflito (CAS) ou, se leu o equipamento já entregue, com validação
+                    assertTrue(e.getCause() instanceof ConflictException || e.getCause() instanceof ValidationException,
+                            () -> "Falha inesperada: " + e.getCause());
+                }
+            }
+
+            assertEquals(1, sucessos.size());
+
+            Integer ativos = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM historico WHERE equipamento_id = ? AND data_devolucao IS NULL "
+                            + "AND status_registro_historico = TRUE", Integer.class, equipamentoId);
+            assertEquals(1, ativos);
+
+            Equipamento equipamento = equipamentoRepository.findById(equipamentoId).orElseThrow();
+            assertEquals(StatusEquipamento.EM_USO, equipamento.getStatus());
+            assertEquals(sucessos.get(0).getId(), equipamento.getHistoricoAtualId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private EquipamentoResponseDTO criarMonitor(Empresa empresa, Departamento departamento) {
+        MonitorCreateDTO createDTO = new MonitorCreateDTO();
+        createDTO.setSerialNumber("SN-CONCORRENCIA");
+        createDTO.setStatus(StatusEquipamento.DISPONIVEL);
+        createDTO.setEmpresaId(empresa.getId());
+        createDTO.setDepartamentoId(departamento.getId());
+        return equipamentoService.createMonitor(createDTO);
+    }
+
+    private Usuario criarUsuario(String nome, Empresa empresa, Departamento departamento) {
+        Usuario usuario = new Usuario();
+        usuario.setNome(nome);
+        usuario.setEmpresa(empresa);
+        usuario.setDepartamento(departamento);
+        usuario.setAtivo(true);
+        return usuarioRepository.save(usuario);
+    }
+}
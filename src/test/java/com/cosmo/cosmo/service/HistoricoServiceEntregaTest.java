@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.dto.equipamento.MonitorCreateDTO;
+import com.cosmo.cosmo.dto.historico.HistoricoRequestDTO;
+import com.cosmo.cosmo.dto.historico.HistoricoResponseDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.Usuario;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoricoServiceEntregaTest {
+
+    @Autowired
+    private HistoricoService historicoService;
+
+    @Autowired
+    private EquipamentoService equipamentoService;
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Empresa empresa;
+    private Departamento departamento;
+
+    @BeforeEach
+    void setUp() {
+        // O esquema do H2 vem do Hibernate, que não conhece a chave estrangeira criada pela migração V20
+        jdbcTemplate.execute("ALTER TABLE equipamento DROP CONSTRAINT IF EXISTS fk_equipamento_historico_atual");
+        jdbcTemplate.execute("ALTER TABLE equipamento ADD CONSTRAINT fk_equipamento_historico_atual "
+                + "FOREIGN KEY (historico_atual_id) REFERENCES historico(id)");
+        empresa = empresaRepository.save(new Empresa(null, "Empresa", "SP", null));
+        departamento = departamentoRepository.save(new Departamento(null, "TI", null));
+    }
+
+    @Test
+    void entregaGravaHistoricoAntesDeApontarOEquipamentoParaEle() {
+        Long equipamentoId = criarMonitor("SN-ENTREGA-FK");
+        Long usuarioId = criarUsuario().getId();
+
+        HistoricoResponseDTO historico = historicoService.entregarEquipamento(requisicao(equipamentoId, usuarioId));
+
+        Equipamento equipamento = equipamentoRepository.findById(equipamentoId).orElseThrow();
+        assertEquals(StatusEquipamento.EM_USO, equipamento.getStatus());
+        assertEquals(historico.getId(), equipamento.getHistoricoAtualId());
+    }
+
+    @Test
+    void devolucaoAposEntregaLimpaOPonteiroDoHistoricoAtivo() {
+        Long equipamentoId = criarMonitor("SN-DEVOLUCAO-FK");
+        Long usuarioId = criarUsuario().getId();
+
+        HistoricoResponseDTO historico = historicoService.entregarEquipamento(requisicao(equipamentoId, usuarioId));
+        historicoService.devolverEquipamento(historico.getId(), null, null, null);
+
+        Equipamento equipamento = equipamentoRepository.findById(equipamentoId).orElseThrow();
+        assertEquals(StatusEquipamento.DISPONIVEL, equipamento.getStatus());
+        assertNull(equipamento.getHistoricoAtualId());
+    }
+
+    private HistoricoRequestDTO requisicao(Long equipamentoId, Long usuarioId) {
+        HistoricoRequestDTO requestDTO = new HistoricoRequestDTO();
+        requestDTO.setEquipamentoId(equipamentoId);
+        requestDTO.setUsuarioId(usuarioId);
+        return requestDTO;
+    }
+
+    private Long criarMonitor(String serialNumber) {
+        MonitorCreateDTO createDTO = new MonitorCreateDTO();
+        createDTO.setSerialNumber(serialNumber);
+        createDTO.setStatus(StatusEquipamento.DISPONIVEL);
+        createDTO.setEmpresaId(empresa.getId());
+        createDTO.setDepartamentoId(departamento.getId());
+        return equipamentoService.createMonitor(createDTO).getId();
+    }
+
+    private Usuario criarUsuario() {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuário");
+        usuario.setEmpresa(empresa);
+        usuario.setDepartamento(departamento);
+        usuario.setAtivo(true);
+        return usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.service;
+
+import com.cosmo.cosmo.entity.RespostaIdempotente;
+import com.cosmo.cosmo.repository.RespostaIdempotenteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotenciaServiceTest {
+
+    private static final int REQUISICOES_SIMULTANEAS = 8;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private RespostaIdempotenteRepository respostaIdempotenteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Duration tempoExecucaoPadrao = Duration.ofMinutes(1);
+
+    @AfterEach
+    void restaurarTempoExecucao() {
+        ReflectionTestUtils.setField(idempotenciaService, "tempoExecucao", tempoExecucaoPadrao);
+    }
+
+    @Test
+    void novaTentativaRecebeARespostaGravadaSemExecutarDeNovo() throws Exception {
+        String id = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+
+        Optional<RespostaIdempotente> primeira = idempotenciaService.executar(id, () -> {
+            execucoes.incrementAndGet();
+            return resposta("primeira");
+        });
+        Optional<RespostaIdempotente> segunda = idempotenciaService.executar(id, () -> {
+            execucoes.incrementAndGet();
+            return resposta("segunda");
+        });
+
+        assertTrue(primeira.isEmpty());
+        assertTrue(segunda.isPresent());
+        assertArrayEquals("primeira".getBytes(StandardCharsets.UTF_8), segunda.get().getCorpo());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void execucaoComErroLiberaAChaveParaNovaTentativa() throws Exception {
+        String id = UUID.randomUUID().toString();
+
+        assertTrue(idempotenciaService.executar(id, () -> null).isEmpty());
+        assertTrue(idempotenciaService.executar(id, () -> resposta("nova")).isEmpty());
+        assertTrue(idempotenciaService.executar(id, () -> resposta("outra")).isPresent());
+    }
+
+    @Test
+    void requisicoesSimultaneasComAMesmaChaveExecutamUmaVez() throws Exception {
+        String id = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(REQUISICOES_SIMULTANEAS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Optional<RespostaIdempotente>>> requisicoes = new ArrayList<>();
+        try {
+            for (int i = 0; i < REQUISICOES_SIMULTANEAS; i++) {
+                requisicoes.add(executor.submit(() -> {
+                    largada.await();
+                    return idempotenciaService.executar(id, () -> {
+                        execucoes.incrementAndGet();
+                        esperar(300);
+                        return resposta("unica");
+                    });
+                }));
+            }
+            largada.countDown();
+
+            int repetidas = 0;
+            for (Future<Optional<RespostaIdempotente>> requisicao : requisicoes) {
+                Optional<RespostaIdempotente> resposta = requisicao.get(30, TimeUnit.SECONDS);
+                if (resposta.isPresent()) {
+                    assertArrayEquals("unica".getBytes(StandardCharsets.UTF_8), resposta.get().getCorpo());
+                    repetidas++;
+                }
+            }
+
+            assertEquals(1, execucoes.get());
+            assertEquals(REQUISICOES_SIMULTANEAS - 1, repetidas);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reservaEProrrogadaEnquantoAOperacaoExecuta() throws Exception {
+        ReflectionTestUtils.setField(idempotenciaService, "tempoExecucao", Duration.ofSeconds(1));
+        String id = UUID.randomUUID().toString();
+        AtomicInteger assumidas = new AtomicInteger(-1);
+
+        idempotenciaService.executar(id, () -> {
+            // Execução mais longa que a validade inicial da reserva
+            esperar(2500);
+            // Outra instância tentaria assumir a chave removendo a reserva expirada
+            assumidas.set(transactionTemplate.execute(status ->
+                    respostaIdempotenteRepository.removerSeExpirada(id, LocalDateTime.now())));
+            return resposta("longa");
+        });
+
+        assertEquals(0, assumidas.get());
+        assertEquals(RespostaIdempotente.CONCLUIDA, respostaIdempotenteRepository.findById(id).orElseThrow().getSituacao());
+    }
+
+    private static void esperar(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RespostaIdempotente resposta(String corpo) {
+        RespostaIdempotente resposta = new RespostaIdempotente();
+        resposta.setHashRequisicao("hash");
+        resposta.setStatusHttp(201);
+        resposta.setContentType("application/json");
+        resposta.setCorpo(corpo.getBytes(StandardCharsets.UTF_8));
+        return resposta;
+    }
+}
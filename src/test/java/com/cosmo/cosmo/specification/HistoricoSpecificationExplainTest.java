@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.specification;
+
+import com.cosmo.cosmo.dto.equipamento.MonitorCreateDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.Historico;
+import com.cosmo.cosmo.entity.Usuario;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.EstadoConservacao;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.HistoricoRepository;
+import com.cosmo.cosmo.repository.UsuarioRepository;
+import com.cosmo.cosmo.service.EquipamentoService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere no MySQL (esquema criado pelas migrações) que os filtros de período combinados com usuário ou
+ * equipamento são resolvidos por faixa nos índices compostos da V22. Executa o EXPLAIN das instruções
+ * geradas pelo Hibernate para a página e para a contagem. Ignorado quando não há Docker disponível.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.cosmo.cosmo.specification.HistoricoSpecificationExplainTest$CapturaSql",
+        "JWT_SECRET_KEY=chave-usada-apenas-nos-testes"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HistoricoSpecificationExplainTest {
+
+    private static final int USUARIOS = 10;
+    private static final int MESES = 60;
+    private static final LocalDate PRIMEIRO_MES = LocalDate.of(2020, 1, 1);
+    private static final Pattern ALIAS_HISTORICO = Pattern.compile("from historico (\\w+)");
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    private HistoricoRepository historicoRepository;
+
+    @Autowired
+    private EquipamentoService equipamentoService;
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Usuario> usuarios = new ArrayList<>();
+    private final List<Equipamento> equipamentos = new ArrayList<>();
+
+    /**
+     * Um empréstimo por mês para cada usuário ao longo de cinco anos, revezando os equipamentos: um mês de
+     * um usuário (ou equipamento) seleciona poucas linhas, e as estatísticas refletem isso após o ANALYZE.
+     */
+    @BeforeAll
+    void popular() {
+        Empresa empresa = empresaRepository.save(new Empresa(null, "Empresa", "SP", null));
+        Departamento departamento = departamentoRepository.save(new Departamento(null, "TI", null));
+        for (int i = 0; i < USUARIOS; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setNome("Usuário " + i);
+            usuario.setEmail("usuario" + i + "@cosmo.com");
+            usuario.setCpf(String.format("000.000.000-%02d", i));
+            usuario.setEmpresa(empresa);
+            usuario.setDepartamento(departamento);
+            usuario.setAtivo(true);
+            usuarios.add(usuarioRepository.save(usuario));
+
+            MonitorCreateDTO createDTO = new MonitorCreateDTO();
+            createDTO.setSerialNumber("SN-EXPLAIN-" + i);
+            createDTO.setStatus(StatusEquipamento.DISPONIVEL);
+            createDTO.setEstadoConservacao(EstadoConservacao.NOVO);
+            createDTO.setEmpresaId(empresa.getId());
+            createDTO.setDepartamentoId(departamento.getId());
+            equipamentos.add(equipamentoRepository.findById(equipamentoService.createMonitor(createDTO).getId()).orElseThrow());
+        }
+
+        List<Historico> historicos = new ArrayList<>();
+        for (int mes = 0; mes < MESES; mes++) {
+            for (int i = 0; i < USUARIOS; i++) {
+                Historico historico = new Historico();
+                historico.setUsuario(usuarios.get(i));
+                historico.setEquipamento(equipamentos.get((i + mes) % USUARIOS));
+                historico.setDataEntrega(PRIMEIRO_MES.plusMonths(mes).atTime(9, 0).plusDays(i));
+                historico.setDataDevolucao(PRIMEIRO_MES.plusMonths(mes).atTime(18, 0).plusDays(i + 7));
+                historicos.add(historico);
+            }
+        }
+        historicoRepository.saveAll(historicos);
+        jdbcTemplate.execute("ANALYZE TABLE historico");
+    }
+
+    @Test
+    void filtroPorUsuarioEPeriodoUsaIndiceUsuarioPeriodo() {
+        LocalDate inicio = PRIMEIRO_MES.plusMonths(24);
+        LocalDate fim = inicio.plusMonths(1).minusDays(1);
+
+        verificarFaixa(HistoricoSpecification.comFiltros(usuarios.get(3).getId(), null, inicio, fim, null, null, null),
+                "idx_historico_usuario_periodo", usuarios.get(3).getId(), inicio, fim);
+    }
+
+    @Test
+    void filtroPorEquipamentoEPeriodoUsaIndiceEquipamentoPeriodo() {
+        LocalDate inicio = PRIMEIRO_MES.plusMonths(36);
+        LocalDate fim = inicio.plusMonths(1).minusDays(1);
+
+        verificarFaixa(HistoricoSpecification.comFiltros(null, equipamentos.get(5).getId(), inicio, fim, null, null, null),
+                "idx_historico_equipamento_periodo", equipamentos.get(5).getId(), inicio, fim);
+    }
+
+    /**
+     * Executa a página e a contagem, e confere o plano de cada instrução sobre historico gerada por elas.
+     */
+    private void verificarFaixa(Specification<Historico> spec, String indice, Long id, LocalDate inicio, LocalDate fim) {
+        CapturaSql.INSTRUCOES.clear();
+        historicoRepository.findAll(spec, PageRequest.of(0, 1));
+
+        List<String> instrucoes = CapturaSql.INSTRUCOES.stream()
+                .filter(sql -> ALIAS_HISTORICO.matcher(sql).find())
+                .toList();
+        assertFalse(instrucoes.isEmpty(), "Nenhuma consulta em historico foi capturada");
+        assertTrue(instrucoes.stream().anyMatch(sql -> sql.startsWith("select count")),
+                () -> "A contagem não foi executada: " + instrucoes);
+
+        for (String sql : instrucoes) {
+            Matcher alias = ALIAS_HISTORICO.matcher(sql);
+            alias.find();
+            Map<String, Object> plano = jdbcTemplate.queryForList("EXPLAIN " + sql, parametros(sql, id, inicio, fim))
+                    .stream()
+                    .filter(linha -> alias.group(1).equals(linha.get("table")))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("Plano sem a tabela historico: " + sql));
+
+            assertEquals(indice, plano.get("key"), () -> "Plano: " + plano + "\nSQL: " + sql);
+            assertEquals("range", plano.get("type"), () -> "Plano: " + plano + "\nSQL: " + sql);
+        }
+    }
+
+    // Filtro (id, início, fim) na ordem em que o Hibernate gera os predicados; o que sobra é o LIMIT da página
+    private static Object[] parametros(String sql, Long id, LocalDate inicio, LocalDate fim) {
+        List<Object> parametros = new ArrayList<>(List.of(id,
+                Timestamp.valueOf(inicio.atStartOfDay()),
+                Timestamp.valueOf(fim.plusDays(1).atStartOfDay())));
+        long marcadores = sql.chars().filter(c -> c == '?').count();
+        while (parametros.size() < marcadores) {
+            parametros.add(1);
+        }
+        return parametros.toArray();
+    }
+
+    /**
+     * Registra as instruções SQL geradas pelo Hibernate, para que o teste execute o EXPLAIN exatamente delas.
+     */
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> INSTRUCOES = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            INSTRUCOES.add(sql.replaceAll("\\s+", " ").trim());
+            return sql;
+        }
+    }
+}
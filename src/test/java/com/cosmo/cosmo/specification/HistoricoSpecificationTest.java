@@ -0,0 +1,148 @@
+/*
+ * Copyright 2025 Flávio Alexandre Orrico Severiano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cosmo.cosmo.specification;
+
+import com.cosmo.cosmo.dto.equipamento.MonitorCreateDTO;
+import com.cosmo.cosmo.entity.Departamento;
+import com.cosmo.cosmo.entity.Empresa;
+import com.cosmo.cosmo.entity.Historico;
+import com.cosmo.cosmo.entity.Usuario;
+import com.cosmo.cosmo.entity.equipamento.Equipamento;
+import com.cosmo.cosmo.enums.StatusEquipamento;
+import com.cosmo.cosmo.repository.DepartamentoRepository;
+import com.cosmo.cosmo.repository.EmpresaRepository;
+import com.cosmo.cosmo.repository.EquipamentoRepository;
+import com.cosmo.cosmo.repository.HistoricoRepository;
+import com.cosmo.cosmo.repository.UsuarioRepository;
+import com.cosmo.cosmo.service.EquipamentoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoricoSpecificationTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2025, 1, 31);
+
+    @Autowired
+    private HistoricoRepository historicoRepository;
+
+    @Autowired
+    private EquipamentoService equipamentoService;
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario usuario;
+    private Equipamento equipamento;
+
+    @BeforeEach
+    void setUp() {
+        Empresa empresa = empresaRepository.save(new Empresa(null, "Empresa", "SP", null));
+        Departamento departamento = departamentoRepository.save(new Departamento(null, "TI", null));
+
+        usuario = new Usuario();
+        usuario.setNome("Usuário");
+        usuario.setEmpresa(empresa);
+        usuario.setDepartamento(departamento);
+        usuario.setAtivo(true);
+        usuario = usuarioRepository.save(usuario);
+
+        MonitorCreateDTO createDTO = new MonitorCreateDTO();
+        createDTO.setStatus(StatusEquipamento.DISPONIVEL);
+        createDTO.setEmpresaId(empresa.getId());
+        createDTO.setDepartamentoId(departamento.getId());
+        equipamento = equipamentoRepository.findById(equipamentoService.createMonitor(createDTO).getId()).orElseThrow();
+    }
+
+    @Test
+    void periodoDeEntregaIncluiODiaFinalInteiro() {
+        entregue(LocalDateTime.of(2024, 12, 31, 23, 59, 59));
+        Long noInicio = entregue(INICIO.atStartOfDay());
+        Long ultimoMinutoDoFim = entregue(LocalDateTime.of(2025, 1, 31, 23, 59));
+        Long ultimoInstanteDoFim = entregue(FIM.atTime(23, 59, 59, 999_999_000));
+        entregue(LocalDate.of(2025, 2, 1).atStartOfDay());
+
+        Set<Long> encontrados = buscar(HistoricoSpecification.comFiltros(
+                usuario.getId(), null, INICIO, FIM, null, null, null));
+
+        assertEquals(Set.of(noInicio, ultimoMinutoDoFim, ultimoInstanteDoFim), encontrados);
+    }
+
+    @Test
+    void periodoDeUmUnicoDiaIncluiOsMinutosFinais() {
+        Long ultimoMinuto = entregue(LocalDateTime.of(2025, 1, 31, 23, 59));
+        entregue(LocalDateTime.of(2025, 1, 30, 23, 59));
+
+        Set<Long> encontrados = buscar(HistoricoSpecification.comFiltros(
+                null, equipamento.getId(), FIM, FIM, null, null, null));
+
+        assertEquals(Set.of(ultimoMinuto), encontrados);
+    }
+
+    @Test
+    void periodoDeDevolucaoIncluiODiaFinalInteiro() {
+        LocalDateTime entrega = LocalDateTime.of(2024, 12, 1, 9, 0);
+        devolvido(entrega, LocalDateTime.of(2024, 12, 31, 23, 59, 59));
+        Long noInicio = devolvido(entrega, INICIO.atStartOfDay());
+        Long ultimoMinutoDoFim = devolvido(entrega, LocalDateTime.of(2025, 1, 31, 23, 59));
+        devolvido(entrega, LocalDate.of(2025, 2, 1).atStartOfDay());
+        entregue(entrega);
+
+        Set<Long> encontrados = buscar(HistoricoSpecification.comFiltros(
+                usuario.getId(), null, null, null, INICIO, FIM, null));
+
+        assertEquals(Set.of(noInicio, ultimoMinutoDoFim), encontrados);
+    }
+
+    private Set<Long> buscar(Specification<Historico> spec) {
+        return historicoRepository.findAll(spec).stream().map(Historico::getId).collect(Collectors.toSet());
+    }
+
+    private Long entregue(LocalDateTime dataEntrega) {
+        return devolvido(dataEntrega, null);
+    }
+
+    private Long devolvido(LocalDateTime dataEntrega, LocalDateTime dataDevolucao) {
+        Historico historico = new Historico();
+        historico.setEquipamento(equipamento);
+        historico.setUsuario(usuario);
+        historico.setDataEntrega(dataEntrega);
+        historico.setDataDevolucao(dataDevolucao);
+        return historicoRepository.save(historico).getId();
+    }
+}